@@ -0,0 +1,54 @@
+// benchmarks/src/main/java/benchmarks/BenchmarkPositions.java
+package benchmarks;
+
+import model.Bitboards;
+import model.Board;
+import model.Fen;
+import model.Move;
+
+/**
+ * Fixed positions shared by all benchmarks. Each is rebuilt from a move
+ * list (or FEN) so the numbers stay comparable across changes
+ * to the move generator.
+ */
+public enum BenchmarkPositions {
+    OPENING("E2 E3", "E7 E6", "B1 C3", "B8 C6"),
+    MIDDLEGAME("C2 C3", "G8 H6", "G2 G3", "H6 G4", "C3 C4", "G4 H2", "H1 H2", "H8 G8", "H2 H7", "A7 A6",
+        "H7 G7", "F8 G7", "E2 E3", "G7 B2", "C1 B2", "G8 G3", "F2 G3", "E7 E6", "F1 D3", "C7 C6",
+        "D3 C2", "D8 E7", "C2 F5", "E6 F5"),
+    ENDGAME("3k4/1b5p/5n2/8/2P5/R7/6P1/4K3 w");
+
+    private final String[] moves;
+
+    /**
+     * @param moves Moves from the start position, or a single FEN string
+     */
+    BenchmarkPositions(String... moves) {
+        this.moves = moves;
+    }
+
+    /**
+     * Build a fresh board holding this position.
+     * @return New board
+     */
+    public Board create() {
+        if (moves.length == 1 && moves[0].indexOf('/') >= 0) {
+            return Fen.parse(moves[0]);
+        }
+        Board board = new Board();
+        for (String text : moves) {
+            int from = square(text.substring(0, 2));
+            int to = square(text.substring(3, 5));
+            int move = board.getLegalMoves().find(from, to);
+            if (move == Move.NONE) {
+                throw new IllegalStateException("Illegal move in " + name() + ": " + text);
+            }
+            board.makeMove(move);
+        }
+        return board;
+    }
+
+    private static int square(String name) {
+        return Bitboards.square('8' - name.charAt(1), name.charAt(0) - 'A');
+    }
+}
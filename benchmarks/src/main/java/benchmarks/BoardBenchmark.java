@@ -0,0 +1,81 @@
+// benchmarks/src/main/java/benchmarks/BoardBenchmark.java
+package benchmarks;
+
+import model.Bitboards;
+import model.Board;
+import model.Move;
+import model.MoveList;
+import model.Piece;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The Board rule queries the game loop makes every turn.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmark {
+    @Param({"OPENING", "MIDDLEGAME", "ENDGAME"})
+    public BenchmarkPositions position;
+
+    private Board board;
+    private Piece.Color side;
+    private int move;
+    private int[] start;
+    private int[] end;
+    private final MoveList moves = new MoveList();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        board = position.create();
+        side = board.getSideToMove();
+        move = board.getLegalMoves().get(0);
+        start = new int[]{Bitboards.row(Move.from(move)), Bitboards.col(Move.from(move))};
+        end = new int[]{Bitboards.row(Move.to(move)), Bitboards.col(Move.to(move))};
+    }
+
+    @Benchmark
+    public boolean isCapturePossible() {
+        return board.isCapturePossible(side);
+    }
+
+    @Benchmark
+    public boolean isValidMove() {
+        return board.isValidMove(start, end, side);
+    }
+
+    @Benchmark
+    public long makeUnmakeMove() {
+        board.makeMove(move);
+        long hash = board.getHash();
+        board.unmakeMove();
+        return hash;
+    }
+
+    @Benchmark
+    public boolean isGameOver() {
+        return board.isGameOver();
+    }
+
+    @Benchmark
+    public int generateLegalMoves() {
+        moves.clear();
+        return board.generateLegalMoves(side, moves);
+    }
+}
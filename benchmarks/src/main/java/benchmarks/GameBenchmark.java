@@ -0,0 +1,56 @@
+// benchmarks/src/main/java/benchmarks/GameBenchmark.java
+package benchmarks;
+
+import model.Bitboards;
+import model.Board;
+import model.Move;
+import model.MoveList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end headless games: every ply validates the chosen move with
+ * isValidMove and plays it with makeMove, as the console loop does, until
+ * isGameOver. Moves are picked at random from a fixed seed, so each
+ * invocation plays the same set of games.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameBenchmark {
+    private static final int GAMES = 16;
+    private static final int MAX_PLIES = 400;
+
+    @Benchmark
+    public int playGames() {
+        SplittableRandom random = new SplittableRandom(20240101L);
+        int plies = 0;
+        for (int game = 0; game < GAMES; game++) {
+            Board board = new Board();
+            while (!board.isGameOver() && board.getHistorySize() < MAX_PLIES) {
+                MoveList legal = board.getLegalMoves();
+                int move = legal.get(random.nextInt(legal.size()));
+                int[] start = {Bitboards.row(Move.from(move)), Bitboards.col(Move.from(move))};
+                int[] end = {Bitboards.row(Move.to(move)), Bitboards.col(Move.to(move))};
+                if (board.isValidMove(start, end, board.getSideToMove())) {
+                    board.makeMove(start, end);
+                    plies++;
+                }
+            }
+        }
+        return plies;
+    }
+}
@@ -0,0 +1,80 @@
+// benchmarks/src/main/java/benchmarks/PieceMovesBenchmark.java
+package benchmarks;
+
+import model.Board;
+import model.MoveList;
+import model.Piece;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Move generation for every piece of one type in a position: the original
+ * {@link Piece#getValidMoves} next to the packed-move generator.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PieceMovesBenchmark {
+    @Param({"OPENING", "MIDDLEGAME", "ENDGAME"})
+    public BenchmarkPositions position;
+
+    @Param({"PAWN", "ROOK", "KNIGHT", "BISHOP", "QUEEN", "KING"})
+    public Piece.PieceType type;
+
+    private Board board;
+    private int[][] squares;
+    private Piece[] pieces;
+    private final MoveList moves = new MoveList();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        board = position.create();
+        List<int[]> found = new ArrayList<>();
+        List<Piece> foundPieces = new ArrayList<>();
+        for (int row = 0; row < 8; row++) {
+            for (int col = 0; col < 8; col++) {
+                Piece piece = board.getPiece(row, col);
+                if (piece != null && piece.getType() == type) {
+                    found.add(new int[]{row, col});
+                    foundPieces.add(piece);
+                }
+            }
+        }
+        squares = found.toArray(new int[0][]);
+        pieces = foundPieces.toArray(new Piece[0]);
+    }
+
+    @Benchmark
+    public void getValidMoves(Blackhole bh) {
+        for (int i = 0; i < squares.length; i++) {
+            bh.consume(pieces[i].getValidMoves(squares[i], board));
+        }
+    }
+
+    @Benchmark
+    public int generatePieceMoves() {
+        moves.clear();
+        for (int[] square : squares) {
+            board.generatePieceMoves(square[0], square[1], moves);
+        }
+        return moves.size();
+    }
+}
@@ -0,0 +1,117 @@
+// game/src/test/java/archive/GameJournalTest.java
+package archive;
+
+import model.Board;
+import model.GameObserver;
+import model.GameResult;
+import model.MoveList;
+import model.Piece;
+import model.Player;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GameJournalTest {
+    // Header, then the begin record for two five-letter names
+    private static final int FIRST_MOVE_OFFSET = 8 + 1 + 4 + 1 + 5 + 1 + 5;
+    private static final int MOVE_RECORD_SIZE = 7;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void unfinishedGamesAreRecovered() throws IOException {
+        Path path = dir.resolve("games.journal");
+        Board expected = new Board();
+        try (GameJournal journal = GameJournal.open(path, 0)) {
+            assertTrue(journal.getUnfinishedGames().isEmpty());
+            GameObserver ended = journal.newGame();
+            ended.gameStarted(new Player("Carol", Piece.Color.WHITE), new Player("Dave", Piece.Color.BLACK));
+            play(ended, new Board(), 6, 1);
+            ended.gameEnded(new GameResult(Piece.Color.WHITE, GameResult.Termination.QUIT, 6));
+
+            GameObserver open = journal.newGame();
+            open.gameStarted(new Player("Alice", Piece.Color.WHITE), new Player("Bob", Piece.Color.BLACK));
+            play(open, expected, 20, 2);
+        }
+
+        try (GameJournal journal = GameJournal.open(path, 0)) {
+            List<GameJournal.JournaledGame> games = journal.getUnfinishedGames();
+            assertEquals(1, games.size());
+            GameJournal.JournaledGame game = games.get(0);
+            assertEquals("Alice", game.getWhite());
+            assertEquals("Bob", game.getBlack());
+            assertEquals(20, game.getPlyCount());
+            assertEquals(expected.getHash(), game.replay().getHash());
+        }
+    }
+
+    @Test
+    void truncatedRecordIsDropped() throws IOException {
+        Path path = dir.resolve("games.journal");
+        int plies = 12;
+        Board expected = new Board();
+        try (GameJournal journal = GameJournal.open(path, 0)) {
+            GameObserver observer = journal.newGame();
+            observer.gameStarted(new Player("White", Piece.Color.WHITE), new Player("Black", Piece.Color.BLACK));
+            play(observer, expected, plies - 1, 3);
+            // The last move goes to the journal but is then cut in half
+            play(observer, new Board(expected), 1, 4);
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.truncate(FIRST_MOVE_OFFSET + MOVE_RECORD_SIZE * plies - 1);
+        }
+
+        try (GameJournal journal = GameJournal.open(path, 0)) {
+            List<GameJournal.JournaledGame> games = journal.getUnfinishedGames();
+            assertEquals(1, games.size());
+            assertEquals(plies - 1, games.get(0).getPlyCount());
+            assertEquals(expected.getHash(), games.get(0).replay().getHash());
+        }
+        // The rewritten journal keeps recovering the same game
+        try (GameJournal journal = GameJournal.open(path, 0)) {
+            assertEquals(plies - 1, journal.getUnfinishedGames().get(0).getPlyCount());
+        }
+    }
+
+    @Test
+    void abandonedGameIsNotRecovered() throws IOException {
+        Path path = dir.resolve("games.journal");
+        try (GameJournal journal = GameJournal.open(path, 0)) {
+            for (String name : new String[] {"Alice", "Carol"}) {
+                GameObserver observer = journal.newGame();
+                observer.gameStarted(new Player(name, Piece.Color.WHITE), new Player("Bob", Piece.Color.BLACK));
+                play(observer, new Board(), 4, 5);
+            }
+        }
+        try (GameJournal journal = GameJournal.open(path, 0)) {
+            assertEquals(2, journal.getUnfinishedGames().size());
+            journal.abandon(journal.getUnfinishedGames().get(0));
+        }
+        try (GameJournal journal = GameJournal.open(path, 0)) {
+            List<GameJournal.JournaledGame> games = journal.getUnfinishedGames();
+            assertEquals(1, games.size());
+            assertEquals("Carol", games.get(0).getWhite());
+        }
+    }
+
+    // Plays random legal moves on the board and reports them to the observer
+    private static void play(GameObserver observer, Board board, int plies, long seed) {
+        Random random = new Random(seed);
+        for (int i = 0; i < plies && !board.isGameOver(); i++) {
+            MoveList legal = board.getLegalMoves();
+            int move = legal.get(random.nextInt(legal.size()));
+            board.makeMove(move);
+            observer.movePlayed(move);
+        }
+    }
+}
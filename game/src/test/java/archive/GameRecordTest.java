@@ -0,0 +1,143 @@
+// game/src/test/java/archive/GameRecordTest.java
+package archive;
+
+import model.Board;
+import model.GameResult;
+import model.Move;
+import model.MoveList;
+import model.MoveSource;
+import model.Piece;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class GameRecordTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void writtenGamesReadBackUnchanged() throws IOException {
+        Path path = dir.resolve("games.acgr");
+        List<GameRecord> games = new ArrayList<>();
+        games.add(randomGame("alice", "bob", 1, Piece.Color.WHITE, GameResult.Termination.NO_PIECES));
+        games.add(randomGame("carol", "dave", 2, null, GameResult.Termination.MOVE_LIMIT));
+        games.add(new GameRecord("erin", "frank", Piece.Color.BLACK, GameResult.Termination.QUIT, new short[0]));
+        games.add(randomGame("grace", "heidi", 7, null, GameResult.Termination.REPETITION));
+        games.add(randomGame("ivan", "judy", 8, null, GameResult.Termination.HALFMOVE_LIMIT));
+        try (GameRecordWriter writer = GameRecordWriter.open(path)) {
+            for (GameRecord game : games) {
+                writer.write(game);
+            }
+        }
+
+        List<GameRecord> read = readAll(path);
+        assertEquals(games.size(), read.size());
+        for (int i = 0; i < games.size(); i++) {
+            assertSameGame(games.get(i), read.get(i));
+        }
+    }
+
+    @Test
+    void appendingKeepsEarlierGames() throws IOException {
+        Path path = dir.resolve("games.acgr");
+        GameRecord first = randomGame("a", "b", 3, Piece.Color.BLACK, GameResult.Termination.NO_MOVES);
+        GameRecord second = randomGame("c", "d", 4, null, GameResult.Termination.MOVE_LIMIT);
+        try (GameRecordWriter writer = GameRecordWriter.open(path)) {
+            writer.write(first);
+        }
+        try (GameRecordWriter writer = GameRecordWriter.open(path)) {
+            writer.write(second);
+        }
+
+        List<GameRecord> read = readAll(path);
+        assertEquals(2, read.size());
+        assertSameGame(first, read.get(0));
+        assertSameGame(second, read.get(1));
+    }
+
+    @Test
+    void unfinishedGameIsSkippedAndCutOff() throws IOException {
+        Path path = dir.resolve("games.acgr");
+        GameRecord finished = randomGame("a", "b", 5, Piece.Color.WHITE, GameResult.Termination.NO_PIECES);
+        try (GameRecordWriter writer = GameRecordWriter.open(path)) {
+            writer.write(finished);
+            writer.beginGame("c", "d");
+            writer.appendMove(Move.parseSquare('E', '2'), Move.parseSquare('E', '3'));
+        }
+        Path reference = dir.resolve("reference.acgr");
+        try (GameRecordWriter writer = GameRecordWriter.open(reference)) {
+            writer.write(finished);
+        }
+
+        assertEquals(1, readAll(path).size());
+        GameRecordWriter.open(path).close();
+        assertEquals(Files.size(reference), Files.size(path));
+
+        GameRecord next = randomGame("e", "f", 6, null, GameResult.Termination.ILLEGAL_MOVE);
+        try (GameRecordWriter writer = GameRecordWriter.open(path)) {
+            writer.write(next);
+        }
+        List<GameRecord> read = readAll(path);
+        assertEquals(2, read.size());
+        assertSameGame(finished, read.get(0));
+        assertSameGame(next, read.get(1));
+    }
+
+    @Test
+    void otherFilesAreRejected() throws IOException {
+        Path path = dir.resolve("notes.txt");
+        Files.writeString(path, "not a game archive");
+        assertThrows(IOException.class, () -> GameRecordReader.open(path).close());
+    }
+
+    private static List<GameRecord> readAll(Path path) throws IOException {
+        List<GameRecord> games = new ArrayList<>();
+        try (GameRecordReader reader = GameRecordReader.open(path)) {
+            for (GameRecord game : reader) {
+                games.add(game);
+            }
+        }
+        return games;
+    }
+
+    private static void assertSameGame(GameRecord expected, GameRecord actual) {
+        assertEquals(expected.getWhite(), actual.getWhite());
+        assertEquals(expected.getBlack(), actual.getBlack());
+        assertEquals(expected.getResult().getWinner(), actual.getResult().getWinner());
+        assertEquals(expected.getResult().getTermination(), actual.getResult().getTermination());
+        assertEquals(expected.getPlyCount(), actual.getPlyCount());
+        for (int i = 0; i < expected.getPlyCount(); i++) {
+            assertEquals(expected.getMove(i), actual.getMove(i), "ply " + i);
+        }
+        Board expectedBoard = new Board();
+        expected.replay(expectedBoard, expected.getPlyCount());
+        Board actualBoard = new Board();
+        actual.replay(actualBoard, actual.getPlyCount());
+        assertEquals(expectedBoard.getHash(), actualBoard.getHash());
+    }
+
+    // Legal random moves from the start position, until the game ends or 120 plies
+    private static GameRecord randomGame(String white, String black, long seed, Piece.Color winner, GameResult.Termination termination) {
+        Random random = new Random(seed);
+        Board board = new Board();
+        short[] moves = new short[120];
+        int plies = 0;
+        while (plies < moves.length && !board.isGameOver()) {
+            MoveList legal = board.getLegalMoves();
+            int move = legal.get(random.nextInt(legal.size()));
+            moves[plies++] = (short) MoveSource.encode(Move.from(move), Move.to(move));
+            board.makeMove(move);
+        }
+        return new GameRecord(white, black, winner, termination, Arrays.copyOf(moves, plies));
+    }
+}
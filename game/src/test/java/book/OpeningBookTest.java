@@ -0,0 +1,92 @@
+// game/src/test/java/book/OpeningBookTest.java
+package book;
+
+import archive.GameRecord;
+import model.Board;
+import model.GameResult;
+import model.Move;
+import model.MoveSource;
+import model.Piece;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OpeningBookTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void statisticsAreLookedUp() throws IOException {
+        Path path = dir.resolve("book.bin");
+        assertEquals(5, builder().write(path, 1));
+
+        try (OpeningBook book = OpeningBook.open(path)) {
+            assertEquals(2, book.getPlies());
+            assertEquals(5, book.getEntryCount());
+
+            Board board = new Board();
+            List<OpeningBook.Entry> entries = book.getEntries(board);
+            assertEquals(2, entries.size());
+            assertEntry(entries.get(0), "E2", "E3", 2, 1, 1);
+            assertEntry(entries.get(1), "D2", "D3", 1, 0, 0);
+            assertEquals("E2 E3", Move.toString(book.lookup(board)));
+
+            // The draw scores better for Black than the loss
+            board.makeMove(book.lookup(board));
+            assertEquals(2, book.getEntries(board).size());
+            assertEquals("D7 D6", Move.toString(book.lookup(board)));
+
+            board.makeMove(book.lookup(board));
+            assertTrue(book.getEntries(board).isEmpty());
+            assertEquals(Move.NONE, book.lookup(board));
+        }
+    }
+
+    @Test
+    void rareMovesAreLeftOut() throws IOException {
+        Path path = dir.resolve("book.bin");
+        assertEquals(1, builder().write(path, 2));
+
+        try (OpeningBook book = OpeningBook.open(path)) {
+            Board board = new Board();
+            assertEquals(1, book.getEntries(board).size());
+            board.makeMove(book.lookup(board));
+            assertEquals(Move.NONE, book.lookup(board));
+        }
+    }
+
+    private static OpeningBookBuilder builder() {
+        OpeningBookBuilder builder = new OpeningBookBuilder(2);
+        builder.add(game(Piece.Color.WHITE, "E2 E3", "E7 E6", "A2 A3"));
+        builder.add(game(null, "E2 E3", "D7 D6"));
+        builder.add(game(Piece.Color.BLACK, "D2 D3", "E7 E6"));
+        assertEquals(3, builder.getGameCount());
+        return builder;
+    }
+
+    private static GameRecord game(Piece.Color winner, String... moves) {
+        short[] squares = new short[moves.length];
+        for (int i = 0; i < moves.length; i++) {
+            squares[i] = (short) MoveSource.encode(square(moves[i].substring(0, 2)), square(moves[i].substring(3)));
+        }
+        GameResult.Termination termination = winner == null ? GameResult.Termination.MOVE_LIMIT : GameResult.Termination.QUIT;
+        return new GameRecord("White", "Black", winner, termination, squares);
+    }
+
+    private static int square(String name) {
+        return Move.parseSquare(name.charAt(0), name.charAt(1));
+    }
+
+    private static void assertEntry(OpeningBook.Entry entry, String from, String to, int games, int wins, int draws) {
+        assertEquals(MoveSource.encode(square(from), square(to)), entry.getSquares());
+        assertEquals(games, entry.getGames());
+        assertEquals(wins, entry.getWins());
+        assertEquals(draws, entry.getDraws());
+    }
+}
@@ -0,0 +1,57 @@
+// game/src/test/java/engine/EvaluatorTest.java
+package engine;
+
+import model.Board;
+import model.Fen;
+import model.MoveList;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class EvaluatorTest {
+    @Test
+    void scoreIsWeightedFeatureSum() {
+        Random random = new Random(13);
+        int[] weights = {120, 4, -10};
+        Evaluator evaluator = new Evaluator(weights);
+        int[] features = new int[Evaluator.FEATURE_COUNT];
+        int[] scratch = new int[Evaluator.FEATURE_COUNT];
+        for (int game = 0; game < 10; game++) {
+            Board board = new Board();
+            while (!board.isGameOver() && board.getHistorySize() < 100) {
+                Evaluator.features(board, features);
+                int expected = 0;
+                for (int f = 0; f < Evaluator.FEATURE_COUNT; f++) {
+                    expected += weights[f] * features[f];
+                }
+                assertEquals(expected, evaluator.evaluate(board));
+                assertEquals(expected, evaluator.evaluate(board, scratch));
+                MoveList legal = board.getLegalMoves();
+                board.makeMove(legal.get(random.nextInt(legal.size())));
+            }
+        }
+    }
+
+    // White to move has shed two more pieces than Black
+    @Test
+    void featuresFollowTheSideToMove() {
+        int[] features = new int[Evaluator.FEATURE_COUNT];
+        Evaluator.features(Fen.parse("8/8/8/8/p7/8/8/7p w"), features);
+        assertEquals(2, features[Evaluator.MATERIAL]);
+        Evaluator.features(Fen.parse("8/8/8/8/p7/8/8/7p b"), features);
+        assertEquals(-2, features[Evaluator.MATERIAL]);
+    }
+
+    @Test
+    void weightsAreParsed() {
+        assertArrayEquals(new int[] {120, 4, -10}, Evaluator.parse("120, 4,-10").getWeights());
+        assertArrayEquals(Evaluator.DEFAULT_WEIGHTS, new Evaluator().getWeights());
+        assertThrows(IllegalArgumentException.class, () -> Evaluator.parse("120,4"));
+        assertThrows(IllegalArgumentException.class, () -> Evaluator.parse("120,4,x"));
+        assertThrows(IllegalArgumentException.class, () -> Evaluator.parse("1,2,3,4"));
+    }
+}
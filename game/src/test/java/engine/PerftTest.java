@@ -0,0 +1,78 @@
+// game/src/test/java/engine/PerftTest.java
+package engine;
+
+import model.Board;
+import model.Fen;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PerftTest {
+    // Start position, an open position and one where White must capture
+    private static final String[] LINES = {
+        "",
+        "E2 E3,D7 D6,F1 C4,C8 G4",
+        "E2 E3,D7 D6,E3 E4,D6 D5",
+    };
+
+    // Pawns move one square at a time here, so the start position has 12 moves
+    @Test
+    void startPositionCounts() {
+        Perft perft = new Perft(1, null);
+        assertEquals(1, perft.count(new Board(), 0));
+        assertEquals(12, perft.count(new Board(), 1));
+        assertEquals(144, perft.count(new Board(), 2));
+        assertEquals(2042, perft.count(new Board(), 3));
+    }
+
+    @Test
+    void countsMatchReferenceGenerator() {
+        for (String line : LINES) {
+            Board board = new Board();
+            if (!line.isEmpty()) Perft.playMoves(board, line);
+            long hash = board.getHash();
+            for (int depth = 1; depth <= 3; depth++) {
+                long expected = Perft.referenceCount(board, depth);
+                assertEquals(expected, new Perft(1, null).count(board, depth), line + " depth " + depth);
+                assertEquals(expected, new Perft(2, new TranspositionTable(1)).count(board, depth), line + " depth " + depth);
+            }
+            assertEquals(hash, board.getHash());
+        }
+    }
+
+    // A forced-capture middlegame and a promotion endgame
+    @Test
+    void fenPositionsMatchReferenceGenerator() {
+        String[] positions = {
+            "rnbqkbnr/ppp1pppp/8/3p4/4P3/8/PPPP1PPP/RNBQKBNR w",
+            "8/1P6/8/3k4/8/8/5p2/R7 w",
+        };
+        for (String fen : positions) {
+            Board board = Fen.parse(fen);
+            for (int depth = 1; depth <= 3; depth++) {
+                assertEquals(Perft.referenceCount(board, depth), new Perft(2, new TranspositionTable(1)).count(board, depth),
+                    fen + " depth " + depth);
+            }
+            assertEquals(fen, Fen.toFen(board));
+        }
+    }
+
+    @Test
+    void depthBelowOneCountsTheRoot() {
+        assertEquals(1, new Perft(1, null).count(new Board(), -1));
+        assertEquals(1, Perft.referenceCount(new Board(), -1));
+    }
+
+    @Test
+    void badMovesAreReported() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+            () -> Perft.playMoves(new Board(), "E2 E3,Z9 E6"));
+        assertTrue(e.getMessage().contains("Z9 E6"), e.getMessage());
+        e = assertThrows(IllegalArgumentException.class, () -> Perft.playMoves(new Board(), "E2"));
+        assertTrue(e.getMessage().contains("E2"), e.getMessage());
+        e = assertThrows(IllegalArgumentException.class, () -> Perft.playMoves(new Board(), "e2 e4"));
+        assertTrue(e.getMessage().contains("e2 e4"), e.getMessage());
+    }
+}
@@ -0,0 +1,101 @@
+// game/src/test/java/engine/TranspositionTableTest.java
+package engine;
+
+import model.Move;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TranspositionTableTest {
+    // Keys that differ only above the index bits share a bucket
+    private static final long KEY_A = 0x1234L;
+    private static final long KEY_B = KEY_A | (1L << 40);
+    private static final long KEY_C = KEY_A | (2L << 40);
+    private static final long KEY_D = KEY_A | (3L << 40);
+
+    @Test
+    void storedResultIsFound() {
+        TranspositionTable table = new TranspositionTable(1);
+        int move = Move.encode(52, 44, 0, -1);
+        table.store(KEY_A, TranspositionTable.pack(move, -1234, 7, TranspositionTable.BOUND_LOWER));
+
+        long value = table.probe(KEY_A);
+        assertEquals(move, TranspositionTable.move(value));
+        assertEquals(-1234, TranspositionTable.score(value));
+        assertEquals(7, TranspositionTable.depth(value));
+        assertEquals(TranspositionTable.BOUND_LOWER, TranspositionTable.bound(value));
+        assertEquals(TranspositionTable.MISS, table.probe(KEY_B));
+    }
+
+    @Test
+    void perftCountsAreFound() {
+        TranspositionTable table = new TranspositionTable(1);
+        table.store(KEY_A, TranspositionTable.packCount(123_456_789_012L, 9));
+        long value = table.probe(KEY_A);
+        assertEquals(123_456_789_012L, TranspositionTable.count(value));
+        assertEquals(9, TranspositionTable.depth(value));
+    }
+
+    @Test
+    void sameKeyIsOverwritten() {
+        TranspositionTable table = new TranspositionTable(1, TranspositionTable.ReplacementPolicy.DEPTH_PREFERRED);
+        table.store(KEY_A, result(9));
+        table.store(KEY_A, result(2));
+        assertEquals(2, TranspositionTable.depth(table.probe(KEY_A)));
+    }
+
+    @Test
+    void alwaysReplacesFirstSlot() {
+        TranspositionTable table = new TranspositionTable(1, TranspositionTable.ReplacementPolicy.ALWAYS);
+        table.store(KEY_A, result(9));
+        table.store(KEY_B, result(1));
+        assertEquals(TranspositionTable.MISS, table.probe(KEY_A));
+        assertEquals(1, TranspositionTable.depth(table.probe(KEY_B)));
+    }
+
+    @Test
+    void depthPreferredKeepsDeeperEntry() {
+        TranspositionTable table = new TranspositionTable(1, TranspositionTable.ReplacementPolicy.DEPTH_PREFERRED);
+        table.store(KEY_A, result(9));
+        table.store(KEY_B, result(2));
+        table.store(KEY_C, result(1));
+        assertEquals(9, TranspositionTable.depth(table.probe(KEY_A)));
+        assertEquals(TranspositionTable.MISS, table.probe(KEY_B));
+        assertEquals(1, TranspositionTable.depth(table.probe(KEY_C)));
+
+        table.store(KEY_D, result(12));
+        assertEquals(TranspositionTable.MISS, table.probe(KEY_A));
+        assertEquals(12, TranspositionTable.depth(table.probe(KEY_D)));
+    }
+
+    @Test
+    void agedEntriesAreReplacedFirst() {
+        TranspositionTable table = new TranspositionTable(1, TranspositionTable.ReplacementPolicy.AGED_DEPTH_PREFERRED);
+        table.store(KEY_A, result(9));
+        table.store(KEY_B, result(2));
+        assertEquals(9, TranspositionTable.depth(table.probe(KEY_A)));
+
+        table.newSearch();
+        table.store(KEY_C, result(1));
+        assertEquals(TranspositionTable.MISS, table.probe(KEY_A));
+        assertEquals(1, TranspositionTable.depth(table.probe(KEY_C)));
+    }
+
+    @Test
+    void clearEmptiesTable() {
+        TranspositionTable table = new TranspositionTable(1);
+        table.store(KEY_A, result(3));
+        table.clear();
+        assertEquals(TranspositionTable.MISS, table.probe(KEY_A));
+    }
+
+    @Test
+    void tooSmallTableIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new TranspositionTable(0));
+    }
+
+    private static long result(int depth) {
+        return TranspositionTable.pack(Move.NONE, 0, depth, TranspositionTable.BOUND_EXACT);
+    }
+}
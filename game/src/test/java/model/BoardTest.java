@@ -0,0 +1,235 @@
+// game/src/test/java/model/BoardTest.java
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoardTest {
+    @Test
+    void unmakeRestoresEveryPosition() {
+        Random random = new Random(3);
+        MoveList moves = new MoveList();
+        for (int game = 0; game < 20; game++) {
+            Board board = new Board();
+            List<String> positions = new ArrayList<>();
+            for (int ply = 0; ply < 150; ply++) {
+                moves.clear();
+                Piece.Color side = board.getSideToMove();
+                if (board.generateCaptures(side, moves) == 0) board.generateMoves(side, moves);
+                if (moves.isEmpty()) break;
+                positions.add(describe(board));
+                board.makeMove(moves.get(random.nextInt(moves.size())));
+                assertEquals(ply + 1, board.getHistorySize());
+            }
+            for (int ply = positions.size() - 1; ply >= 0; ply--) {
+                board.unmakeMove();
+                assertEquals(positions.get(ply), describe(board), "ply " + ply);
+            }
+            assertEquals(describe(new Board()), describe(board));
+        }
+    }
+
+    @Test
+    void attackMapsMatchFullRecompute() {
+        Random random = new Random(5);
+        MoveList moves = new MoveList();
+        for (int game = 0; game < 20; game++) {
+            Board board = new Board();
+            for (int ply = 0; ply < 150; ply++) {
+                moves.clear();
+                Piece.Color side = board.getSideToMove();
+                if (board.generateCaptures(side, moves) == 0) board.generateMoves(side, moves);
+                if (moves.isEmpty()) break;
+                board.makeMove(moves.get(random.nextInt(moves.size())));
+                assertSameAttacks(board);
+            }
+            while (board.getHistorySize() > 0) {
+                board.unmakeMove();
+                assertSameAttacks(board);
+            }
+        }
+    }
+
+    @Test
+    void hashFollowsThePosition() {
+        Random random = new Random(9);
+        MoveList moves = new MoveList();
+        for (int game = 0; game < 20; game++) {
+            Board board = new Board();
+            List<Long> hashes = new ArrayList<>();
+            for (int ply = 0; ply < 150; ply++) {
+                moves.clear();
+                Piece.Color side = board.getSideToMove();
+                if (board.generateCaptures(side, moves) == 0) board.generateMoves(side, moves);
+                if (moves.isEmpty()) break;
+                hashes.add(board.getHash());
+                board.makeMove(moves.get(random.nextInt(moves.size())));
+                assertEquals(hashes.get(ply), board.getHistoryHash(ply));
+                assertEquals(rebuild(board).getHash(), board.getHash(), "ply " + ply);
+            }
+            for (int ply = hashes.size() - 1; ply >= 0; ply--) {
+                board.unmakeMove();
+                assertEquals(hashes.get(ply), board.getHash(), "ply " + ply);
+            }
+        }
+    }
+
+    @Test
+    void transpositionsHashAlike() {
+        Board first = new Board();
+        first.makeMove(new int[] {7, 1}, new int[] {5, 2});
+        first.makeMove(new int[] {0, 1}, new int[] {2, 2});
+        first.makeMove(new int[] {7, 6}, new int[] {5, 5});
+        Board second = new Board();
+        second.makeMove(new int[] {7, 6}, new int[] {5, 5});
+        second.makeMove(new int[] {0, 1}, new int[] {2, 2});
+        second.makeMove(new int[] {7, 1}, new int[] {5, 2});
+        assertEquals(describe(first), describe(second));
+        assertEquals(first.getHash(), second.getHash());
+
+        long blackToMove = first.getHash();
+        first.setSideToMove(Piece.Color.WHITE);
+        assertNotEquals(blackToMove, first.getHash());
+        assertEquals(rebuild(first).getHash(), first.getHash());
+    }
+
+    @Test
+    void captureIsTakenBack() {
+        Board board = new Board();
+        board.clear();
+        board.putPiece(4, 4, Piece.of(Piece.PieceType.ROOK, Piece.Color.WHITE));
+        board.putPiece(1, 4, Piece.of(Piece.PieceType.KNIGHT, Piece.Color.BLACK));
+        String before = describe(board);
+
+        board.makeMove(new int[] {4, 4}, new int[] {1, 4});
+        assertEquals(Piece.PieceType.ROOK, board.getPiece(1, 4).getType());
+        assertEquals(0, board.getPieceCount(Piece.Color.BLACK));
+        assertEquals(Piece.Color.BLACK, board.getSideToMove());
+
+        board.unmakeMove();
+        assertEquals(before, describe(board));
+    }
+
+    @Test
+    void sideWithoutPiecesWins() {
+        Board board = new Board();
+        board.clear();
+        board.putPiece(4, 4, Piece.of(Piece.PieceType.ROOK, Piece.Color.WHITE));
+        board.putPiece(1, 4, Piece.of(Piece.PieceType.KNIGHT, Piece.Color.BLACK));
+        assertFalse(board.isGameOver());
+        assertNull(board.determineWinner());
+
+        board.makeMove(new int[] {4, 4}, new int[] {1, 4});
+        assertTrue(board.isGameOver());
+        assertEquals(Piece.Color.BLACK, board.determineWinner());
+    }
+
+    @Test
+    void stalematedSideToMoveWins() {
+        // The white pawn is blocked and has nothing to capture
+        Board board = new Board();
+        board.clear();
+        board.putPiece(4, 4, Piece.of(Piece.PieceType.PAWN, Piece.Color.WHITE));
+        board.putPiece(3, 4, Piece.of(Piece.PieceType.PAWN, Piece.Color.BLACK));
+        board.setSideToMove(Piece.Color.WHITE);
+        assertTrue(board.isGameOver());
+        assertEquals(Piece.Color.WHITE, board.determineWinner());
+
+        board.setSideToMove(Piece.Color.BLACK);
+        assertTrue(board.isGameOver());
+        assertEquals(Piece.Color.BLACK, board.determineWinner());
+    }
+
+    @Test
+    void copyCarriesHistory() {
+        Random random = new Random(11);
+        MoveList moves = new MoveList();
+        Board board = new Board();
+        for (int ply = 0; ply < 40; ply++) {
+            moves.clear();
+            Piece.Color side = board.getSideToMove();
+            if (board.generateCaptures(side, moves) == 0) board.generateMoves(side, moves);
+            if (moves.isEmpty()) break;
+            board.makeMove(moves.get(random.nextInt(moves.size())));
+        }
+        Board copy = new Board(board);
+        assertEquals(describe(board), describe(copy));
+        assertEquals(board.getHash(), copy.getHash());
+        while (copy.getHistorySize() > 0) {
+            copy.unmakeMove();
+            assertSameAttacks(copy);
+        }
+        assertEquals(describe(new Board()), describe(copy));
+        assertEquals(new Board().getHash(), copy.getHash());
+    }
+
+    @Test
+    void unmakeRestoresHalfmoveClock() {
+        Board board = Fen.parse("8/8/8/3k4/8/8/8/R7 w - - 10 1");
+        board.makeMove(board.getLegalMoves().find(Move.parseSquare('A', '1'), Move.parseSquare('A', '2')));
+        assertEquals(11, board.getHalfmoveClock());
+        board.makeMove(board.getLegalMoves().find(Move.parseSquare('D', '5'), Move.parseSquare('D', '4')));
+        assertEquals(12, board.getHalfmoveClock());
+        board.unmakeMove();
+        board.unmakeMove();
+        assertEquals(10, board.getHalfmoveClock());
+
+        Board copy = new Board(board);
+        copy.makeMove(copy.getLegalMoves().find(Move.parseSquare('A', '1'), Move.parseSquare('A', '2')));
+        assertEquals(11, copy.getHalfmoveClock());
+        assertEquals(10, board.getHalfmoveClock());
+    }
+
+    @Test
+    void unmakeWithoutMoveFails() {
+        assertThrows(IllegalStateException.class, () -> new Board().unmakeMove());
+    }
+
+    // Compares the maps with those of a board set up piece by piece
+    private static void assertSameAttacks(Board board) {
+        Board fresh = rebuild(board);
+        for (Piece.Color color : Piece.Color.values()) {
+            assertEquals(fresh.getAttacks(color), board.getAttacks(color), color + " attacks");
+        }
+    }
+
+    // The same position set up piece by piece, without history
+    private static Board rebuild(Board board) {
+        Board fresh = new Board();
+        fresh.clear();
+        for (int row = 0; row < 8; row++) {
+            for (int col = 0; col < 8; col++) {
+                if (board.getPiece(row, col) != null) fresh.putPiece(row, col, board.getPiece(row, col));
+            }
+        }
+        fresh.setSideToMove(board.getSideToMove());
+        return fresh;
+    }
+
+    // Pieces, occupancy and side to move as text
+    private static String describe(Board board) {
+        StringBuilder text = new StringBuilder();
+        for (int row = 0; row < 8; row++) {
+            for (int col = 0; col < 8; col++) {
+                Piece piece = board.getPiece(row, col);
+                text.append(piece == null ? '.' : (char) ('a' + piece.getIndex()));
+            }
+        }
+        text.append(' ').append(board.getSideToMove())
+            .append(' ').append(Long.toHexString(board.getOccupancy(Piece.Color.WHITE)))
+            .append(' ').append(Long.toHexString(board.getOccupancy(Piece.Color.BLACK)))
+            .append(' ').append(board.getPieceCount(Piece.Color.WHITE))
+            .append(' ').append(board.getPieceCount(Piece.Color.BLACK));
+        return text.toString();
+    }
+}
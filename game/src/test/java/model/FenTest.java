@@ -0,0 +1,62 @@
+// game/src/test/java/model/FenTest.java
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class FenTest {
+    @Test
+    void startPositionMatchesNewBoard() {
+        Board board = new Board();
+        assertEquals(Fen.START, Fen.toFen(board));
+        assertEquals(board.getHash(), Fen.parse(Fen.START).getHash());
+    }
+
+    @Test
+    void positionsSurviveRoundTrip() {
+        Random random = new Random(7);
+        for (int game = 0; game < 20; game++) {
+            Board board = new Board();
+            while (!board.isGameOver() && board.getHistorySize() < 200) {
+                String fen = Fen.toFen(board);
+                Board parsed = Fen.parse(fen);
+                assertEquals(fen, Fen.toFen(parsed));
+                assertEquals(board.getHash(), parsed.getHash(), fen);
+                assertEquals(board.getSideToMove(), parsed.getSideToMove(), fen);
+                assertEquals(board.getHalfmoveClock(), parsed.getHalfmoveClock(), fen);
+                MoveList legal = board.getLegalMoves();
+                board.makeMove(legal.get(random.nextInt(legal.size())));
+            }
+        }
+    }
+
+    @Test
+    void invalidTextIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> Fen.parse("8/8/8/8/8/8/8 w"));
+        assertThrows(IllegalArgumentException.class, () -> Fen.parse("9/8/8/8/8/8/8/8 w"));
+        assertThrows(IllegalArgumentException.class, () -> Fen.parse("8/8/8/3x4/8/8/8/8 w"));
+        assertThrows(IllegalArgumentException.class, () -> Fen.parse("8/8/8/3k4/8/8/8/R7 x"));
+    }
+
+    @Test
+    void halfmoveClockIsRead() {
+        Board board = Fen.parse("8/8/8/3k4/8/8/8/R7 w - - 37 60");
+        assertEquals(37, board.getHalfmoveClock());
+        assertEquals("8/8/8/3k4/8/8/8/R7 w - - 37 1", Fen.toFen(board));
+        assertEquals(37, Fen.parse(Fen.toFen(board)).getHalfmoveClock());
+        assertEquals(0, Fen.parse("8/8/8/3k4/8/8/8/R7 w - - 0 1").getHalfmoveClock());
+        assertThrows(IllegalArgumentException.class, () -> Fen.parse("8/8/8/3k4/8/8/8/R7 w - - x 1"));
+    }
+
+    // Move lists hold 256 moves, which is only enough for a real army
+    @Test
+    void tooManyPiecesAreRejected() {
+        Fen.parse("QQQQQQQQ/QQQQQQQQ/8/8/8/8/8/8 w");
+        assertThrows(IllegalArgumentException.class, () -> Fen.parse("QQQQQQQQ/QQQQQQQQ/Q7/8/8/8/8/8 w"));
+        assertThrows(IllegalArgumentException.class, () -> Fen.parse("rnbqkbnr/pppppppp/p7/8/8/8/PPPPPPPP/RNBQKBNR w"));
+    }
+}
@@ -0,0 +1,79 @@
+// game/src/test/java/model/GameTest.java
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GameTest {
+    private static final String[] KNIGHT_SHUFFLE = {"G1 F3", "G8 F6", "F3 G1", "F6 G8"};
+
+    @Test
+    void threefoldRepetitionIsDrawn() {
+        Game game = new Game("White", "Black");
+        game.begin();
+        play(game, KNIGHT_SHUFFLE);
+        assertEquals(1, game.getBoard().getRepetitions());
+        assertNull(game.getResult());
+
+        play(game, KNIGHT_SHUFFLE);
+        assertEquals(2, game.getBoard().getRepetitions());
+        GameResult result = game.getResult();
+        assertTrue(result.isDraw());
+        assertEquals(GameResult.Termination.REPETITION, result.getTermination());
+        assertFalse(game.submitMove(squares("G1 F3")));
+    }
+
+    @Test
+    void pawnMoveResetsTheCounts() {
+        Game game = new Game("White", "Black");
+        game.begin();
+        play(game, KNIGHT_SHUFFLE);
+        play(game, "E2 E3", "E7 E6");
+        assertEquals(0, game.getBoard().getHalfmoveClock());
+        assertEquals(0, game.getBoard().getRepetitions());
+        play(game, KNIGHT_SHUFFLE);
+        assertEquals(4, game.getBoard().getHalfmoveClock());
+        assertEquals(1, game.getBoard().getRepetitions());
+        assertNull(game.getResult());
+    }
+
+    @Test
+    void halfmoveLimitIsDrawn() {
+        Game game = new Game("White", "Black");
+        game.setHalfmoveLimit(6);
+        game.begin();
+        play(game, "E2 E3", "B8 C6", "G1 F3", "G8 F6", "B1 C3");
+        assertEquals(4, game.getBoard().getHalfmoveClock());
+        assertNull(game.getResult());
+
+        play(game, "C6 B8", "F3 G1");
+        assertEquals(6, game.getBoard().getHalfmoveClock());
+        assertEquals(0, game.getBoard().getRepetitions());
+        assertEquals(GameResult.Termination.HALFMOVE_LIMIT, game.getResult().getTermination());
+        assertTrue(game.getResult().isDraw());
+    }
+
+    @Test
+    void noHalfmoveLimitPlaysOn() {
+        Game game = new Game("White", "Black");
+        game.setHalfmoveLimit(0);
+        game.begin();
+        play(game, "G1 F3", "B8 C6", "B1 C3", "G8 F6", "F3 H4", "C6 A5", "C3 B5", "F6 H5");
+        assertEquals(8, game.getBoard().getHalfmoveClock());
+        assertNull(game.getResult());
+    }
+
+    private static void play(Game game, String... moves) {
+        for (String move : moves) {
+            assertTrue(game.submitMove(squares(move)), move);
+        }
+    }
+
+    private static int squares(String move) {
+        return MoveSource.encode(Move.parseSquare(move.charAt(0), move.charAt(1)), Move.parseSquare(move.charAt(3), move.charAt(4)));
+    }
+}
@@ -0,0 +1,67 @@
+// game/src/test/java/model/PackedPositionTest.java
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PackedPositionTest {
+    @Test
+    void positionsSurviveRoundTrip() {
+        Random random = new Random(11);
+        ByteBuffer buffer = ByteBuffer.allocate(PackedPosition.SIZE);
+        Board decoded = new Board();
+        for (int game = 0; game < 20; game++) {
+            Board board = new Board();
+            while (!board.isGameOver() && board.getHistorySize() < 200) {
+                PackedPosition packed = PackedPosition.of(board);
+                // Packed positions do not carry the halfmove clock
+                Board unpacked = packed.toBoard();
+                unpacked.setHalfmoveClock(board.getHalfmoveClock());
+                assertEquals(Fen.toFen(board), Fen.toFen(unpacked));
+                assertEquals(board.getHash(), packed.toBoard().getHash());
+                assertEquals(packed, PackedPosition.fromBytes(packed.toByteArray(), 0));
+
+                buffer.clear();
+                PackedPosition.write(board, buffer);
+                assertArrayEquals(packed.toByteArray(), buffer.array());
+                buffer.flip();
+                PackedPosition.read(buffer, decoded);
+                assertEquals(board.getHash(), decoded.getHash());
+
+                MoveList legal = board.getLegalMoves();
+                board.makeMove(legal.get(random.nextInt(legal.size())));
+            }
+        }
+    }
+
+    @Test
+    void sideToMoveIsPacked() {
+        PackedPosition white = PackedPosition.of(Fen.parse("8/8/8/3k4/8/8/8/R7 w"));
+        PackedPosition black = PackedPosition.of(Fen.parse("8/8/8/3k4/8/8/8/R7 b"));
+        assertNotEquals(white, black);
+        assertEquals(Piece.Color.BLACK, black.toBoard().getSideToMove());
+    }
+
+    @Test
+    void invalidBytesAreRejected() {
+        byte[] bytes = PackedPosition.of(new Board()).toByteArray();
+        bytes[PackedPosition.SIZE - 1] = 2;
+        assertThrows(IllegalArgumentException.class, () -> PackedPosition.fromBytes(bytes, 0));
+
+        byte[] badPiece = PackedPosition.of(new Board()).toByteArray();
+        badPiece[8] = (byte) 0xF0;
+        assertThrows(IllegalArgumentException.class, () -> PackedPosition.fromBytes(badPiece, 0));
+
+        // A black rook turned white gives White 17 pieces
+        byte[] tooMany = PackedPosition.of(new Board()).toByteArray();
+        tooMany[8] = (byte) (Piece.Color.WHITE.ordinal() * 6 + Piece.PieceType.ROOK.ordinal() << 4 | tooMany[8] & 0xF);
+        assertThrows(IllegalArgumentException.class, () -> PackedPosition.fromBytes(tooMany, 0));
+    }
+}
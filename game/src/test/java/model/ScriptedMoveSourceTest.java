@@ -0,0 +1,39 @@
+// game/src/test/java/model/ScriptedMoveSourceTest.java
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ScriptedMoveSourceTest {
+    @Test
+    void readsSquarePairs() {
+        ScriptedMoveSource source = ScriptedMoveSource.of("E2 E3, e7 e6\n# comment\r\nA2\tA3 quit B2 B3");
+        Board board = new Board();
+        assertEquals(MoveSource.encode(Move.parseSquare('E', '2'), Move.parseSquare('E', '3')), source.nextMove(board, null));
+        assertEquals(MoveSource.encode(Move.parseSquare('E', '7'), Move.parseSquare('E', '6')), source.nextMove(board, null));
+        assertEquals(MoveSource.encode(Move.parseSquare('A', '2'), Move.parseSquare('A', '3')), source.nextMove(board, null));
+        assertEquals(MoveSource.QUIT, source.nextMove(board, null));
+        assertEquals(3, source.getMovesRead());
+    }
+
+    @Test
+    void endOfScriptQuits() {
+        ScriptedMoveSource source = ScriptedMoveSource.of("E2 E3 E7");
+        source.nextMove(new Board(), null);
+        assertEquals(MoveSource.QUIT, source.nextMove(new Board(), null));
+        assertEquals(MoveSource.QUIT, source.nextMove(new Board(), null));
+    }
+
+    // A byte above 0x7F must be rejected, not mistaken for the end of input
+    @Test
+    void highBytesAreInvalid() {
+        byte[] script = {'E', '2', ' ', 'E', '3', ' ', (byte) 0xFE, '2', ' ', 'E', '3'};
+        ScriptedMoveSource source = new ScriptedMoveSource(new ByteArrayInputStream(script));
+        source.nextMove(new Board(), null);
+        assertThrows(IllegalArgumentException.class, () -> source.nextMove(new Board(), null));
+    }
+}
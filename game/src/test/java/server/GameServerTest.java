@@ -0,0 +1,156 @@
+// game/src/test/java/server/GameServerTest.java
+package server;
+
+import model.Fen;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GameServerTest {
+    private GameServer server;
+    private Thread thread;
+
+    @BeforeEach
+    void start() throws IOException {
+        server = GameServer.open(0);
+        thread = new Thread(() -> {
+            try {
+                server.serve();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }, "game-server");
+        thread.start();
+    }
+
+    @AfterEach
+    void stop() throws InterruptedException {
+        server.close();
+        thread.join(5000);
+    }
+
+    @Test
+    void playersArePairedAndMovesRelayed() throws IOException {
+        try (Client alice = new Client(); Client bob = new Client()) {
+            alice.send("PLAY Alice");
+            assertEquals("WAITING", alice.read());
+            bob.send("PLAY Bob");
+            assertEquals("START white Bob", alice.read());
+            assertEquals("START black Alice", bob.read());
+
+            bob.send("MOVE E7 E6");
+            assertEquals("ILLEGAL not your turn", bob.read());
+            alice.send("MOVE E2 E5");
+            assertEquals("ILLEGAL E2 E5", alice.read());
+            alice.send("MOVE E2");
+            assertEquals("ILLEGAL expected MOVE A2 B3", alice.read());
+
+            alice.send("move e2 e3");
+            assertEquals("MOVED E2 E3", alice.read());
+            assertEquals("MOVED E2 E3", bob.read());
+            bob.send("FEN");
+            assertEquals("FEN rnbqkbnr/pppppppp/8/8/8/4P3/PPPP1PPP/RNBQKBNR b", bob.read());
+
+            bob.send("QUIT");
+            assertEquals("END white quit", bob.read());
+            assertEquals("END white quit", alice.read());
+            bob.send("FEN");
+            assertEquals("ERROR not in a game", bob.read());
+        }
+    }
+
+    @Test
+    void leavingResignsAndPlayersCanPlayAgain() throws IOException {
+        try (Client alice = new Client(); Client bob = new Client(); Client carol = new Client()) {
+            alice.send("PLAY Alice");
+            assertEquals("WAITING", alice.read());
+            bob.send("PLAY Bob");
+            assertEquals("START white Bob", alice.read());
+            assertEquals("START black Alice", bob.read());
+
+            bob.close();
+            assertEquals("END white quit", alice.read());
+
+            // Colors alternate between games
+            alice.send("PLAY Alice");
+            assertEquals("WAITING", alice.read());
+            carol.send("PLAY Carol");
+            assertEquals("START black Carol", alice.read());
+            assertEquals("START white Alice", carol.read());
+            assertEquals("FEN " + Fen.START, fen(carol));
+        }
+    }
+
+    @Test
+    void badCommandsAreAnswered() throws IOException {
+        try (Client client = new Client()) {
+            client.send("DANCE");
+            assertEquals("ERROR unknown command DANCE", client.read());
+            client.send("MOVE E2 E3");
+            assertEquals("ERROR not in a game", client.read());
+            client.send("PLAY");
+            assertTrue(client.read().startsWith("ERROR usage: PLAY name"));
+            client.send("QUIT");
+            assertEquals("BYE", client.read());
+            assertNull(client.read());
+        }
+    }
+
+    @Test
+    void overlongLineIsRejected() throws IOException {
+        try (Client client = new Client()) {
+            // A full buffer with no line break, so nothing is left unread when the server hangs up
+            client.write("PLAY " + "x".repeat(Connection.INPUT_SIZE - 5));
+            assertEquals("ERROR line too long", client.read());
+            assertNull(client.read());
+        }
+    }
+
+    private static String fen(Client client) throws IOException {
+        client.send("FEN");
+        return client.read();
+    }
+
+    private class Client implements AutoCloseable {
+        private final Socket socket;
+        private final BufferedReader in;
+        private final OutputStream out;
+
+        Client() throws IOException {
+            socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort());
+            socket.setSoTimeout(5000);
+            in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            out = socket.getOutputStream();
+        }
+
+        void send(String line) throws IOException {
+            write(line + "\n");
+        }
+
+        void write(String text) throws IOException {
+            out.write(text.getBytes(StandardCharsets.UTF_8));
+            out.flush();
+        }
+
+        String read() throws IOException {
+            return in.readLine();
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+}
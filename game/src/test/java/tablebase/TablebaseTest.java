@@ -0,0 +1,114 @@
+// game/src/test/java/tablebase/TablebaseTest.java
+package tablebase;
+
+import model.Board;
+import model.Fen;
+import model.MoveList;
+import model.Piece;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class TablebaseTest {
+    @TempDir
+    static Path dir;
+
+    private static Path file;
+
+    @BeforeAll
+    static void generate() throws IOException {
+        file = dir.resolve("two.tb");
+        new TablebaseGenerator(2).generate(2, file);
+    }
+
+    @Test
+    void generationIsDeterministic() throws IOException {
+        Path single = dir.resolve("single.tb");
+        new TablebaseGenerator(1).generate(2, single);
+        assertArrayEquals(Files.readAllBytes(file), Files.readAllBytes(single));
+    }
+
+    @Test
+    void knownPositionsProbeAsExpected() throws IOException {
+        try (Tablebase tablebase = Tablebase.open(file)) {
+            // White must take the knight, which leaves Black without pieces
+            assertEquals("loss in 1", Tablebase.describe(tablebase.probe(Fen.parse("n7/8/8/8/8/8/8/R7 w"))));
+            // Black's pawn is blocked and cannot capture: Black to move has won
+            assertEquals("win in 0", Tablebase.describe(tablebase.probe(Fen.parse("8/8/8/3p4/3P4/8/8/8 b"))));
+            assertEquals(Tablebase.UNKNOWN, tablebase.probe(new Board()));
+            assertEquals(Tablebase.UNKNOWN, tablebase.probe(Fen.parse("n7/8/8/8/8/8/8/RR6 w")));
+        }
+    }
+
+    // Every position's value must follow from its children's values
+    @Test
+    void valuesAgreeWithChildren() throws IOException {
+        try (Tablebase tablebase = Tablebase.open(file)) {
+            MoveList moves = new MoveList();
+            int[] placement = new int[64];
+            int checked = 0;
+            for (Material material : Material.canonicalWithPieces(2)) {
+                int[] squares = new int[2];
+                for (long index = 0; index < material.size(); index += 7) {
+                    if (!material.decode(index, squares)) continue;
+                    Arrays.fill(placement, -1);
+                    placement[squares[0]] = material.getSlotPiece(0);
+                    placement[squares[1]] = material.getSlotPiece(1);
+                    Board board = new Board();
+                    board.setup(placement, Piece.Color.values()[(int) (index & 1)]);
+
+                    int value = tablebase.probe(board);
+                    assertEquals(expected(tablebase, board, moves), value, Fen.toFen(board));
+                    assertEquals(value, tablebase.probe(mirror(board)), Fen.toFen(board));
+                    checked++;
+                }
+            }
+            assertNotEquals(0, checked);
+        }
+    }
+
+    private static int expected(Tablebase tablebase, Board board, MoveList moves) {
+        moves.clear();
+        board.generateLegalMoves(board.getSideToMove(), moves);
+        if (moves.isEmpty()) return 1;
+        int fastestWin = Integer.MAX_VALUE;
+        int slowestLoss = -1;
+        boolean draw = false;
+        for (int i = 0; i < moves.size(); i++) {
+            board.makeMove(moves.get(i));
+            int child = board.getPieceCount(board.getSideToMove()) == 0 ? 1 : tablebase.probe(board);
+            board.unmakeMove();
+            if (child == Tablebase.DRAW) {
+                draw = true;
+            } else if (Tablebase.isLoss(child)) {
+                fastestWin = Math.min(fastestWin, Tablebase.distance(child) + 1);
+            } else {
+                slowestLoss = Math.max(slowestLoss, Tablebase.distance(child) + 1);
+            }
+        }
+        if (fastestWin != Integer.MAX_VALUE) return fastestWin + 1;
+        return draw ? Tablebase.DRAW : slowestLoss + 1;
+    }
+
+    // The same position seen from the other side: board flipped, colors swapped
+    private static Board mirror(Board board) {
+        int[] placement = new int[64];
+        Arrays.fill(placement, -1);
+        for (int sq = 0; sq < 64; sq++) {
+            int piece = board.getPieceIndex(sq);
+            if (piece >= 0) placement[sq ^ 56] = (piece + 6) % Piece.COUNT;
+        }
+        Board mirrored = new Board();
+        mirrored.setup(placement, board.getSideToMove() == Piece.Color.WHITE ? Piece.Color.BLACK : Piece.Color.WHITE);
+        return mirrored;
+    }
+}
@@ -1,28 +1,239 @@
 // src/Main.java
+import archive.GameJournal;
+import archive.GameRecordReader;
+import archive.GameRecordWriter;
+import book.OpeningBook;
+import book.OpeningBookBuilder;
+import engine.ComputerPlayer;
+import engine.Evaluator;
+import engine.MctsMoveSource;
+import engine.Perft;
+import engine.ProofNumberSearch;
+import engine.SearchLimits;
+import engine.TexelTuner;
+import engine.Tournament;
+import engine.TranspositionTable;
+import metrics.Metrics;
+import model.Board;
+import model.BoardRenderer;
+import model.ConsoleMoveSource;
 import model.Game;
+import model.GameObserver;
+import model.MoveSource;
+import model.Piece;
+import model.Player;
+import model.ScriptedMoveSource;
+import server.GameServer;
+import tablebase.Tablebase;
+import tablebase.TablebaseGenerator;
 
-import java.util.Scanner;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
 
 public class Main {
     public static void main(String[] args) {
-        Scanner scanner = new Scanner(System.in);
+        Metrics.start(System.err, Long.getLong("antichess.metrics.interval", Metrics.DEFAULT_REPORT_MILLIS));
+        if (args.length > 0 && args[0].equals("perft")) {
+            Perft.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && args[0].equals("tournament")) {
+            Tournament.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && args[0].equals("archive")) {
+            GameRecordReader.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && args[0].equals("server")) {
+            GameServer.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && args[0].equals("book")) {
+            OpeningBookBuilder.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && args[0].equals("solve")) {
+            ProofNumberSearch.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && args[0].equals("tune")) {
+            TexelTuner.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && args[0].equals("tablebase")) {
+            TablebaseGenerator.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
+        Piece.Color computerColor = null;
+        long moveTime = 2000;
+        int threads = 1;
+        String script = null;
+        String record = null;
+        String journalFile = null;
+        String tablebaseFile = null;
+        String bookFile = null;
+        BoardRenderer.Mode display = BoardRenderer.Mode.PLAIN;
+        String engine = "search";
+        boolean ponder = true;
+        int halfmoveLimit = Game.DEFAULT_HALFMOVE_LIMIT;
+        Evaluator evaluator = new Evaluator();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--computer") && i + 1 < args.length) {
+                computerColor = Piece.Color.valueOf(args[++i].toUpperCase());
+            } else if (args[i].equals("--movetime") && i + 1 < args.length) {
+                moveTime = Long.parseLong(args[++i]);
+            } else if (args[i].equals("--threads") && i + 1 < args.length) {
+                threads = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("--script") && i + 1 < args.length) {
+                script = args[++i];
+            } else if (args[i].equals("--record") && i + 1 < args.length) {
+                record = args[++i];
+            } else if (args[i].equals("--journal") && i + 1 < args.length) {
+                journalFile = args[++i];
+            } else if (args[i].equals("--tablebase") && i + 1 < args.length) {
+                tablebaseFile = args[++i];
+            } else if (args[i].equals("--book") && i + 1 < args.length) {
+                bookFile = args[++i];
+            } else if (args[i].equals("--halfmove-limit") && i + 1 < args.length) {
+                halfmoveLimit = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("--weights") && i + 1 < args.length) {
+                try {
+                    evaluator = Evaluator.parse(args[++i]);
+                } catch (IllegalArgumentException e) {
+                    System.out.println(e.getMessage());
+                    return;
+                }
+            } else if (args[i].equals("--no-ponder")) {
+                ponder = false;
+            } else if (args[i].equals("--engine") && i + 1 < args.length && (args[i + 1].equals("search") || args[i + 1].equals("mcts"))) {
+                engine = args[++i];
+            } else if (args[i].equals("--display") && i + 1 < args.length) {
+                display = BoardRenderer.Mode.valueOf(args[++i].toUpperCase());
+            } else {
+                System.out.println("Usage: java Main [--computer white|black] [--movetime ms] [--threads n] [--script file] [--record file] [--journal file] [--tablebase file] [--book file]");
+                System.out.println("                 [--display plain|ansi|quiet] [--engine search|mcts] [--no-ponder] [--halfmove-limit n] [--weights w]");
+                System.out.println("       java Main perft <depth> [--threads n] [--hash MB] [--divide] [--verify]");
+                System.out.println("       java Main tournament [--games n] [--a spec] [--b spec] [--max-plies n] [--halfmove-limit n] [--hash MB] [--record file] [--tablebase file] [--book file]");
+                System.out.println("                           [--weights-a w] [--weights-b w]");
+                System.out.println("       java Main archive <file> [--list]");
+                System.out.println("       java Main book build <book> <archive>... [--plies n] [--min-games n]");
+                System.out.println("       java Main book probe <book> [fen]");
+                System.out.println("       java Main server [--port n] [--record file]");
+                System.out.println("       java Main tablebase generate <pieces> <file> [--threads n]");
+                System.out.println("       java Main tablebase probe <file> <fen>");
+                System.out.println("       java Main solve [--fen \"...\"] [--moves \"E2 E3,E7 E6\"] [--hash MB] [--nodes n] [--time ms] [--max-plies n]");
+                System.out.println("       java Main tune <archive>... [--threads n] [--min-ply n]");
+                return;
+            }
+        }
+
+        ConsoleMoveSource console = ConsoleMoveSource.shared();
         System.out.println("Welcome to Anti-Chess CLI Game!");
 
-        System.out.print("Enter name for Player 1 (White): ");
-        String player1Name = scanner.nextLine().trim();
-        if (player1Name.isEmpty()) {
-            player1Name = "Player 1";
+        try (ScriptedMoveSource scripted = script == null ? null : ScriptedMoveSource.open(Path.of(script));
+             GameJournal journal = journalFile == null ? null : GameJournal.open(Path.of(journalFile), GameJournal.DEFAULT_SYNC_MILLIS);
+             GameRecordWriter writer = record == null ? null : GameRecordWriter.open(Path.of(record));
+             Tablebase tablebase = tablebaseFile == null ? null : Tablebase.open(Path.of(tablebaseFile));
+             OpeningBook book = bookFile == null ? null : OpeningBook.open(Path.of(bookFile))) {
+            MoveSource humanMoves = scripted != null ? scripted : console;
+            GameJournal.JournaledGame resumed = journal == null ? null : chooseGame(journal, console);
+            Board resumedBoard = null;
+            if (resumed != null) {
+                try {
+                    resumedBoard = resumed.replay();
+                    System.out.println("Resuming game " + resumed + ".");
+                } catch (IllegalArgumentException e) {
+                    System.out.println("Cannot resume game " + resumed + ": " + e.getMessage());
+                    System.out.println("Starting a new game instead.");
+                    journal.abandon(resumed);
+                    resumed = null;
+                }
+            }
+
+            Player white;
+            if (computerColor == Piece.Color.WHITE) {
+                white = computerPlayer(Piece.Color.WHITE, engine, moveTime, threads, evaluator, tablebase, book, ponder);
+            } else if (resumed != null) {
+                white = new Player(resumed.getWhite(), Piece.Color.WHITE, humanMoves);
+            } else {
+                System.out.print("Enter name for Player 1 (White): ");
+                String player1Name = readName(console, "Player 1");
+                white = new Player(player1Name, Piece.Color.WHITE, humanMoves);
+            }
+
+            Player black;
+            if (computerColor == Piece.Color.BLACK) {
+                black = computerPlayer(Piece.Color.BLACK, engine, moveTime, threads, evaluator, tablebase, book, ponder);
+            } else if (resumed != null) {
+                black = new Player(resumed.getBlack(), Piece.Color.BLACK, humanMoves);
+            } else {
+                System.out.print("Enter name for Player 2 (Black): ");
+                String player2Name = readName(console, "Player 2");
+                black = new Player(player2Name, Piece.Color.BLACK, humanMoves);
+            }
+
+            Game game = resumed != null ? new Game(white, black, resumedBoard) : new Game(white, black);
+            GameObserver journaling = journal == null ? null : resumed != null ? journal.resume(resumed) : journal.newGame();
+            game.setObserver(GameObserver.combine(journaling, writer));
+            game.setHalfmoveLimit(halfmoveLimit);
+            try (BoardRenderer renderer = new BoardRenderer(System.out, display)) {
+                game.setRenderer(renderer);
+                game.start();
+            }
+        } catch (IOException e) {
+            System.out.println("Cannot open file: " + e.getMessage());
         }
+    }
 
-        System.out.print("Enter name for Player 2 (Black): ");
-        String player2Name = scanner.nextLine().trim();
-        if (player2Name.isEmpty()) {
-            player2Name = "Player 2";
+    /**
+     * Offer the journal's unfinished games. Games that are not picked stay
+     * in the journal and are offered again next time.
+     * @return The game to resume, or null for a new game
+     */
+    private static GameJournal.JournaledGame chooseGame(GameJournal journal, ConsoleMoveSource console) {
+        List<GameJournal.JournaledGame> unfinished = journal.getUnfinishedGames();
+        if (unfinished.isEmpty()) return null;
+
+        System.out.println("Unfinished games:");
+        for (int i = 0; i < unfinished.size(); i++) {
+            System.out.println("  " + (i + 1) + ". " + unfinished.get(i));
+        }
+        while (true) {
+            System.out.print("Resume which game? (1-" + unfinished.size() + ", Enter for the last, 0 for a new game): ");
+            String line = console.readLine();
+            String answer = line == null ? "" : line.trim();
+            if (answer.isEmpty()) return unfinished.get(unfinished.size() - 1);
+            try {
+                int choice = Integer.parseInt(answer);
+                if (choice == 0) return null;
+                if (choice >= 1 && choice <= unfinished.size()) return unfinished.get(choice - 1);
+            } catch (NumberFormatException e) {
+                // Ask again
+            }
+            System.out.println("Please enter a number from 0 to " + unfinished.size() + ".");
         }
+    }
 
-        Game game = new Game(player1Name, player2Name);
-        game.start();
+    private static Player computerPlayer(Piece.Color color, String engine, long moveTime, int threads, Evaluator evaluator,
+                                         Tablebase tablebase, OpeningBook book, boolean ponder) {
+        if (engine.equals("mcts")) {
+            return new Player("Computer", color, new MctsMoveSource(SearchLimits.moveTime(moveTime), threads, System.nanoTime()));
+        }
+        ComputerPlayer computer = new ComputerPlayer("Computer", color, SearchLimits.moveTime(moveTime),
+            new TranspositionTable(ComputerPlayer.DEFAULT_HASH_MB), evaluator, threads);
+        computer.setTablebase(tablebase);
+        computer.setBook(book);
+        computer.setPondering(ponder);
+        return computer;
+    }
 
-        scanner.close();
+    private static String readName(ConsoleMoveSource console, String defaultName) {
+        String line = console.readLine();
+        String name = line == null ? "" : line.trim();
+        return name.isEmpty() ? defaultName : name;
     }
 }
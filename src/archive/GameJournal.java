@@ -0,0 +1,406 @@
+// src/archive/GameJournal.java
+package archive;
+
+import model.Board;
+import model.GameObserver;
+import model.GameResult;
+import model.Move;
+import model.MoveSource;
+import model.Player;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Append-only journal of the games in progress, so they can be resumed
+ * after a crash.
+ *
+ * The journal is a memory-mapped file. Every accepted move is a few bytes
+ * copied into the mapping, which survives the JVM dying; a background thread
+ * forces the mapping to disk every {@code syncMillis} milliseconds, so the
+ * move loop never waits for the disk and a power failure loses at most the
+ * last batch. Records are
+ * <pre>
+ *   u8   type (1 begin, 2 move, 3 end), written last
+ *   i32  game id
+ *   begin: u8 length + UTF-8 white name, u8 length + UTF-8 black name
+ *   move:  u16 square pair {@code from | to << 6}
+ *   end:   u8 result (as in {@link GameRecord})
+ * </pre>
+ * and the first zero type byte marks the end of the data.
+ *
+ * {@link #open} reads the journal back, keeps the games that have no end
+ * record and rewrites the file with only those, so the journal does not
+ * grow without bound across restarts.
+ */
+public class GameJournal implements Closeable {
+    public static final long DEFAULT_SYNC_MILLIS = 100;
+
+    private static final byte[] MAGIC = {'A', 'C', 'G', 'J'};
+    private static final byte VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+    private static final int INITIAL_SIZE = 1 << 20;
+
+    private static final byte BEGIN = 1;
+    private static final byte MOVE = 2;
+    private static final byte END = 3;
+
+    /**
+     * A game from the journal that has not ended.
+     */
+    public static class JournaledGame {
+        private final int id;
+        private final String white;
+        private final String black;
+        private short[] moves = new short[64];
+        private int plyCount;
+
+        JournaledGame(int id, String white, String black) {
+            this.id = id;
+            this.white = white;
+            this.black = black;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public String getWhite() {
+            return white;
+        }
+
+        public String getBlack() {
+            return black;
+        }
+
+        public int getPlyCount() {
+            return plyCount;
+        }
+
+        /**
+         * Rebuild the position reached.
+         * @return Board after the journaled moves, with its move history
+         * @throws IllegalArgumentException If a journaled move is not legal
+         */
+        public Board replay() {
+            Board board = new Board();
+            GameRecord.replay(board, moves, plyCount, "#" + id);
+            return board;
+        }
+
+        void addMove(short squares) {
+            if (plyCount == moves.length) {
+                moves = Arrays.copyOf(moves, moves.length * 2);
+            }
+            moves[plyCount++] = squares;
+        }
+
+        @Override
+        public String toString() {
+            return "#" + id + " " + white + " - " + black + ", " + plyCount + " plies";
+        }
+    }
+
+    private final FileChannel channel;
+    private final List<JournaledGame> unfinished;
+    private final ScheduledExecutorService syncer;
+    private MappedByteBuffer map;
+    private int position;
+    private int nextId;
+    private boolean dirty;
+
+    private GameJournal(FileChannel channel, int position, List<JournaledGame> unfinished, int nextId, long syncMillis) throws IOException {
+        this.channel = channel;
+        this.position = position;
+        this.unfinished = unfinished;
+        this.nextId = nextId;
+        map = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacityFor(position + 1));
+        if (syncMillis > 0) {
+            syncer = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "journal-sync");
+                t.setDaemon(true);
+                return t;
+            });
+            syncer.scheduleWithFixedDelay(this::sync, syncMillis, syncMillis, TimeUnit.MILLISECONDS);
+        } else {
+            syncer = null;
+        }
+    }
+
+    /**
+     * Open a journal, recovering the games left unfinished in it.
+     * @param path Journal file (created if missing)
+     * @param syncMillis Interval between forced writes to disk (0 to leave it to the OS)
+     * @return Journal ready for appending
+     * @throws IOException If the file cannot be read or written, or is not a journal
+     */
+    public static GameJournal open(Path path, long syncMillis) throws IOException {
+        Map<Integer, JournaledGame> games = new LinkedHashMap<>();
+        int nextId = 1;
+        if (Files.exists(path) && Files.size(path) > 0) {
+            nextId = recover(path, games);
+        }
+        List<JournaledGame> unfinished = new ArrayList<>(games.values());
+
+        // Rewrite the journal with just the unfinished games, then swap it in
+        ByteBuffer content = ByteBuffer.allocate(contentSize(unfinished));
+        content.put(MAGIC).put(VERSION).position(HEADER_SIZE);
+        for (JournaledGame game : unfinished) {
+            putBegin(content, game.id, GameRecord.nameBytes(game.white), GameRecord.nameBytes(game.black));
+            for (int i = 0; i < game.plyCount; i++) {
+                content.put(MOVE).putInt(game.id).putShort(game.moves[i]);
+            }
+        }
+        content.flip();
+        int length = content.remaining();
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (content.hasRemaining()) {
+                out.write(content);
+            }
+            out.force(true);
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            return new GameJournal(channel, length, Collections.unmodifiableList(unfinished), nextId, syncMillis);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Read a journal into games, dropping the ended ones. Reading stops at
+     * the end marker or at the first damaged record.
+     * @return Next free game id
+     */
+    private static int recover(Path path, Map<Integer, JournaledGame> games) throws IOException {
+        int nextId = 1;
+        try (FileChannel in = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (in.size() > Integer.MAX_VALUE) {
+                throw new IOException("Journal is too large.");
+            }
+            MappedByteBuffer data = in.map(FileChannel.MapMode.READ_ONLY, 0, in.size());
+            for (byte b : MAGIC) {
+                if (!data.hasRemaining() || data.get() != b) throw new IOException("Not a game journal.");
+            }
+            if (!data.hasRemaining() || data.get() != VERSION) {
+                throw new IOException("Unsupported game journal version.");
+            }
+            data.position(Math.min(HEADER_SIZE, data.limit()));
+            while (data.remaining() >= 5) {
+                byte type = data.get();
+                int id = data.getInt();
+                if (type == BEGIN) {
+                    String white = getName(data);
+                    String black = white == null ? null : getName(data);
+                    if (black == null) break;
+                    games.put(id, new JournaledGame(id, white, black));
+                    nextId = Math.max(nextId, id + 1);
+                } else if (type == MOVE && data.remaining() >= 2) {
+                    short squares = data.getShort();
+                    JournaledGame game = games.get(id);
+                    if (game != null) game.addMove(squares);
+                } else if (type == END && data.remaining() >= 1) {
+                    data.get();
+                    games.remove(id);
+                } else {
+                    break;
+                }
+            }
+        }
+        return nextId;
+    }
+
+    private static String getName(ByteBuffer data) {
+        if (!data.hasRemaining()) return null;
+        int length = data.get() & 0xFF;
+        if (data.remaining() < length) return null;
+        byte[] bytes = new byte[length];
+        data.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Games that were in progress when the journal was last closed or the
+     * program died. They stay in the journal until they end.
+     * @return Unfinished games, oldest first
+     */
+    public List<JournaledGame> getUnfinishedGames() {
+        return unfinished;
+    }
+
+    /**
+     * An observer that journals a new game.
+     * @return Observer to pass to {@link model.Game#setObserver}
+     */
+    public GameObserver newGame() {
+        return new JournalObserver(-1);
+    }
+
+    /**
+     * An observer that continues journaling a recovered game.
+     * @param game Game from {@link #getUnfinishedGames}
+     * @return Observer to pass to the resumed {@link model.Game}
+     */
+    public GameObserver resume(JournaledGame game) {
+        return new JournalObserver(game.id);
+    }
+
+    /**
+     * End a recovered game without playing it, so later opens drop it.
+     * @param game Game from {@link #getUnfinishedGames}
+     */
+    public void abandon(JournaledGame game) {
+        appendEnd(game.id, (byte) GameRecord.encodeResult(null, GameResult.Termination.QUIT));
+    }
+
+    private class JournalObserver implements GameObserver {
+        private int id;
+
+        JournalObserver(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public void gameStarted(Player white, Player black) {
+            id = begin(white.getName(), black.getName());
+        }
+
+        @Override
+        public void gameResumed(Player white, Player black, Board board) {
+            // Already in the journal, with its moves
+            if (id < 0) {
+                GameObserver.super.gameResumed(white, black, board);
+            }
+        }
+
+        @Override
+        public void movePlayed(int move) {
+            appendMove(id, (short) MoveSource.encode(Move.from(move), Move.to(move)));
+        }
+
+        @Override
+        public void gameEnded(GameResult result) {
+            appendEnd(id, (byte) GameRecord.encodeResult(result.getWinner(), result.getTermination()));
+        }
+    }
+
+    private synchronized int begin(String white, String black) {
+        int id = nextId++;
+        byte[] whiteName = GameRecord.nameBytes(white);
+        byte[] blackName = GameRecord.nameBytes(black);
+        int start = reserve(id, 2 + whiteName.length + blackName.length);
+        map.put((byte) whiteName.length).put(whiteName)
+            .put((byte) blackName.length).put(blackName);
+        commit(start, BEGIN);
+        return id;
+    }
+
+    private synchronized void appendMove(int id, short squares) {
+        int start = reserve(id, 2);
+        map.putShort(squares);
+        commit(start, MOVE);
+    }
+
+    private synchronized void appendEnd(int id, byte result) {
+        int start = reserve(id, 1);
+        map.put(result);
+        commit(start, END);
+    }
+
+    /**
+     * Make room for a record and write its game id. The type byte is
+     * written last, by {@link #commit}, so a half-written record is never
+     * taken for a complete one.
+     * @return Start of the record
+     */
+    private int reserve(int id, int payload) {
+        if (position + 5 + payload + 1 > map.capacity()) {
+            grow(position + 5 + payload + 1);
+        }
+        map.position(position + 1);
+        map.putInt(id);
+        return position;
+    }
+
+    private void commit(int start, byte type) {
+        map.put(start, type);
+        position = map.position();
+        dirty = true;
+    }
+
+    private void grow(int needed) {
+        try {
+            map = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacityFor(needed));
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot extend game journal.", e);
+        }
+    }
+
+    /**
+     * Force appended records to disk now.
+     */
+    public void sync() {
+        MappedByteBuffer current;
+        synchronized (this) {
+            if (!dirty) return;
+            dirty = false;
+            current = map;
+        }
+        current.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (syncer != null) {
+            syncer.shutdown();
+        }
+        sync();
+        channel.close();
+    }
+
+    private static int capacityFor(int bytes) {
+        long capacity = INITIAL_SIZE;
+        while (capacity < bytes) {
+            capacity *= 2;
+        }
+        if (capacity > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Game journal is full.");
+        }
+        return (int) capacity;
+    }
+
+    private static int contentSize(List<JournaledGame> games) {
+        int size = HEADER_SIZE;
+        for (JournaledGame game : games) {
+            size += 7 + GameRecord.nameBytes(game.white).length + GameRecord.nameBytes(game.black).length + 7 * game.plyCount;
+        }
+        return size;
+    }
+
+    private static void putBegin(ByteBuffer buffer, int id, byte[] white, byte[] black) {
+        buffer.put(BEGIN).putInt(id)
+            .put((byte) white.length).put(white)
+            .put((byte) black.length).put(black);
+    }
+}
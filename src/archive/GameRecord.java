@@ -0,0 +1,139 @@
+// src/archive/GameRecord.java
+package archive;
+
+import model.Board;
+import model.GameResult;
+import model.Move;
+import model.MoveSource;
+import model.Piece;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * One stored game: the player names, the result and the moves.
+ *
+ * On disk a game archive starts with a five-byte file header ({@code "ACGR"}
+ * and a version byte), followed by one record per game:
+ * <pre>
+ *   u16  ply count ({@value #UNFINISHED} while the game is still being written)
+ *   u8   result: winner (0 white, 1 black, 2 draw) | termination ordinal &lt;&lt; 2
+ *   u8   white name length, then the UTF-8 name
+ *   u8   black name length, then the UTF-8 name
+ *   u16  one square pair {@code from | to << 6} per ply
+ * </pre>
+ * All values are big-endian. Every game starts from the initial position,
+ * so the squares are enough to replay it.
+ */
+public class GameRecord {
+    static final byte[] MAGIC = {'A', 'C', 'G', 'R'};
+    static final byte VERSION = 1;
+    static final int FILE_HEADER_SIZE = MAGIC.length + 1;
+
+    static final int UNFINISHED = 0xFFFF;
+    static final int MAX_PLIES = UNFINISHED - 1;
+    static final int MAX_NAME_BYTES = 255;
+    static final int DRAW = 2;
+
+    private final String white;
+    private final String black;
+    private final Piece.Color winner;
+    private final GameResult.Termination termination;
+    private final short[] moves;
+
+    /**
+     * @param white White player's name
+     * @param black Black player's name
+     * @param winner Winning color, or null for a draw
+     * @param termination How the game ended
+     * @param moves Square pairs (see {@link MoveSource#encode}), one per ply
+     */
+    public GameRecord(String white, String black, Piece.Color winner, GameResult.Termination termination, short[] moves) {
+        if (moves.length > MAX_PLIES) {
+            throw new IllegalArgumentException("A game record holds at most " + MAX_PLIES + " plies.");
+        }
+        this.white = white;
+        this.black = black;
+        this.winner = winner;
+        this.termination = termination;
+        this.moves = moves;
+    }
+
+    public String getWhite() {
+        return white;
+    }
+
+    public String getBlack() {
+        return black;
+    }
+
+    public GameResult getResult() {
+        return new GameResult(winner, termination, moves.length);
+    }
+
+    public int getPlyCount() {
+        return moves.length;
+    }
+
+    /**
+     * The move of one ply.
+     * @param ply Ply index, starting at 0 for White's first move
+     * @return Square pair (see {@link MoveSource#encode})
+     */
+    public int getMove(int ply) {
+        return moves[ply] & 0xFFF;
+    }
+
+    /**
+     * Play the recorded moves on a board set to the initial position.
+     * @param board Board to play on
+     * @param plies Number of plies to play (at most {@link #getPlyCount})
+     * @throws IllegalArgumentException If a recorded move is not legal
+     */
+    public void replay(Board board, int plies) {
+        replay(board, moves, plies, white + " - " + black);
+    }
+
+    static void replay(Board board, short[] moves, int plies, String game) {
+        for (int i = 0; i < plies; i++) {
+            int squares = moves[i] & 0xFFF;
+            int move = board.getLegalMoves().find(MoveSource.from(squares), MoveSource.to(squares));
+            if (move == Move.NONE) {
+                throw new IllegalArgumentException("Illegal move " + (i + 1) + " in the game " + game + ".");
+            }
+            board.makeMove(move);
+        }
+    }
+
+    static byte[] nameBytes(String name) {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        return bytes.length <= MAX_NAME_BYTES ? bytes : Arrays.copyOf(bytes, MAX_NAME_BYTES);
+    }
+
+    static int encodeResult(Piece.Color winner, GameResult.Termination termination) {
+        int winnerCode = winner == null ? DRAW : winner.ordinal();
+        return winnerCode | termination.ordinal() << 2;
+    }
+
+    static Piece.Color decodeWinner(int result) {
+        int winnerCode = result & 3;
+        return winnerCode == DRAW ? null : Piece.Color.values()[winnerCode];
+    }
+
+    static GameResult.Termination decodeTermination(int result) {
+        return GameResult.Termination.values()[result >>> 2];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        text.append(white).append(" - ").append(black).append(": ").append(getResult());
+        for (int i = 0; i < moves.length; i++) {
+            int squares = getMove(i);
+            text.append(i == 0 ? "\n" : ",")
+                .append(Move.squareName(MoveSource.from(squares))).append(' ')
+                .append(Move.squareName(MoveSource.to(squares)));
+        }
+        return text.toString();
+    }
+}
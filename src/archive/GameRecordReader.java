@@ -0,0 +1,246 @@
+// src/archive/GameRecordReader.java
+package archive;
+
+import model.GameResult;
+import model.Piece;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterates the games of an archive file (format described in
+ * {@link GameRecord}).
+ *
+ * The file is memory-mapped in windows of {@value #WINDOW_MB} MB, so an
+ * archive of millions of games is read without loading it into memory.
+ * Reading stops at the first unfinished or truncated record. Each call to
+ * {@link #iterator()} starts a new pass over the file.
+ *
+ * Usage: {@code java Main archive <file> [--list]}
+ */
+public class GameRecordReader implements Iterable<GameRecord>, Closeable {
+    private static final int WINDOW_MB = 64;
+    private static final long WINDOW = (long) WINDOW_MB << 20;
+
+    private final FileChannel channel;
+
+    private GameRecordReader(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Open an archive for reading.
+     * @param path Archive file
+     * @return Reader
+     * @throws IOException If the file cannot be opened or is not a game archive
+     */
+    public static GameRecordReader open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            checkHeader(channel);
+            return new GameRecordReader(channel);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public Iterator<GameRecord> iterator() {
+        Cursor cursor;
+        try {
+            cursor = new Cursor(channel);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read game archive.", e);
+        }
+        return new Iterator<GameRecord>() {
+            private GameRecord next = read();
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public GameRecord next() {
+                if (next == null) throw new NoSuchElementException();
+                GameRecord record = next;
+                next = read();
+                return record;
+            }
+
+            private GameRecord read() {
+                try {
+                    return cursor.next(true) ? cursor.record : null;
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Cannot read game archive.", e);
+                }
+            }
+        };
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Length of the file up to the end of its last complete game.
+     * @param channel Open archive file
+     * @return Byte length
+     * @throws IOException If the file cannot be read or is not a game archive
+     */
+    static long validLength(FileChannel channel) throws IOException {
+        checkHeader(channel);
+        Cursor cursor = new Cursor(channel);
+        while (cursor.next(false)) {
+            // skip over complete records
+        }
+        return cursor.position;
+    }
+
+    private static void checkHeader(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(GameRecord.FILE_HEADER_SIZE);
+        while (header.hasRemaining() && channel.read(header, header.position()) > 0) {
+            // read until full or end of file
+        }
+        header.flip();
+        for (byte b : GameRecord.MAGIC) {
+            if (!header.hasRemaining() || header.get() != b) {
+                throw new IOException("Not a game archive.");
+            }
+        }
+        if (!header.hasRemaining() || header.get() != GameRecord.VERSION) {
+            throw new IOException("Unsupported game archive version.");
+        }
+    }
+
+    /**
+     * Reads records through a sliding memory-mapped window.
+     */
+    private static class Cursor {
+        private final FileChannel channel;
+        private final long size;
+        private MappedByteBuffer window;
+        private long windowStart;
+        private long position = GameRecord.FILE_HEADER_SIZE;
+        private GameRecord record;
+
+        Cursor(FileChannel channel) throws IOException {
+            this.channel = channel;
+            this.size = channel.size();
+        }
+
+        /**
+         * Step over the next complete record.
+         * @param decode Whether to decode it into {@link #record}
+         * @return False at the end of the complete records
+         */
+        boolean next(boolean decode) throws IOException {
+            long start = position;
+            if (!ensure(4)) return false;
+            int plies = getShort() & 0xFFFF;
+            int result = get() & 0xFF;
+            if (plies == GameRecord.UNFINISHED) return rewind(start);
+
+            byte[] white = new byte[get() & 0xFF];
+            if (!ensure(white.length + 1)) return rewind(start);
+            getBytes(white);
+            byte[] black = new byte[get() & 0xFF];
+            if (!ensure(black.length + plies * 2)) return rewind(start);
+            getBytes(black);
+
+            if (!decode) {
+                position += plies * 2L;
+                return true;
+            }
+            short[] moves = new short[plies];
+            window.position((int) (position - windowStart));
+            window.asShortBuffer().get(moves);
+            position += plies * 2L;
+            record = new GameRecord(
+                new String(white, StandardCharsets.UTF_8),
+                new String(black, StandardCharsets.UTF_8),
+                GameRecord.decodeWinner(result),
+                GameRecord.decodeTermination(result),
+                moves);
+            return true;
+        }
+
+        private boolean rewind(long start) {
+            position = start;
+            return false;
+        }
+
+        /**
+         * Make sure the next bytes are inside the mapped window.
+         * @return False if the file ends first
+         */
+        private boolean ensure(int bytes) throws IOException {
+            if (position + bytes > size) return false;
+            if (window == null || position + bytes > windowStart + window.capacity()) {
+                windowStart = position;
+                window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, Math.min(WINDOW, size - windowStart));
+            }
+            return true;
+        }
+
+        private int getShort() {
+            int value = window.getShort((int) (position - windowStart));
+            position += 2;
+            return value;
+        }
+
+        private int get() {
+            return window.get((int) (position++ - windowStart));
+        }
+
+        private void getBytes(byte[] target) {
+            window.get((int) (position - windowStart), target);
+            position += target.length;
+        }
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.println("Usage: java Main archive <file> [--list]");
+            return;
+        }
+        boolean list = args.length > 1 && args[1].equals("--list");
+        long games = 0;
+        long plies = 0;
+        long[] wins = new long[Piece.Color.values().length];
+        long draws = 0;
+        long start = System.nanoTime();
+        try (GameRecordReader reader = open(Path.of(args[0]))) {
+            for (GameRecord record : reader) {
+                GameResult result = record.getResult();
+                games++;
+                plies += record.getPlyCount();
+                if (result.isDraw()) {
+                    draws++;
+                } else {
+                    wins[result.getWinner().ordinal()]++;
+                }
+                if (list) System.out.println(record);
+            }
+        } catch (IOException | UncheckedIOException e) {
+            System.out.println("Cannot read game archive: " + e.getMessage());
+            return;
+        }
+        long elapsed = Math.max(1, System.nanoTime() - start);
+        System.out.println("Games: " + games + "  White wins: " + wins[Piece.Color.WHITE.ordinal()]
+            + "  Black wins: " + wins[Piece.Color.BLACK.ordinal()] + "  Draws: " + draws);
+        System.out.println("Plies: " + plies + "  Time: " + elapsed / 1_000_000 + " ms"
+            + "  Games/sec: " + games * 1_000_000_000L / elapsed);
+    }
+}
@@ -0,0 +1,234 @@
+// src/archive/GameRecordWriter.java
+package archive;
+
+import model.GameObserver;
+import model.GameResult;
+import model.Move;
+import model.MoveSource;
+import model.Player;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Appends games to an archive file (format described in {@link GameRecord}).
+ *
+ * As a {@link GameObserver} the writer streams one game at a time: the
+ * record header goes out when the game starts, each move adds two bytes, and
+ * the ply count and result are patched in when it ends. Writes go through a
+ * buffer that is handed to the file when it fills up and at the end of every
+ * game. A game that never ends (the program is killed) leaves an unfinished
+ * record at the end of the file, which readers skip and the next
+ * {@link #open} cuts off.
+ *
+ * Games played concurrently should each use their own
+ * {@link #newGameBuffer()}, which writes the whole record once the game is
+ * over. All methods are thread-safe.
+ */
+public class GameRecordWriter implements GameObserver, Closeable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private long bufferStart;
+    private long recordStart = -1;
+    private int plies;
+
+    private GameRecordWriter(FileChannel channel, long position) {
+        this.channel = channel;
+        this.bufferStart = position;
+    }
+
+    /**
+     * Open an archive for appending, creating it if needed. An unfinished
+     * record left at the end of the file is removed.
+     * @param path Archive file
+     * @return Writer positioned at the end of the last complete game
+     * @throws IOException If the file cannot be opened or is not a game archive
+     */
+    public static GameRecordWriter open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long end;
+            if (channel.size() == 0) {
+                ByteBuffer header = ByteBuffer.allocate(GameRecord.FILE_HEADER_SIZE);
+                header.put(GameRecord.MAGIC).put(GameRecord.VERSION).flip();
+                channel.write(header, 0);
+                end = GameRecord.FILE_HEADER_SIZE;
+            } else {
+                end = GameRecordReader.validLength(channel);
+                channel.truncate(end);
+            }
+            return new GameRecordWriter(channel, end);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Start streaming a game.
+     * @param white White player's name
+     * @param black Black player's name
+     * @throws IllegalStateException If another game is still being written
+     */
+    public synchronized void beginGame(String white, String black) {
+        if (recordStart >= 0) {
+            throw new IllegalStateException("A game is already being recorded.");
+        }
+        byte[] whiteName = GameRecord.nameBytes(white);
+        byte[] blackName = GameRecord.nameBytes(black);
+        ensureSpace(6 + whiteName.length + blackName.length);
+        recordStart = bufferStart + buffer.position();
+        plies = 0;
+        buffer.putShort((short) GameRecord.UNFINISHED)
+            .put((byte) 0xFF)
+            .put((byte) whiteName.length).put(whiteName)
+            .put((byte) blackName.length).put(blackName);
+    }
+
+    /**
+     * Append one ply to the game being streamed.
+     * @param from Start square
+     * @param to End square
+     */
+    public synchronized void appendMove(int from, int to) {
+        if (recordStart < 0) {
+            throw new IllegalStateException("No game is being recorded.");
+        }
+        if (plies == GameRecord.MAX_PLIES) {
+            throw new IllegalStateException("A game record holds at most " + GameRecord.MAX_PLIES + " plies.");
+        }
+        ensureSpace(2);
+        buffer.putShort((short) MoveSource.encode(from, to));
+        plies++;
+    }
+
+    /**
+     * Finish the game being streamed and hand it to the file.
+     * @param result How the game ended
+     */
+    public synchronized void endGame(GameResult result) {
+        if (recordStart < 0) {
+            throw new IllegalStateException("No game is being recorded.");
+        }
+        int code = GameRecord.encodeResult(result.getWinner(), result.getTermination());
+        if (recordStart >= bufferStart) {
+            int offset = (int) (recordStart - bufferStart);
+            buffer.putShort(offset, (short) plies).put(offset + 2, (byte) code);
+            flushBuffer();
+        } else {
+            // The header has already left the buffer: flush the moves, then patch it in place
+            flushBuffer();
+            ByteBuffer header = ByteBuffer.allocate(3);
+            header.putShort((short) plies).put((byte) code).flip();
+            write(header, recordStart);
+        }
+        recordStart = -1;
+    }
+
+    /**
+     * Append a complete game.
+     * @param record Game to store
+     */
+    public synchronized void write(GameRecord record) {
+        beginGame(record.getWhite(), record.getBlack());
+        for (int i = 0; i < record.getPlyCount(); i++) {
+            int squares = record.getMove(i);
+            appendMove(MoveSource.from(squares), MoveSource.to(squares));
+        }
+        endGame(record.getResult());
+    }
+
+    /**
+     * An observer for one game that collects the moves in memory and writes
+     * the record when the game ends, so concurrent games do not interleave.
+     * @return Observer to pass to {@link model.Game#setObserver}
+     */
+    public GameObserver newGameBuffer() {
+        return new GameObserver() {
+            private String white;
+            private String black;
+            private short[] moves = new short[128];
+            private int plyCount;
+
+            @Override
+            public void gameStarted(Player whitePlayer, Player blackPlayer) {
+                white = whitePlayer.getName();
+                black = blackPlayer.getName();
+                plyCount = 0;
+            }
+
+            @Override
+            public void movePlayed(int move) {
+                if (plyCount == moves.length) {
+                    moves = Arrays.copyOf(moves, moves.length * 2);
+                }
+                moves[plyCount++] = (short) MoveSource.encode(Move.from(move), Move.to(move));
+            }
+
+            @Override
+            public void gameEnded(GameResult result) {
+                write(new GameRecord(white, black, result.getWinner(), result.getTermination(), Arrays.copyOf(moves, plyCount)));
+            }
+        };
+    }
+
+    @Override
+    public void gameStarted(Player white, Player black) {
+        beginGame(white.getName(), black.getName());
+    }
+
+    @Override
+    public void movePlayed(int move) {
+        appendMove(Move.from(move), Move.to(move));
+    }
+
+    @Override
+    public void gameEnded(GameResult result) {
+        endGame(result);
+    }
+
+    /**
+     * Write out buffered data and close the file. A game still in progress
+     * stays unfinished.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            flushBuffer();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void ensureSpace(int bytes) {
+        if (buffer.remaining() < bytes) {
+            flushBuffer();
+        }
+    }
+
+    private void flushBuffer() {
+        buffer.flip();
+        int length = buffer.remaining();
+        write(buffer, bufferStart);
+        bufferStart += length;
+        buffer.clear();
+    }
+
+    private void write(ByteBuffer data, long position) {
+        try {
+            while (data.hasRemaining()) {
+                position += channel.write(data, position);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write game archive.", e);
+        }
+    }
+}
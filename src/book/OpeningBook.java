@@ -0,0 +1,208 @@
+// src/book/OpeningBook.java
+package book;
+
+import model.Board;
+import model.Move;
+import model.MoveSource;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Opening book produced by {@link OpeningBookBuilder}: move statistics per
+ * position, looked up by binary search in a memory-mapped file.
+ *
+ * Positions are identified by their Zobrist hash (see {@link Board#getHash()}),
+ * which is the same in every run. The entries are sorted by hash, and the
+ * moves of one position by the number of games, most played first:
+ * <pre>
+ *   header: "ACOB", u8 version, u8 book plies, u16 zero, u32 entry count, u32 zero
+ *   entry:  u64 position hash
+ *           u16 square pair {@code from | to << 6}, u16 zero
+ *           u32 games, u32 wins and u32 draws for the side that played the move
+ * </pre>
+ * All values are big-endian. The file stays open until {@link #close}.
+ */
+public class OpeningBook implements Closeable {
+    static final byte[] MAGIC = {'A', 'C', 'O', 'B'};
+    static final byte VERSION = 1;
+    static final int HEADER_SIZE = 16;
+    static final int ENTRY_SIZE = 24;
+
+    /**
+     * Statistics of one book move.
+     */
+    public static class Entry {
+        private final int squares;
+        private final int games;
+        private final int wins;
+        private final int draws;
+
+        Entry(int squares, int games, int wins, int draws) {
+            this.squares = squares;
+            this.games = games;
+            this.wins = wins;
+            this.draws = draws;
+        }
+
+        /**
+         * The move.
+         * @return Square pair (see {@link MoveSource#encode})
+         */
+        public int getSquares() {
+            return squares;
+        }
+
+        public int getGames() {
+            return games;
+        }
+
+        public int getWins() {
+            return wins;
+        }
+
+        public int getDraws() {
+            return draws;
+        }
+
+        /**
+         * Expected score of the move, with one win and one loss added so
+         * that rarely played moves are not trusted too much.
+         * @return Score between 0 and 1
+         */
+        public double getScore() {
+            return (wins + draws / 2.0 + 1) / (games + 2);
+        }
+
+        @Override
+        public String toString() {
+            return Move.squareName(MoveSource.from(squares)) + " " + Move.squareName(MoveSource.to(squares))
+                + "  games " + games + "  wins " + wins + "  draws " + draws
+                + String.format("  score %.3f", getScore());
+        }
+    }
+
+    private final FileChannel channel;
+    private final ByteBuffer entries;
+    private final int count;
+    private final int plies;
+
+    private OpeningBook(FileChannel channel, ByteBuffer entries, int count, int plies) {
+        this.channel = channel;
+        this.entries = entries;
+        this.count = count;
+        this.plies = plies;
+    }
+
+    /**
+     * Map a book file.
+     * @param path File written by {@link OpeningBookBuilder}
+     * @return Book ready for lookups
+     * @throws IOException If the file cannot be read or is not an opening book
+     */
+    public static OpeningBook open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            while (header.hasRemaining()) {
+                if (channel.read(header) < 0) throw new IOException("Not an opening book file.");
+            }
+            header.flip();
+            for (byte b : MAGIC) {
+                if (header.get() != b) throw new IOException("Not an opening book file.");
+            }
+            if (header.get() != VERSION) throw new IOException("Unsupported opening book version.");
+            int plies = header.get() & 0xFF;
+            header.getShort();
+            long count = header.getInt() & 0xFFFFFFFFL;
+            long size = count * ENTRY_SIZE;
+            if (size > Integer.MAX_VALUE) throw new IOException("Opening book is too large.");
+            if (HEADER_SIZE + size > channel.size()) throw new IOException("Opening book file is truncated.");
+            return new OpeningBook(channel, channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE, size), (int) count, plies);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Number of plies from the start of the game the book was built from.
+     * @return Plies
+     */
+    public int getPlies() {
+        return plies;
+    }
+
+    public int getEntryCount() {
+        return count;
+    }
+
+    /**
+     * All book moves for a position, most played first.
+     * @param board Position to look up
+     * @return Entries (empty if the position is not in the book)
+     */
+    public List<Entry> getEntries(Board board) {
+        List<Entry> result = new ArrayList<>();
+        long key = board.getHash();
+        for (int i = firstEntry(key); i < count && entries.getLong(i * ENTRY_SIZE) == key; i++) {
+            result.add(entry(i));
+        }
+        return result;
+    }
+
+    /**
+     * The book move with the best score in a position.
+     * @param board Position to look up (left unchanged)
+     * @return Packed legal move, or {@link Move#NONE} if the position is not
+     *         in the book
+     */
+    public int lookup(Board board) {
+        long key = board.getHash();
+        int best = Move.NONE;
+        double bestScore = -1;
+        for (int i = firstEntry(key); i < count && entries.getLong(i * ENTRY_SIZE) == key; i++) {
+            Entry entry = entry(i);
+            if (entry.getScore() <= bestScore) continue;
+            // Guards against hash collisions with positions that were never in the book
+            int move = board.getLegalMoves().find(MoveSource.from(entry.squares), MoveSource.to(entry.squares));
+            if (move != Move.NONE) {
+                best = move;
+                bestScore = entry.getScore();
+            }
+        }
+        return best;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private Entry entry(int i) {
+        int offset = i * ENTRY_SIZE;
+        return new Entry(entries.getShort(offset + 8) & 0xFFF, entries.getInt(offset + 12),
+            entries.getInt(offset + 16), entries.getInt(offset + 20));
+    }
+
+    // Index of the first entry whose hash is not below the key
+    private int firstEntry(long key) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (entries.getLong(mid * ENTRY_SIZE) < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
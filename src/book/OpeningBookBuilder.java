@@ -0,0 +1,205 @@
+// src/book/OpeningBookBuilder.java
+package book;
+
+import archive.GameRecord;
+import archive.GameRecordReader;
+import model.Board;
+import model.Fen;
+import model.GameResult;
+import model.Move;
+import model.MoveSource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aggregates the first plies of stored games into an {@link OpeningBook}.
+ *
+ * Every position reached in the first {@code plies} plies of a game counts
+ * the move played from it, together with whether the side that played it
+ * went on to win, draw or lose. Self-play games get into a book by
+ * recording a tournament first ({@code java Main tournament --record file}).
+ *
+ * Usage: {@code java Main book build <book> <archive>... [--plies n] [--min-games n]}
+ */
+public class OpeningBookBuilder {
+    public static final int DEFAULT_PLIES = 12;
+    public static final int DEFAULT_MIN_GAMES = 2;
+
+    // Indexes into the per-move statistics
+    private static final int GAMES = 0;
+    private static final int WINS = 1;
+    private static final int DRAWS = 2;
+
+    private final int plies;
+    private final Map<Long, Map<Integer, int[]>> positions = new HashMap<>();
+    private long games;
+
+    /**
+     * @param plies Number of plies from the start of each game to take
+     */
+    public OpeningBookBuilder(int plies) {
+        if (plies < 1 || plies > 255) {
+            throw new IllegalArgumentException("Book plies must be between 1 and 255.");
+        }
+        this.plies = plies;
+    }
+
+    /**
+     * Add the opening of one game.
+     * @param record Finished game
+     * @throws IllegalArgumentException If a recorded move is not legal
+     */
+    public void add(GameRecord record) {
+        GameResult result = record.getResult();
+        Board board = new Board();
+        int n = Math.min(plies, record.getPlyCount());
+        for (int ply = 0; ply < n; ply++) {
+            int squares = record.getMove(ply);
+            int move = board.getLegalMoves().find(MoveSource.from(squares), MoveSource.to(squares));
+            if (move == Move.NONE) {
+                throw new IllegalArgumentException("Illegal move " + (ply + 1) + " in the game "
+                    + record.getWhite() + " - " + record.getBlack() + ".");
+            }
+            int[] stats = positions.computeIfAbsent(board.getHash(), key -> new HashMap<>())
+                .computeIfAbsent(squares, key -> new int[3]);
+            stats[GAMES]++;
+            if (result.isDraw()) {
+                stats[DRAWS]++;
+            } else if (result.getWinner() == board.getSideToMove()) {
+                stats[WINS]++;
+            }
+            board.makeMove(move);
+        }
+        games++;
+    }
+
+    /**
+     * Add every game of an archive.
+     * @param archive Archive file
+     * @throws IOException If the archive cannot be read
+     */
+    public void addArchive(Path archive) throws IOException {
+        try (GameRecordReader reader = GameRecordReader.open(archive)) {
+            for (GameRecord record : reader) {
+                add(record);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    public long getGameCount() {
+        return games;
+    }
+
+    /**
+     * Write the book. The file is replaced atomically, so a book that is
+     * mapped elsewhere stays intact.
+     * @param path Book file
+     * @param minGames Leave out moves played in fewer games
+     * @return Number of entries written
+     * @throws IOException If the file cannot be written
+     */
+    public int write(Path path, int minGames) throws IOException {
+        List<Long> keys = new ArrayList<>(positions.keySet());
+        keys.sort(Long::compare);
+
+        int count = 0;
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+            out.position(OpeningBook.HEADER_SIZE);
+            for (long key : keys) {
+                List<Map.Entry<Integer, int[]>> moves = new ArrayList<>(positions.get(key).entrySet());
+                moves.sort((a, b) -> Integer.compare(b.getValue()[GAMES], a.getValue()[GAMES]));
+                for (Map.Entry<Integer, int[]> move : moves) {
+                    int[] stats = move.getValue();
+                    if (stats[GAMES] < minGames) continue;
+                    if (buffer.remaining() < OpeningBook.ENTRY_SIZE) drain(out, buffer);
+                    buffer.putLong(key).putShort((short) (int) move.getKey()).putShort((short) 0)
+                        .putInt(stats[GAMES]).putInt(stats[WINS]).putInt(stats[DRAWS]);
+                    count++;
+                }
+            }
+            drain(out, buffer);
+
+            buffer.put(OpeningBook.MAGIC).put(OpeningBook.VERSION).put((byte) plies).putShort((short) 0)
+                .putInt(count).putInt(0);
+            out.position(0);
+            drain(out, buffer);
+            out.force(true);
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return count;
+    }
+
+    private static void drain(FileChannel out, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    public static void main(String[] args) {
+        if (args.length >= 3 && args[0].equals("build")) {
+            int plies = DEFAULT_PLIES;
+            int minGames = DEFAULT_MIN_GAMES;
+            List<Path> archives = new ArrayList<>();
+            for (int i = 2; i < args.length; i++) {
+                if (args[i].equals("--plies") && i + 1 < args.length) {
+                    plies = Integer.parseInt(args[++i]);
+                } else if (args[i].equals("--min-games") && i + 1 < args.length) {
+                    minGames = Integer.parseInt(args[++i]);
+                } else {
+                    archives.add(Path.of(args[i]));
+                }
+            }
+            long start = System.currentTimeMillis();
+            OpeningBookBuilder builder = new OpeningBookBuilder(plies);
+            try {
+                for (Path archive : archives) {
+                    builder.addArchive(archive);
+                }
+                int entries = builder.write(Path.of(args[1]), minGames);
+                System.out.println("Games: " + builder.getGameCount() + "  Positions: " + builder.positions.size()
+                    + "  Entries: " + entries + "  Time: " + (System.currentTimeMillis() - start) + " ms");
+            } catch (IOException e) {
+                System.out.println("Cannot build opening book: " + e.getMessage());
+            }
+        } else if (args.length >= 2 && args[0].equals("probe")) {
+            try (OpeningBook book = OpeningBook.open(Path.of(args[1]))) {
+                Board board = args.length > 2 ? Fen.parse(String.join(" ", Arrays.copyOfRange(args, 2, args.length))) : new Board();
+                board.displayBoard();
+                List<OpeningBook.Entry> entries = book.getEntries(board);
+                if (entries.isEmpty()) {
+                    System.out.println("Position not in book.");
+                }
+                for (OpeningBook.Entry entry : entries) {
+                    System.out.println(entry);
+                }
+                int move = book.lookup(board);
+                if (move != Move.NONE) {
+                    System.out.println("Book move for " + board.getSideToMove().toString().toLowerCase() + ": " + Move.toString(move));
+                }
+            } catch (IOException e) {
+                System.out.println("Cannot read opening book: " + e.getMessage());
+            }
+        } else {
+            System.out.println("Usage: java Main book build <book> <archive>... [--plies n] [--min-games n]");
+            System.out.println("       java Main book probe <book> [fen]");
+        }
+    }
+}
@@ -0,0 +1,89 @@
+// src/engine/ComputerPlayer.java
+package engine;
+
+import book.OpeningBook;
+import model.Piece;
+import model.Player;
+import tablebase.Tablebase;
+
+/**
+ * A player whose moves come from a {@link SearchMoveSource} instead of the
+ * keyboard.
+ */
+public class ComputerPlayer extends Player {
+    public static final int DEFAULT_HASH_MB = 64;
+
+    public ComputerPlayer(String name, Piece.Color color, SearchLimits limits) {
+        this(name, color, limits, 1);
+    }
+
+    public ComputerPlayer(String name, Piece.Color color, SearchLimits limits, int threads) {
+        this(name, color, limits, new TranspositionTable(DEFAULT_HASH_MB), new Evaluator(), threads);
+    }
+
+    /**
+     * @param name Player name
+     * @param color Color played
+     * @param limits Budget per move
+     * @param table Transposition table, kept across moves
+     * @param evaluator Evaluation function
+     * @param threads Number of search threads (Lazy SMP when more than one)
+     */
+    public ComputerPlayer(String name, Piece.Color color, SearchLimits limits, TranspositionTable table,
+                          Evaluator evaluator, int threads) {
+        super(name, color, new SearchMoveSource(limits, table, evaluator, threads));
+    }
+
+    @Override
+    public SearchMoveSource getMoveSource() {
+        return (SearchMoveSource) super.getMoveSource();
+    }
+
+    /**
+     * Print the chosen move and search statistics after every move.
+     * @param verbose true to print, false to stay silent
+     */
+    public void setVerbose(boolean verbose) {
+        getMoveSource().setVerbose(verbose);
+    }
+
+    /**
+     * Score endgames from a tablebase instead of searching them.
+     * @param tablebase Tablebase, or null for none
+     */
+    public void setTablebase(Tablebase tablebase) {
+        getMoveSource().setTablebase(tablebase);
+    }
+
+    /**
+     * Play book moves instead of searching while the game is in the book.
+     * @param book Opening book, or null for none
+     */
+    public void setBook(OpeningBook book) {
+        getMoveSource().setBook(book);
+    }
+
+    /**
+     * Keep searching during the opponent's turn and reuse the work when the
+     * opponent's move arrives.
+     * @param pondering true to ponder, false not to
+     */
+    public void setPondering(boolean pondering) {
+        getMoveSource().setPondering(pondering);
+    }
+
+    /**
+     * Result of the most recent search.
+     * @return Search result, or null before the first move
+     */
+    public SearchResult getLastResult() {
+        return getMoveSource().getLastResult();
+    }
+
+    /**
+     * Stop pondering and release the helper threads of a multi-threaded player.
+     */
+    public void shutdown() {
+        getMoveSource().shutdown();
+    }
+}
@@ -0,0 +1,113 @@
+// src/engine/Evaluator.java
+package engine;
+
+import model.Board;
+import model.Piece;
+
+/**
+ * Static evaluation of an Anti-Chess position.
+ *
+ * The score is a weighted sum of a few features, each measured from the
+ * side to move's point of view so that a positive score is good for the
+ * player about to move:
+ * <ul>
+ *   <li>material: opponent's piece count minus our own (shedding pieces is the goal)</li>
+ *   <li>mobility: squares we attack that we do not occupy, minus the opponent's</li>
+ *   <li>captures: enemy pieces we attack minus our pieces the opponent attacks</li>
+ * </ul>
+ */
+public class Evaluator {
+    public static final int MATERIAL = 0;
+    public static final int MOBILITY = 1;
+    public static final int CAPTURES = 2;
+    public static final int FEATURE_COUNT = 3;
+
+    public static final int[] DEFAULT_WEIGHTS = {100, 3, -15};
+
+    private final int[] weights;
+
+    public Evaluator() {
+        this(DEFAULT_WEIGHTS);
+    }
+
+    public Evaluator(int[] weights) {
+        if (weights.length != FEATURE_COUNT) {
+            throw new IllegalArgumentException("Expected " + FEATURE_COUNT + " weights.");
+        }
+        this.weights = weights.clone();
+    }
+
+    /**
+     * Build an evaluator from weights given on the command line, e.g. the
+     * output of the tuner.
+     * @param text FEATURE_COUNT integers separated by commas, e.g. "100,3,-15"
+     * @return Evaluator with those weights
+     * @throws IllegalArgumentException If the text does not hold FEATURE_COUNT integers
+     */
+    public static Evaluator parse(String text) {
+        String[] parts = text.split(",");
+        if (parts.length != FEATURE_COUNT) {
+            throw new IllegalArgumentException("Expected " + FEATURE_COUNT + " weights separated by commas: " + text);
+        }
+        int[] weights = new int[FEATURE_COUNT];
+        for (int f = 0; f < FEATURE_COUNT; f++) {
+            try {
+                weights[f] = Integer.parseInt(parts[f].trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Bad weight: " + parts[f].trim());
+            }
+        }
+        return new Evaluator(weights);
+    }
+
+    public int[] getWeights() {
+        return weights.clone();
+    }
+
+    /**
+     * Evaluate a position.
+     * @param board Position to evaluate
+     * @return Score from the side to move's point of view
+     */
+    public int evaluate(Board board) {
+        return evaluate(board, new int[FEATURE_COUNT]);
+    }
+
+    /**
+     * Evaluate a position without allocating. One evaluator is shared by
+     * all search threads, so each caller brings its own feature array.
+     * @param board Position to evaluate
+     * @param features Array of at least FEATURE_COUNT entries, overwritten with the features
+     * @return Score from the side to move's point of view: the features weighted and summed
+     */
+    public int evaluate(Board board, int[] features) {
+        features(board, features);
+        int score = 0;
+        for (int f = 0; f < FEATURE_COUNT; f++) {
+            score += weights[f] * features[f];
+        }
+        return score;
+    }
+
+    /**
+     * Extract the raw feature values that {@link #evaluate} weighs.
+     * @param board Position to measure
+     * @param features Array of at least FEATURE_COUNT entries to fill
+     */
+    public static void features(Board board, int[] features) {
+        Piece.Color us = board.getSideToMove();
+        Piece.Color them = opponent(us);
+        long ourPieces = board.getOccupancy(us);
+        long theirPieces = board.getOccupancy(them);
+        long ourAttacks = board.getAttacks(us);
+        long theirAttacks = board.getAttacks(them);
+
+        features[MATERIAL] = board.getPieceCount(them) - board.getPieceCount(us);
+        features[MOBILITY] = Long.bitCount(ourAttacks & ~ourPieces) - Long.bitCount(theirAttacks & ~theirPieces);
+        features[CAPTURES] = Long.bitCount(ourAttacks & theirPieces) - Long.bitCount(theirAttacks & ourPieces);
+    }
+
+    static Piece.Color opponent(Piece.Color color) {
+        return color == Piece.Color.WHITE ? Piece.Color.BLACK : Piece.Color.WHITE;
+    }
+}
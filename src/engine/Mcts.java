@@ -0,0 +1,314 @@
+// src/engine/Mcts.java
+package engine;
+
+import model.Bitboards;
+import model.Board;
+import model.Move;
+import model.MoveList;
+import model.Piece;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Monte Carlo tree search with UCT selection.
+ *
+ * Each iteration walks down the tree choosing the child with the best upper
+ * confidence bound, adds the children of the leaf it reaches once that leaf
+ * has been visited before, and plays the game out to the end with
+ * capture-biased random moves: the side to move prefers quiet moves onto
+ * squares the opponent attacks, since those force the opponent to capture.
+ * The result is then added to every node on the path.
+ *
+ * Several workers share one tree without locks on the statistics. A worker
+ * counts its visit on each node as it walks down (a virtual loss, since the
+ * result is not in yet), which steers the other workers to different
+ * branches until the playout finishes. Only the one-off expansion of a node
+ * takes its lock.
+ */
+public class Mcts {
+    // Exploration weight of the UCT bound, for results scored from 0 to 1
+    private static final double EXPLORATION = 1.0;
+    private static final int EXPAND_VISITS = 2;
+    private static final int MAX_TREE_DEPTH = 256;
+    private static final int MAX_PLAYOUT_PLIES = 300;
+    // Share of quiet positions in which a playout looks for a move that hands over a piece
+    private static final int SACRIFICE_PERCENT = 75;
+    private static final int DEFAULT_PLAYOUTS = 10_000;
+
+    /**
+     * A position in the tree, reached by {@link #move}. Scores are counted
+     * in half points (2 per win, 1 per draw) for the side that played the
+     * move.
+     */
+    static final class Node {
+        private static final AtomicIntegerFieldUpdater<Node> VISITS = AtomicIntegerFieldUpdater.newUpdater(Node.class, "visits");
+        private static final AtomicIntegerFieldUpdater<Node> SCORE = AtomicIntegerFieldUpdater.newUpdater(Node.class, "score");
+
+        final int move;
+        volatile Node[] children;
+        volatile int visits;
+        volatile int score;
+
+        Node(int move) {
+            this.move = move;
+        }
+    }
+
+    /**
+     * Outcome of one search.
+     */
+    public static class Result {
+        private final int bestMove;
+        private final long playouts;
+        private final int visits;
+        private final double winRate;
+        private final long elapsedMillis;
+
+        Result(int bestMove, long playouts, int visits, double winRate, long elapsedMillis) {
+            this.bestMove = bestMove;
+            this.playouts = playouts;
+            this.visits = visits;
+            this.winRate = winRate;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        /**
+         * The most visited move.
+         * @return Packed move, or {@link Move#NONE} if there is no legal move
+         */
+        public int getBestMove() {
+            return bestMove;
+        }
+
+        public long getPlayouts() {
+            return playouts;
+        }
+
+        /**
+         * Share of the playouts through the best move won by the side to move.
+         * @return Win rate from 0 to 1, draws counting half
+         */
+        public double getWinRate() {
+            return winRate;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        @Override
+        public String toString() {
+            long pps = elapsedMillis > 0 ? playouts * 1000 / elapsedMillis : playouts;
+            return String.format("playouts %d visits %d win rate %.1f%% pps %d time %d ms",
+                playouts, visits, winRate * 100, pps, elapsedMillis);
+        }
+    }
+
+    private final int threads;
+    private final SplittableRandom seeds;
+
+    /**
+     * @param threads Number of workers sharing the tree
+     * @param seed Seed for the playouts
+     */
+    public Mcts(int threads, long seed) {
+        this.threads = Math.max(1, threads);
+        this.seeds = new SplittableRandom(seed);
+    }
+
+    /**
+     * Search a position. The budget is the limits' move time and/or node
+     * count, where each playout counts as a node; with neither set,
+     * {@value #DEFAULT_PLAYOUTS} playouts are run.
+     * @param board Position to search (left unchanged)
+     * @param limits Budget
+     * @return The most visited move and statistics
+     */
+    public Result search(Board board, SearchLimits limits) {
+        long start = System.currentTimeMillis();
+        long deadline = limits.getMoveTimeMillis() > 0 ? start + limits.getMoveTimeMillis() : Long.MAX_VALUE;
+        long maxPlayouts = limits.getMaxNodes() > 0 ? limits.getMaxNodes()
+            : limits.getMoveTimeMillis() > 0 ? Long.MAX_VALUE : DEFAULT_PLAYOUTS;
+
+        Node root = new Node(Move.NONE);
+        expand(root, new Board(board), seeds.split());
+        if (root.children.length == 0) {
+            return new Result(Move.NONE, 0, 0, 1, 0);
+        }
+        AtomicLong playouts = new AtomicLong();
+        if (root.children.length > 1) {
+            if (threads == 1) {
+                new Worker(root, board, seeds.split(), playouts, maxPlayouts, deadline).run();
+            } else {
+                runWorkers(root, board, playouts, maxPlayouts, deadline);
+            }
+        }
+
+        Node best = root.children[0];
+        for (Node child : root.children) {
+            if (child.visits > best.visits) best = child;
+        }
+        double winRate = best.visits == 0 ? 0.5 : best.score / (2.0 * best.visits);
+        return new Result(best.move, Math.min(playouts.get(), maxPlayouts), best.visits, winRate,
+            System.currentTimeMillis() - start);
+    }
+
+    private void runWorkers(Node root, Board board, AtomicLong playouts, long maxPlayouts, long deadline) {
+        ExecutorService executor = Threads.newPerTaskExecutor();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(new Worker(root, board, seeds.split(), playouts, maxPlayouts, deadline)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("MCTS worker failed.", e.getCause());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static void expand(Node node, Board board, SplittableRandom random) {
+        synchronized (node) {
+            if (node.children != null) return;
+            MoveList moves = board.isGameOver() ? new MoveList(0) : board.getLegalMoves();
+            Node[] children = new Node[moves.size()];
+            for (int i = 0; i < children.length; i++) {
+                children[i] = new Node(moves.get(i));
+            }
+            // Unvisited children are tried in order, so shuffle them once
+            for (int i = children.length - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                Node swap = children[i];
+                children[i] = children[j];
+                children[j] = swap;
+            }
+            node.children = children;
+        }
+    }
+
+    private static Node select(Node node, Node[] children) {
+        double logVisits = Math.log(Math.max(1, node.visits));
+        Node best = null;
+        double bestValue = Double.NEGATIVE_INFINITY;
+        for (Node child : children) {
+            int visits = child.visits;
+            if (visits == 0) return child;
+            double value = child.score / (2.0 * visits) + EXPLORATION * Math.sqrt(logVisits / visits);
+            if (value > bestValue) {
+                bestValue = value;
+                best = child;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * One thread's share of the iterations, on its own copy of the board.
+     */
+    private static final class Worker implements Runnable {
+        private final Node root;
+        private final Board board;
+        private final SplittableRandom random;
+        private final AtomicLong playouts;
+        private final long maxPlayouts;
+        private final long deadline;
+        private final Node[] path = new Node[MAX_TREE_DEPTH + 1];
+        private final MoveList sacrifices = new MoveList();
+
+        Worker(Node root, Board board, SplittableRandom random, AtomicLong playouts, long maxPlayouts, long deadline) {
+            this.root = root;
+            this.board = new Board(board);
+            this.random = random;
+            this.playouts = playouts;
+            this.maxPlayouts = maxPlayouts;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public void run() {
+            Piece.Color rootSide = board.getSideToMove();
+            while (true) {
+                long n = playouts.getAndIncrement();
+                if (n >= maxPlayouts) return;
+                if ((n & 63) == 0 && System.currentTimeMillis() >= deadline) return;
+                iterate(rootSide);
+            }
+        }
+
+        private void iterate(Piece.Color rootSide) {
+            Node node = root;
+            Node.VISITS.incrementAndGet(node);
+            path[0] = node;
+            int depth = 0;
+            while (depth < MAX_TREE_DEPTH) {
+                Node[] children = node.children;
+                if (children == null) {
+                    if (node.visits < EXPAND_VISITS) break;
+                    expand(node, board, random);
+                    children = node.children;
+                }
+                if (children.length == 0) break;
+                node = select(node, children);
+                Node.VISITS.incrementAndGet(node);
+                board.makeMove(node.move);
+                path[++depth] = node;
+            }
+
+            Piece.Color winner = playout();
+            // The move into path[i] was played by the root side when i is odd
+            for (int i = depth; i >= 1; i--) {
+                Piece.Color mover = (i & 1) == 1 ? rootSide : opposite(rootSide);
+                int points = winner == null ? 1 : winner == mover ? 2 : 0;
+                if (points > 0) Node.SCORE.addAndGet(path[i], points);
+                board.unmakeMove();
+            }
+        }
+
+        // Plays random moves to the end and takes them back; returns the winner or null for a draw
+        private Piece.Color playout() {
+            int plies = 0;
+            Piece.Color winner = null;
+            while (plies < MAX_PLAYOUT_PLIES) {
+                if (board.isGameOver()) {
+                    winner = board.determineWinner();
+                    break;
+                }
+                board.makeMove(pick(board.getLegalMoves()));
+                plies++;
+            }
+            for (int i = 0; i < plies; i++) {
+                board.unmakeMove();
+            }
+            return winner;
+        }
+
+        private int pick(MoveList moves) {
+            Piece.Color us = board.getSideToMove();
+            if (!board.isCapturePossible(us) && random.nextInt(100) < SACRIFICE_PERCENT) {
+                long attacked = board.getAttacks(opposite(us));
+                sacrifices.clear();
+                for (int i = 0; i < moves.size(); i++) {
+                    if ((attacked & Bitboards.bit(Move.to(moves.get(i)))) != 0) sacrifices.add(moves.get(i));
+                }
+                if (sacrifices.size() > 0) return sacrifices.get(random.nextInt(sacrifices.size()));
+            }
+            return moves.get(random.nextInt(moves.size()));
+        }
+    }
+
+    private static Piece.Color opposite(Piece.Color color) {
+        return color == Piece.Color.WHITE ? Piece.Color.BLACK : Piece.Color.WHITE;
+    }
+}
@@ -0,0 +1,58 @@
+// src/engine/MctsMoveSource.java
+package engine;
+
+import model.Board;
+import model.Move;
+import model.MoveSource;
+import model.Player;
+
+/**
+ * Moves chosen by {@link Mcts}. The tree is built afresh for every move.
+ */
+public class MctsMoveSource implements MoveSource {
+    private final SearchLimits limits;
+    private final Mcts mcts;
+    private volatile boolean verbose = true;
+    private volatile Mcts.Result lastResult;
+
+    /**
+     * @param limits Budget per move (move time and/or playouts)
+     * @param threads Number of workers sharing the tree
+     * @param seed Seed for the playouts
+     */
+    public MctsMoveSource(SearchLimits limits, int threads, long seed) {
+        this.limits = limits;
+        this.mcts = new Mcts(threads, seed);
+    }
+
+    /**
+     * Print the chosen move and search statistics after every move.
+     * @param verbose true to print, false to stay silent
+     */
+    public void setVerbose(boolean verbose) {
+        this.verbose = verbose;
+    }
+
+    /**
+     * Result of the most recent search.
+     * @return Search result, or null before the first move
+     */
+    public Mcts.Result getLastResult() {
+        return lastResult;
+    }
+
+    @Override
+    public int nextMove(Board board, Player player) {
+        Mcts.Result result = mcts.search(board, limits);
+        lastResult = result;
+        int move = result.getBestMove();
+        if (move == Move.NONE) {
+            return QUIT;
+        }
+        if (verbose) {
+            System.out.println(player.getName() + " (" + player.getColor().toString().toLowerCase() + ") plays "
+                + Move.toString(move) + " [" + result + "]");
+        }
+        return MoveSource.encode(Move.from(move), Move.to(move));
+    }
+}
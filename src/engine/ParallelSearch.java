@@ -0,0 +1,146 @@
+// src/engine/ParallelSearch.java
+package engine;
+
+import model.Board;
+import tablebase.Tablebase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Lazy SMP: several {@link Search} instances search the same position at
+ * once and share one {@link TranspositionTable}.
+ *
+ * The calling thread runs the main search and decides the move. Helper
+ * threads run the same iterative deepening, starting at staggered depths,
+ * and only contribute through the entries they leave in the shared table.
+ * They are stopped as soon as the main search returns. Node budgets apply
+ * to the main search only; the reported node count covers all threads.
+ */
+public class ParallelSearch {
+    private final TranspositionTable table;
+    private final Search main;
+    private final Search[] helpers;
+    private final ExecutorService pool;
+
+    /**
+     * @param table Table shared by all threads
+     * @param evaluator Evaluation function
+     * @param threads Total number of search threads, the caller's included
+     */
+    public ParallelSearch(TranspositionTable table, Evaluator evaluator, int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Thread count must be at least 1.");
+        }
+        this.table = table;
+        main = new Search(new Board(), table, evaluator);
+        helpers = new Search[threads - 1];
+        for (int i = 0; i < helpers.length; i++) {
+            helpers[i] = new Search(new Board(), table, evaluator);
+            helpers[i].setStartDepth(2 + i % 3);
+        }
+        pool = helpers.length == 0 ? null : Executors.newFixedThreadPool(helpers.length, r -> {
+            Thread t = new Thread(r, "search-helper");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public int getThreads() {
+        return helpers.length + 1;
+    }
+
+    public TranspositionTable getTable() {
+        return table;
+    }
+
+    /**
+     * Score endgames from a tablebase on every thread.
+     * @param tablebase Tablebase, or null for none
+     */
+    public void setTablebase(Tablebase tablebase) {
+        main.setTablebase(tablebase);
+        for (Search helper : helpers) {
+            helper.setTablebase(tablebase);
+        }
+    }
+
+    /**
+     * Search a position on all threads.
+     * @param position Position to search (left unchanged)
+     * @param limits Budget for the main search
+     * @return The main search's result, with nodes summed over all threads
+     */
+    public SearchResult search(Board position, SearchLimits limits) {
+        main.resetStop();
+        return run(position, limits);
+    }
+
+    /**
+     * Clear a previous stop request. Used by callers that start the search
+     * on another thread and must be able to stop it before it gets going.
+     */
+    void resetStop() {
+        main.resetStop();
+    }
+
+    /**
+     * Like {@link #search}, but honors a stop request made before the call.
+     */
+    SearchResult run(Board position, SearchLimits limits) {
+        table.newSearch();
+        main.setPosition(position);
+        List<Future<?>> running = new ArrayList<>();
+        SearchLimits helperLimits = new SearchLimits(limits.getMaxDepth(), 0, 0);
+        for (Search helper : helpers) {
+            helper.setPosition(position);
+            helper.resetStop();
+            running.add(pool.submit(() -> helper.run(helperLimits)));
+        }
+
+        SearchResult result;
+        try {
+            result = main.run(limits);
+        } finally {
+            for (Search helper : helpers) {
+                helper.stop();
+            }
+        }
+
+        long nodes = result.getNodes();
+        for (int i = 0; i < helpers.length; i++) {
+            try {
+                running.get(i).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                throw new IllegalStateException("Search helper failed.", e);
+            }
+            nodes += helpers[i].getNodes();
+        }
+        return new SearchResult(result.getBestMove(), result.getScore(), result.getDepth(), nodes,
+            result.getElapsedMillis(), result.getPrincipalVariation());
+    }
+
+    /**
+     * Stop a running search from another thread.
+     */
+    public void stop() {
+        main.stop();
+        for (Search helper : helpers) {
+            helper.stop();
+        }
+    }
+
+    /**
+     * Release the helper threads.
+     */
+    public void shutdown() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+}
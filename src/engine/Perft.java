@@ -0,0 +1,270 @@
+// src/engine/Perft.java
+package engine;
+
+import model.Board;
+import model.Fen;
+import model.Move;
+import model.MoveList;
+import model.Piece;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Perft: counts the leaf nodes of the legal move tree to a fixed depth.
+ *
+ * Root moves are split across a worker pool, and subtree counts can be
+ * cached in a shared {@link TranspositionTable}. The same counts can be
+ * produced with the original {@link Piece#getValidMoves} generator
+ * ({@link #referenceCount}), which makes perft a correctness check for the
+ * bitboard generator as well as a throughput benchmark.
+ *
+ * Usage: {@code java Main perft <depth> [--threads n] [--hash MB] [--divide] [--verify]
+ * [--fen "..."] [--moves "E2 E3,E7 E6"]}
+ */
+public class Perft {
+    private final int threads;
+    private final TranspositionTable table;
+
+    /**
+     * @param threads Worker threads for the root split
+     * @param table Table for subtree counts, or null for no caching
+     */
+    public Perft(int threads, TranspositionTable table) {
+        this.threads = Math.max(1, threads);
+        this.table = table;
+    }
+
+    /**
+     * Count leaf nodes below a position.
+     * @param position Start position (left unchanged)
+     * @param depth Depth in plies
+     * @return Leaf count
+     */
+    public long count(Board position, int depth) {
+        if (depth <= 0) return 1;
+        long total = 0;
+        for (long c : divide(position, depth, new MoveList())) {
+            total += c;
+        }
+        return total;
+    }
+
+    /**
+     * Count leaf nodes below each root move.
+     * @param position Start position (left unchanged)
+     * @param depth Depth in plies (at least 1)
+     * @param rootMoves Filled with the root moves, in the order of the result
+     * @return Leaf count per root move
+     */
+    public long[] divide(Board position, int depth, MoveList rootMoves) {
+        rootMoves.clear();
+        position.generateLegalMoves(position.getSideToMove(), rootMoves);
+        long[] counts = new long[rootMoves.size()];
+        if (depth < 1) return counts;
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Long>> results = new ArrayList<>();
+            for (int i = 0; i < rootMoves.size(); i++) {
+                int move = rootMoves.get(i);
+                results.add(pool.submit(() -> {
+                    Board board = new Board(position);
+                    board.makeMove(move);
+                    return countMoves(board, depth - 1, newMoveLists(depth));
+                }));
+            }
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = results.get(i).get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Perft interrupted.", e);
+        } catch (Exception e) {
+            throw new IllegalStateException("Perft worker failed.", e);
+        } finally {
+            pool.shutdown();
+        }
+        return counts;
+    }
+
+    private long countMoves(Board board, int depth, MoveList[] lists) {
+        if (depth == 0) return 1;
+
+        long key = board.getHash();
+        if (table != null && depth > 1) {
+            long entry = table.probe(key);
+            if (entry != TranspositionTable.MISS && TranspositionTable.depth(entry) == depth) {
+                return TranspositionTable.count(entry);
+            }
+        }
+
+        MoveList moves = lists[depth];
+        moves.clear();
+        board.generateLegalMoves(board.getSideToMove(), moves);
+        if (depth == 1) return moves.size();
+
+        long nodes = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            board.makeMove(moves.get(i));
+            nodes += countMoves(board, depth - 1, lists);
+            board.unmakeMove();
+        }
+        if (table != null) {
+            table.store(key, TranspositionTable.packCount(nodes, depth));
+        }
+        return nodes;
+    }
+
+    private static MoveList[] newMoveLists(int depth) {
+        MoveList[] lists = new MoveList[depth + 1];
+        for (int i = 0; i < lists.length; i++) {
+            lists[i] = new MoveList();
+        }
+        return lists;
+    }
+
+    /**
+     * Count leaf nodes with the original generator: Piece.getValidMoves for
+     * every piece, and a capture scan over the same moves for the
+     * mandatory-capture rule. Slow, single-threaded, and independent of
+     * the bitboard generator.
+     * @param board Start position (restored before returning)
+     * @param depth Depth in plies
+     * @return Leaf count
+     */
+    public static long referenceCount(Board board, int depth) {
+        if (depth <= 0) return 1;
+        Piece.Color color = board.getSideToMove();
+        List<int[][]> moves = referenceMoves(board, color);
+        long nodes = 0;
+        for (int[][] move : moves) {
+            board.makeMove(move[0], move[1]);
+            nodes += referenceCount(board, depth - 1);
+            board.unmakeMove();
+        }
+        return nodes;
+    }
+
+    private static List<int[][]> referenceMoves(Board board, Piece.Color color) {
+        List<int[][]> all = new ArrayList<>();
+        List<int[][]> captures = new ArrayList<>();
+        for (int row = 0; row < 8; row++) {
+            for (int col = 0; col < 8; col++) {
+                Piece piece = board.getPiece(row, col);
+                if (piece == null || piece.getColor() != color) continue;
+                int[] start = {row, col};
+                for (int[] end : piece.getValidMoves(start, board)) {
+                    all.add(new int[][]{start, end});
+                    if (board.isEnemy(end[0], end[1], color)) {
+                        captures.add(new int[][]{start, end});
+                    }
+                }
+            }
+        }
+        return captures.isEmpty() ? all : captures;
+    }
+
+    public static void main(String[] args) {
+        String usage = "Usage: java Main perft <depth> [--threads n] [--hash MB] [--divide] [--verify] [--fen \"...\"] [--moves \"E2 E3,E7 E6\"]";
+        if (args.length < 1) {
+            System.out.println(usage);
+            return;
+        }
+        int depth = Integer.parseInt(args[0]);
+        if (depth < 1) {
+            System.out.println("Depth must be at least 1.");
+            System.out.println(usage);
+            return;
+        }
+        int threads = Runtime.getRuntime().availableProcessors();
+        int hashMb = 0;
+        boolean divide = false;
+        boolean verify = false;
+        Board board = new Board();
+        for (int i = 1; i < args.length; i++) {
+            switch (args[i]) {
+                case "--threads": threads = Integer.parseInt(args[++i]); break;
+                case "--hash": hashMb = Integer.parseInt(args[++i]); break;
+                case "--divide": divide = true; break;
+                case "--verify": verify = true; break;
+                case "--fen":
+                case "--moves":
+                    try {
+                        if (args[i].equals("--fen")) {
+                            Fen.load(board, args[++i]);
+                        } else {
+                            playMoves(board, args[++i]);
+                        }
+                    } catch (IllegalArgumentException e) {
+                        System.out.println(e.getMessage());
+                        return;
+                    }
+                    break;
+                default:
+                    System.out.println("Unknown option: " + args[i]);
+                    return;
+            }
+        }
+
+        Perft perft = new Perft(threads, hashMb > 0 ? new TranspositionTable(hashMb, TranspositionTable.ReplacementPolicy.DEPTH_PREFERRED) : null);
+        MoveList rootMoves = new MoveList();
+        long start = System.nanoTime();
+        long[] counts = perft.divide(board, depth, rootMoves);
+        long elapsed = Math.max(1, System.nanoTime() - start);
+        long total = Arrays.stream(counts).sum();
+
+        boolean mismatch = false;
+        for (int i = 0; i < rootMoves.size(); i++) {
+            String line = Move.toString(rootMoves.get(i)) + ": " + counts[i];
+            if (verify) {
+                Board copy = new Board(board);
+                copy.makeMove(rootMoves.get(i));
+                long expected = referenceCount(copy, depth - 1);
+                if (expected != counts[i]) {
+                    line += "  MISMATCH (reference " + expected + ")";
+                    mismatch = true;
+                }
+            }
+            if (divide || verify) System.out.println(line);
+        }
+        if (verify && referenceMoves(board, board.getSideToMove()).size() != rootMoves.size()) {
+            System.out.println("MISMATCH in root move count");
+            mismatch = true;
+        }
+
+        System.out.println("Nodes: " + total);
+        System.out.println("Time: " + elapsed / 1_000_000 + " ms");
+        System.out.println("Nodes/sec: " + total * 1_000_000_000L / elapsed);
+        if (verify) {
+            System.out.println(mismatch ? "Verification FAILED" : "Verification passed");
+        }
+    }
+
+    /**
+     * Play comma-separated moves such as "E2 E3,E7 E6" from the board\x27s position.
+     * @throws IllegalArgumentException naming the first move that is malformed or illegal
+     */
+    static void playMoves(Board board, String moves) {
+        for (String text : moves.split(",")) {
+            String[] parts = text.trim().split("\\s+");
+            if (parts.length != 2 || parts[0].length() != 2 || parts[1].length() != 2) {
+                throw new IllegalArgumentException("Bad move: \"" + text.trim() + "\" (expected e.g. \"E2 E3\")");
+            }
+            int from = Move.parseSquare(parts[0].charAt(0), parts[0].charAt(1));
+            int to = Move.parseSquare(parts[1].charAt(0), parts[1].charAt(1));
+            if (from < 0 || to < 0) {
+                throw new IllegalArgumentException("Bad square in move: \"" + text.trim() + "\"");
+            }
+            int move = board.getLegalMoves().find(from, to);
+            if (move == Move.NONE) {
+                throw new IllegalArgumentException("Illegal move: \"" + text.trim() + "\"");
+            }
+            board.makeMove(move);
+        }
+    }
+}
@@ -0,0 +1,468 @@
+// src/engine/ProofNumberSearch.java
+package engine;
+
+import metrics.Metrics;
+import model.Board;
+import model.Fen;
+import model.Move;
+import model.MoveList;
+import model.Piece;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Depth-first proof-number (df-pn) solver: proves a position won, lost or
+ * drawn instead of estimating it.
+ *
+ * A proof is searched for one side at a time, the attacker. Every node
+ * carries a proof number (how many leaves still have to be shown won for
+ * the attacker) and a disproof number (how many have to be shown not won),
+ * and the search always expands the most-proving node, so it follows the
+ * narrow lines that forced captures create and leaves the rest of the tree
+ * alone. Numbers are kept from the side to move's point of view: phi is the
+ * cost of settling the node in its favour and delta the cost of settling it
+ * against, so attacker and defender nodes share one code path.
+ *
+ * Only the {@link ProofTable} holds the tree, so memory stays bounded. A
+ * position repeated on the current line, or one beyond the ply limit,
+ * counts as not won for the attacker. Results that depend on such a line
+ * are stored like any other; the rare wrong draw this can give is the
+ * usual price of df-pn with transpositions.
+ *
+ * Usage: {@code java Main solve [--fen "..."] [--moves "E2 E3,E7 E6"] [--hash MB]
+ * [--nodes n] [--time ms] [--max-plies n]}
+ */
+public class ProofNumberSearch {
+    static final int INFINITY = 100_000_000;
+    public static final int DEFAULT_MAX_PLIES = 200;
+    public static final int DEFAULT_HASH_MB = 64;
+
+    // How a child's numbers are known: from the table, or fixed by the rules
+    private static final byte LOOKUP = 0;
+    private static final byte TO_MOVE_WINS = 1;
+    private static final byte TO_MOVE_LOSES = 2;
+    private static final byte NOT_WON = 3;
+
+    public enum Outcome {
+        /** The side to move can force a win. */
+        WIN,
+        /** The opponent can force a win. */
+        LOSS,
+        /** Neither side can force a win. */
+        DRAW,
+        /** The node or time budget ran out first. */
+        UNKNOWN
+    }
+
+    /**
+     * Outcome of one solve.
+     */
+    public static class Result {
+        private final Outcome outcome;
+        private final int[] line;
+        private final long proofSize;
+        private final long nodes;
+        private final long elapsedMillis;
+        private final long collections;
+
+        Result(Outcome outcome, int[] line, long proofSize, long nodes, long elapsedMillis, long collections) {
+            this.outcome = outcome;
+            this.line = line;
+            this.proofSize = proofSize;
+            this.nodes = nodes;
+            this.elapsedMillis = elapsedMillis;
+            this.collections = collections;
+        }
+
+        public Outcome getOutcome() {
+            return outcome;
+        }
+
+        /**
+         * Main line of the proof: the winner's cheapest win against the
+         * loser's most stubborn defence, as measured by search effort.
+         * @return Packed moves, empty unless the outcome is WIN or LOSS
+         */
+        public int[] getLine() {
+            return line.clone();
+        }
+
+        /**
+         * Number of distinct positions in the proof tree (all defences, one
+         * winning reply each).
+         * @return Positions, or 0 unless the outcome is WIN or LOSS
+         */
+        public long getProofSize() {
+            return proofSize;
+        }
+
+        public long getNodes() {
+            return nodes;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        /**
+         * Number of times the proof table was garbage collected.
+         * @return Collections
+         */
+        public long getCollections() {
+            return collections;
+        }
+
+        @Override
+        public String toString() {
+            long nps = elapsedMillis > 0 ? nodes * 1000 / elapsedMillis : nodes;
+            return String.format("%s proof size %d nodes %d nps %d time %d ms gc %d",
+                outcome, proofSize, nodes, nps, elapsedMillis, collections);
+        }
+    }
+
+    private final ProofTable table;
+    private final int maxPlies;
+    private final MoveList[] moves;
+    private final long[][] childHashes;
+    private final byte[][] childKinds;
+
+    private Piece.Color attacker;
+    private long attackerKey;
+    private long nodes;
+    private long maxNodes;
+    private long deadline;
+    private boolean stopped;
+    private boolean horizon;
+
+    /**
+     * @param hashMb Size of the proof table in megabytes
+     * @param maxPlies Longest line searched; deeper positions count as not won
+     */
+    public ProofNumberSearch(int hashMb, int maxPlies) {
+        this.table = new ProofTable(hashMb);
+        this.maxPlies = Math.max(1, maxPlies);
+        moves = new MoveList[this.maxPlies + 1];
+        childHashes = new long[this.maxPlies + 1][MoveList.DEFAULT_CAPACITY];
+        childKinds = new byte[this.maxPlies + 1][MoveList.DEFAULT_CAPACITY];
+        for (int i = 0; i <= this.maxPlies; i++) {
+            moves[i] = new MoveList();
+        }
+    }
+
+    /**
+     * Solve a position. The budget is the limits' node count and/or move
+     * time; with neither set the search runs until it is solved.
+     * @param position Position to solve (left unchanged)
+     * @param limits Budget (depth is ignored)
+     * @return Outcome for the side to move, with the line and statistics
+     */
+    public Result solve(Board position, SearchLimits limits) {
+        long start = System.currentTimeMillis();
+        Board board = new Board(position);
+        nodes = 0;
+        maxNodes = limits.getMaxNodes() > 0 ? limits.getMaxNodes() : Long.MAX_VALUE;
+        deadline = limits.getMoveTimeMillis() > 0 ? start + limits.getMoveTimeMillis() : Long.MAX_VALUE;
+        stopped = false;
+        horizon = false;
+
+        Piece.Color us = board.getSideToMove();
+        Outcome outcome;
+        if (board.isGameOver()) {
+            Piece.Color winner = board.determineWinner();
+            outcome = winner == null ? Outcome.DRAW : winner == us ? Outcome.WIN : Outcome.LOSS;
+        } else if (prove(board, us)) {
+            outcome = Outcome.WIN;
+        } else if (!stopped && prove(board, opposite(us))) {
+            outcome = Outcome.LOSS;
+        } else {
+            outcome = stopped || horizon ? Outcome.UNKNOWN : Outcome.DRAW;
+        }
+
+        int[] line = new int[0];
+        long proofSize = 0;
+        if (outcome == Outcome.WIN || outcome == Outcome.LOSS) {
+            // Collecting the proof must not be cut short by the budget
+            maxNodes = Long.MAX_VALUE;
+            deadline = Long.MAX_VALUE;
+            line = mainLine(board);
+            proofSize = proofSize(board, 0, new HashSet<>());
+        }
+        if (Metrics.ENABLED) Metrics.SEARCH_NODES.add(nodes);
+        return new Result(outcome, line, proofSize, nodes, System.currentTimeMillis() - start, table.getCollections());
+    }
+
+    // Searches the root until it is settled; true if the attacker wins
+    private boolean prove(Board board, Piece.Color side) {
+        setAttacker(side);
+        int phi;
+        int delta;
+        do {
+            mid(board, 0, INFINITY, INFINITY);
+            int slot = table.find(key(board.getHash()));
+            phi = slot < 0 ? 1 : table.phi(slot);
+            delta = slot < 0 ? 1 : table.delta(slot);
+        } while (phi != 0 && delta != 0 && !stopped);
+        return board.getSideToMove() == side ? phi == 0 : delta == 0;
+    }
+
+    private void setAttacker(Piece.Color side) {
+        attacker = side;
+        // Proofs for the two sides must not share table entries
+        attackerKey = side == Piece.Color.WHITE ? 0 : 0x9E3779B97F4A7C15L;
+    }
+
+    private long key(long hash) {
+        return hash ^ attackerKey;
+    }
+
+    /**
+     * Multiple iterative deepening: expand the most-proving child until this
+     * node's phi or delta reaches its threshold, then store the numbers.
+     */
+    private void mid(Board board, int ply, int thPhi, int thDelta) {
+        long startNodes = nodes++;
+        if ((nodes & 1023) == 0 && System.currentTimeMillis() >= deadline) stopped = true;
+        if (nodes >= maxNodes) stopped = true;
+
+        long hash = board.getHash();
+        int stored = table.find(key(hash));
+        long oldWork = stored < 0 ? 0 : table.work(stored);
+        MoveList list = moves[ply];
+        list.clear();
+        int count = board.generateLegalMoves(board.getSideToMove(), list);
+        long[] hashes = childHashes[ply];
+        byte[] kinds = childKinds[ply];
+        for (int i = 0; i < count; i++) {
+            board.makeMove(list.get(i));
+            hashes[i] = board.getHash();
+            kinds[i] = classify(board, ply + 1);
+            board.unmakeMove();
+        }
+
+        Piece.Color mover = board.getSideToMove();
+        int phi;
+        int delta;
+        while (true) {
+            // phi is the cheapest child to settle against its mover, delta the sum over all children
+            long sum = 0;
+            boolean anyInfinite = false;
+            int best = -1;
+            int bestDelta = INFINITY;
+            int secondDelta = INFINITY;
+            int bestPhi = 0;
+            for (int i = 0; i < count; i++) {
+                int childPhi = childPhi(kinds[i], hashes[i], mover);
+                int childDelta = childDelta(kinds[i], hashes[i], mover);
+                if (childPhi >= INFINITY) {
+                    anyInfinite = true;
+                } else {
+                    sum += childPhi;
+                }
+                if (childDelta < bestDelta) {
+                    secondDelta = bestDelta;
+                    bestDelta = childDelta;
+                    bestPhi = childPhi;
+                    best = i;
+                } else if (childDelta < secondDelta) {
+                    secondDelta = childDelta;
+                }
+            }
+            phi = bestDelta;
+            delta = anyInfinite ? INFINITY : (int) Math.min(sum, INFINITY - 1);
+            if (phi >= thPhi || delta >= thDelta || stopped) break;
+
+            int childThPhi = thDelta >= INFINITY ? INFINITY : (int) (thDelta - (sum - bestPhi));
+            int childThDelta = (int) Math.min(thPhi, (long) secondDelta + 1);
+            board.makeMove(list.get(best));
+            mid(board, ply + 1, childThPhi, childThDelta);
+            board.unmakeMove();
+        }
+        table.store(key(hash), phi, delta, oldWork + nodes - startNodes);
+    }
+
+    // Decides from the rules alone what a child position is worth, if anything
+    private byte classify(Board board, int ply) {
+        if (board.isGameOver()) {
+            Piece.Color winner = board.determineWinner();
+            if (winner == null) return NOT_WON;
+            return winner == board.getSideToMove() ? TO_MOVE_WINS : TO_MOVE_LOSES;
+        }
+        if (board.getRepetitions() > 0) return NOT_WON;
+        if (ply >= maxPlies) {
+            horizon = true;
+            return NOT_WON;
+        }
+        return LOOKUP;
+    }
+
+    /*
+     * Numbers of a child from its own side to move's point of view; "mover"
+     * is the side that played into it, so the child's side to move is the
+     * other one.
+     */
+    private int childPhi(byte kind, long hash, Piece.Color mover) {
+        switch (kind) {
+            case TO_MOVE_WINS: return 0;
+            case TO_MOVE_LOSES: return INFINITY;
+            case NOT_WON: return mover == attacker ? 0 : INFINITY;
+            default:
+                int slot = table.find(key(hash));
+                return slot < 0 ? 1 : table.phi(slot);
+        }
+    }
+
+    private int childDelta(byte kind, long hash, Piece.Color mover) {
+        switch (kind) {
+            case TO_MOVE_WINS: return INFINITY;
+            case TO_MOVE_LOSES: return 0;
+            case NOT_WON: return mover == attacker ? INFINITY : 0;
+            default:
+                int slot = table.find(key(hash));
+                return slot < 0 ? 1 : table.delta(slot);
+        }
+    }
+
+    /*
+     * Picks the winner's move in a proven position: the settled child with
+     * the least work, usually the quickest win. For the loser every child
+     * is settled; all of them go to "defences" if it is given, and the one
+     * with the most work, the most stubborn defence, is returned.
+     */
+    private int proofMove(Board board, int ply, MoveList defences) {
+        boolean attacking = board.getSideToMove() == attacker;
+        MoveList list = new MoveList();
+        board.generateLegalMoves(board.getSideToMove(), list);
+        while (true) {
+            int choice = Move.NONE;
+            long choiceWork = attacking ? Long.MAX_VALUE : -1;
+            for (int i = 0; i < list.size(); i++) {
+                int move = list.get(i);
+                board.makeMove(move);
+                Piece.Color mover = opposite(board.getSideToMove());
+                byte kind = classify(board, ply + 1);
+                long hash = board.getHash();
+                long work = 0;
+                if (kind == LOOKUP) {
+                    // Every defence has to be known, so one dropped from the table is searched again
+                    if (!attacking) settle(board, ply + 1);
+                    int slot = table.find(key(hash));
+                    work = slot < 0 ? 0 : table.work(slot);
+                }
+                board.unmakeMove();
+                boolean proven = attacking ? childDelta(kind, hash, mover) == 0 : childPhi(kind, hash, mover) == 0;
+                if (!proven) continue;
+                if (defences != null) defences.add(move);
+                if (attacking ? work < choiceWork : work > choiceWork) {
+                    choice = move;
+                    choiceWork = work;
+                }
+            }
+            if (choice != Move.NONE || !attacking) return choice;
+            // The table dropped the winning reply; search this position again to find it.
+            // Repetitions along this line can leave it unproven, and then there is none.
+            mid(board, ply, INFINITY, INFINITY);
+            int slot = table.find(key(board.getHash()));
+            if (slot >= 0 && table.phi(slot) != 0) return Move.NONE;
+        }
+    }
+
+    // Searches the current position until it is settled again after the table dropped it
+    private void settle(Board board, int ply) {
+        int slot = table.find(key(board.getHash()));
+        while (slot < 0 || (table.phi(slot) != 0 && table.delta(slot) != 0)) {
+            mid(board, ply, INFINITY, INFINITY);
+            slot = table.find(key(board.getHash()));
+        }
+    }
+
+    private int[] mainLine(Board board) {
+        MoveList line = new MoveList(maxPlies + 1);
+        int ply = 0;
+        while (!board.isGameOver() && ply < maxPlies) {
+            int move = proofMove(board, ply, null);
+            if (move == Move.NONE) break;
+            line.add(move);
+            board.makeMove(move);
+            ply++;
+        }
+        for (int i = 0; i < ply; i++) {
+            board.unmakeMove();
+        }
+        int[] result = new int[line.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = line.get(i);
+        }
+        return result;
+    }
+
+    // Positions in the proof tree: one winning move per attacker node, every move per defender node
+    private long proofSize(Board board, int ply, Set<Long> seen) {
+        if (!seen.add(board.getHash()) || board.isGameOver() || ply >= maxPlies) return 0;
+        long size = 1;
+        MoveList children = new MoveList();
+        if (board.getSideToMove() == attacker) {
+            int move = proofMove(board, ply, null);
+            if (move != Move.NONE) children.add(move);
+        } else {
+            proofMove(board, ply, children);
+        }
+        for (int i = 0; i < children.size(); i++) {
+            board.makeMove(children.get(i));
+            size += proofSize(board, ply + 1, seen);
+            board.unmakeMove();
+        }
+        return size;
+    }
+
+    private static Piece.Color opposite(Piece.Color color) {
+        return color == Piece.Color.WHITE ? Piece.Color.BLACK : Piece.Color.WHITE;
+    }
+
+    public static void main(String[] args) {
+        Board board = new Board();
+        int hashMb = DEFAULT_HASH_MB;
+        int maxPlies = DEFAULT_MAX_PLIES;
+        long nodeLimit = 0;
+        long timeLimit = 0;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--fen":
+                case "--moves":
+                    try {
+                        if (args[i].equals("--fen")) {
+                            Fen.load(board, args[++i]);
+                        } else {
+                            Perft.playMoves(board, args[++i]);
+                        }
+                    } catch (IllegalArgumentException e) {
+                        System.out.println(e.getMessage());
+                        return;
+                    }
+                    break;
+                case "--hash": hashMb = Integer.parseInt(args[++i]); break;
+                case "--nodes": nodeLimit = Long.parseLong(args[++i]); break;
+                case "--time": timeLimit = Long.parseLong(args[++i]); break;
+                case "--max-plies": maxPlies = Integer.parseInt(args[++i]); break;
+                default:
+                    System.out.println("Usage: java Main solve [--fen \"...\"] [--moves \"E2 E3,E7 E6\"] [--hash MB] [--nodes n] [--time ms] [--max-plies n]");
+                    return;
+            }
+        }
+
+        SearchLimits limits = new SearchLimits(SearchLimits.MAX_DEPTH, timeLimit, nodeLimit);
+        Result result = new ProofNumberSearch(hashMb, maxPlies).solve(board, limits);
+        System.out.println("Result: " + result.getOutcome() + " for " + board.getSideToMove());
+        StringBuilder line = new StringBuilder();
+        for (int move : result.getLine()) {
+            if (line.length() > 0) line.append(", ");
+            line.append(Move.toString(move));
+        }
+        if (line.length() > 0) System.out.println("Line: " + line);
+        System.out.println("Proof size: " + result.getProofSize());
+        System.out.println("Nodes: " + result.getNodes());
+        System.out.println("Time: " + result.getElapsedMillis() + " ms");
+        System.out.println("Nodes/sec: " + (result.getElapsedMillis() > 0 ? result.getNodes() * 1000 / result.getElapsedMillis() : result.getNodes()));
+        System.out.println("Table GC runs: " + result.getCollections());
+    }
+}
@@ -0,0 +1,129 @@
+// src/engine/ProofTable.java
+package engine;
+
+/**
+ * Fixed-size hash table of proof and disproof numbers for
+ * {@link ProofNumberSearch}.
+ *
+ * Entries live in buckets of {@value #BUCKET_SIZE}. When a new entry meets
+ * a full bucket while five-eighths of the table are in use, the table is
+ * garbage collected: entries are dropped by their work (the number of
+ * nodes searched below them), cheapest first, until at most half of it is
+ * left. Otherwise the full bucket gives up its entry with the least work.
+ * Either way the large, expensive parts of the proof tree stay, and the
+ * search runs in bounded memory for as long as it needs.
+ */
+final class ProofTable {
+    static final int BUCKET_SIZE = 4;
+    // key, phi, delta and work
+    private static final int ENTRY_BYTES = 8 + 4 + 4 + 8;
+
+    private final long[] keys;
+    private final int[] phis;
+    private final int[] deltas;
+    // 0 marks an empty slot; stored work is at least 1
+    private final long[] works;
+    private final int bucketMask;
+    private int used;
+    private long collections;
+
+    ProofTable(int megabytes) {
+        long entries = Math.max(BUCKET_SIZE, ((long) megabytes << 20) / ENTRY_BYTES);
+        int buckets = Integer.highestOneBit((int) Math.min(entries / BUCKET_SIZE, 1 << 26));
+        keys = new long[buckets * BUCKET_SIZE];
+        phis = new int[keys.length];
+        deltas = new int[keys.length];
+        works = new long[keys.length];
+        bucketMask = buckets - 1;
+    }
+
+    /**
+     * Slot holding a key.
+     * @return Slot index, or -1 if the key is not stored
+     */
+    int find(long key) {
+        int base = ((int) key & bucketMask) * BUCKET_SIZE;
+        for (int i = base; i < base + BUCKET_SIZE; i++) {
+            if (works[i] != 0 && keys[i] == key) return i;
+        }
+        return -1;
+    }
+
+    int phi(int slot) {
+        return phis[slot];
+    }
+
+    int delta(int slot) {
+        return deltas[slot];
+    }
+
+    long work(int slot) {
+        return works[slot];
+    }
+
+    void store(long key, int phi, int delta, long work) {
+        int base = ((int) key & bucketMask) * BUCKET_SIZE;
+        int slot = freeSlot(key, base);
+        if (slot < 0 && used >= keys.length / 8 * 5) {
+            collect();
+            slot = freeSlot(key, base);
+        }
+        if (slot < 0) {
+            slot = base;
+            for (int i = base + 1; i < base + BUCKET_SIZE; i++) {
+                if (works[i] < works[slot]) slot = i;
+            }
+        } else if (works[slot] == 0) {
+            used++;
+        }
+        keys[slot] = key;
+        phis[slot] = phi;
+        deltas[slot] = delta;
+        works[slot] = Math.max(1, work);
+    }
+
+    // The key's own slot, else an empty one, else -1
+    private int freeSlot(long key, int base) {
+        int empty = -1;
+        for (int i = base; i < base + BUCKET_SIZE; i++) {
+            if (works[i] == 0) {
+                if (empty < 0) empty = i;
+            } else if (keys[i] == key) {
+                return i;
+            }
+        }
+        return empty;
+    }
+
+    private void collect() {
+        collections++;
+        // Entries per power of two of work; drop whole classes from the cheapest up
+        int[] classes = new int[64];
+        for (long work : works) {
+            if (work != 0) classes[63 - Long.numberOfLeadingZeros(work)]++;
+        }
+        int remaining = used;
+        int cutoff = -1;
+        while (remaining > keys.length / 2) {
+            remaining -= classes[++cutoff];
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (works[i] != 0 && 63 - Long.numberOfLeadingZeros(works[i]) <= cutoff) {
+                works[i] = 0;
+            }
+        }
+        used = remaining;
+    }
+
+    int getCapacity() {
+        return keys.length;
+    }
+
+    int getUsed() {
+        return used;
+    }
+
+    long getCollections() {
+        return collections;
+    }
+}
@@ -0,0 +1,32 @@
+// src/engine/RandomMoveSource.java
+package engine;
+
+import model.Board;
+import model.Move;
+import model.MoveList;
+import model.MoveSource;
+import model.Player;
+
+import java.util.SplittableRandom;
+
+/**
+ * Uniformly random legal moves. Useful as a baseline opponent and for
+ * fast self-play.
+ */
+public class RandomMoveSource implements MoveSource {
+    private final SplittableRandom random;
+
+    public RandomMoveSource(long seed) {
+        this.random = new SplittableRandom(seed);
+    }
+
+    @Override
+    public int nextMove(Board board, Player player) {
+        MoveList moves = board.getLegalMoves();
+        if (moves.isEmpty()) {
+            return QUIT;
+        }
+        int move = moves.get(random.nextInt(moves.size()));
+        return MoveSource.encode(Move.from(move), Move.to(move));
+    }
+}
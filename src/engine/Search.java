@@ -0,0 +1,376 @@
+// src/engine/Search.java
+package engine;
+
+import metrics.Metrics;
+import model.Bitboards;
+import model.Board;
+import model.Move;
+import model.MoveList;
+import model.Piece;
+import tablebase.Tablebase;
+
+import java.util.Arrays;
+
+/**
+ * Negamax alpha-beta search with iterative deepening.
+ *
+ * The search runs on its own {@link Board} with make/unmake, so callers
+ * should hand it a copy of the game board. Antichess specifics:
+ * <ul>
+ *   <li>a side with no legal move (including no pieces) has won;</li>
+ *   <li>at the horizon, a side that must capture keeps searching its
+ *       captures (for a few more plies) instead of standing pat, since it
+ *       cannot decline them;</li>
+ *   <li>a position with a single legal move is extended, so forced
+ *       capture chains do not eat into the depth budget;</li>
+ *   <li>a position that already occurred, in the game or on the search
+ *       path, is scored as a draw, since repeating it again would make it
+ *       one;</li>
+ *   <li>move ordering tries moves that hand the opponent a forced capture
+ *       first, since those are the forcing moves of the game;</li>
+ *   <li>with a {@link Tablebase}, positions it covers are scored exactly
+ *       instead of being searched.</li>
+ * </ul>
+ */
+public class Search {
+    public static final int INFINITY = 32000;
+    public static final int WIN = 30000;
+    public static final int MAX_PLY = 128;
+    public static final int WIN_THRESHOLD = WIN - MAX_PLY;
+
+    private static final int MAX_EXTENSIONS = 16;
+    private static final int MAX_CAPTURE_PLIES = 6;
+
+    private final Board board;
+    private final TranspositionTable table;
+    private final Evaluator evaluator;
+    private Tablebase tablebase;
+    private final MoveList[] moveLists = new MoveList[MAX_PLY + 1];
+    private final int[][] orderKeys = new int[MAX_PLY + 1][MoveList.DEFAULT_CAPACITY];
+    private final int[] history = new int[Piece.COUNT * 64];
+    private final int[] features = new int[Evaluator.FEATURE_COUNT];
+
+    private volatile boolean stopped;
+    private long nodes;
+    private long deadline;
+    private long nodeLimit;
+    private int extensions;
+    private int startDepth = 1;
+
+    public Search(Board board, TranspositionTable table, Evaluator evaluator) {
+        this.board = board;
+        this.table = table;
+        this.evaluator = evaluator;
+        for (int i = 0; i < moveLists.length; i++) {
+            moveLists[i] = new MoveList();
+        }
+    }
+
+    /**
+     * Ask a running search to stop as soon as possible. Safe to call from
+     * another thread; the search returns the best move found so far.
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Score endgames from a tablebase instead of searching them.
+     * @param tablebase Tablebase, or null for none
+     */
+    public void setTablebase(Tablebase tablebase) {
+        this.tablebase = tablebase;
+    }
+
+    /**
+     * Replace the position this search works on.
+     * @param position Position to copy onto the search board
+     */
+    public void setPosition(Board position) {
+        board.copyFrom(position);
+    }
+
+    /**
+     * First depth of iterative deepening. Helper threads of a parallel
+     * search start deeper than the main thread so they do not all repeat
+     * the same iterations.
+     * @param startDepth First depth to search (at least 1)
+     */
+    void setStartDepth(int startDepth) {
+        this.startDepth = Math.max(1, startDepth);
+    }
+
+    /**
+     * Search the board's position within the given limits.
+     * @param limits Depth, time and node budget
+     * @return Best move found, with score and statistics
+     */
+    public SearchResult search(SearchLimits limits) {
+        stopped = false;
+        return run(limits);
+    }
+
+    /**
+     * Clear a previous stop request. Used by callers that start the search
+     * on another thread and must be able to stop it before it gets going.
+     */
+    void resetStop() {
+        stopped = false;
+    }
+
+    /**
+     * Like {@link #search}, but honors a stop request made before the call.
+     */
+    SearchResult run(SearchLimits limits) {
+        long startTime = System.currentTimeMillis();
+        nodes = 0;
+        deadline = limits.getMoveTimeMillis() > 0 ? startTime + limits.getMoveTimeMillis() : Long.MAX_VALUE;
+        nodeLimit = limits.getMaxNodes() > 0 ? limits.getMaxNodes() : Long.MAX_VALUE;
+
+        MoveList rootMoves = new MoveList();
+        board.generateLegalMoves(board.getSideToMove(), rootMoves);
+        if (rootMoves.isEmpty()) {
+            return new SearchResult(Move.NONE, WIN, 0, 0, 0, new int[0]);
+        }
+
+        int bestMove = rootMoves.get(0);
+        int bestScore = 0;
+        int completedDepth = 0;
+        int[] rootScores = new int[rootMoves.size()];
+
+        for (int depth = Math.min(startDepth, limits.getMaxDepth()); depth <= limits.getMaxDepth(); depth++) {
+            int alpha = -INFINITY;
+            int iterationBest = Move.NONE;
+            for (int i = 0; i < rootMoves.size(); i++) {
+                int move = rootMoves.get(i);
+                board.makeMove(move);
+                int score = -negamax(depth - 1, -INFINITY, -alpha, 1);
+                board.unmakeMove();
+                if (stopped) break;
+                rootScores[i] = score;
+                if (score > alpha) {
+                    alpha = score;
+                    iterationBest = move;
+                }
+            }
+            if (stopped && iterationBest == Move.NONE) break;
+
+            bestMove = iterationBest;
+            bestScore = alpha;
+            completedDepth = depth;
+            if (stopped) break;
+
+            table.store(board.getHash(), TranspositionTable.pack(bestMove, toTable(bestScore, 0), depth, TranspositionTable.BOUND_EXACT));
+            sortRootMoves(rootMoves, rootScores);
+
+            // A forced result or a single legal move will not change with more depth
+            if (Math.abs(bestScore) >= WIN_THRESHOLD || rootMoves.size() == 1) break;
+            if (System.currentTimeMillis() >= deadline) break;
+        }
+
+        long elapsed = System.currentTimeMillis() - startTime;
+        if (Metrics.ENABLED) Metrics.SEARCH_NODES.add(nodes);
+        return new SearchResult(bestMove, bestScore, completedDepth, nodes, elapsed, principalVariation(bestMove));
+    }
+
+    private int negamax(int depth, int alpha, int beta, int ply) {
+        if ((++nodes & 1023) == 0) checkLimits();
+        if (stopped) return 0;
+        // A repeated position counts as a draw
+        if (board.getRepetitions() > 0) return 0;
+
+        Piece.Color us = board.getSideToMove();
+        int pieces = board.getPieceCount(Piece.Color.WHITE) + board.getPieceCount(Piece.Color.BLACK);
+        if (tablebase != null && pieces <= tablebase.getMaxPieces()) {
+            int value = tablebase.probe(board);
+            if (value != Tablebase.UNKNOWN) return tablebaseScore(value, ply);
+        }
+        boolean forced = board.isCapturePossible(us);
+
+        // Horizon: quiet positions are evaluated, forced captures are played out
+        if ((depth <= 0 && !forced) || depth <= -MAX_CAPTURE_PLIES || ply >= MAX_PLY) {
+            if (board.getPieceCount(us) == 0) return WIN - ply;
+            return evaluator.evaluate(board, features);
+        }
+
+        long key = board.getHash();
+        int ttMove = Move.NONE;
+        long entry = table.probe(key);
+        if (entry != TranspositionTable.MISS) {
+            ttMove = TranspositionTable.move(entry);
+            if (TranspositionTable.depth(entry) >= Math.max(depth, 0)) {
+                int score = fromTable(TranspositionTable.score(entry), ply);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.BOUND_EXACT
+                    || bound == TranspositionTable.BOUND_LOWER && score >= beta
+                    || bound == TranspositionTable.BOUND_UPPER && score <= alpha) {
+                    return score;
+                }
+            }
+        }
+
+        MoveList moves = moveLists[ply];
+        moves.clear();
+        board.generateLegalMoves(us, moves);
+        if (moves.isEmpty()) {
+            return WIN - ply; // no pieces or no legal move: the side to move has won
+        }
+
+        // Extensions are counted along the current path only
+        boolean extended = moves.size() == 1 && depth > 0 && extensions < MAX_EXTENSIONS;
+        int nextDepth = extended ? depth : depth - 1;
+        if (extended) extensions++;
+
+        scoreMoves(moves, orderKeys[ply], ttMove, us);
+
+        int originalAlpha = alpha;
+        int bestScore = -INFINITY;
+        int bestMove = Move.NONE;
+        for (int i = 0; i < moves.size(); i++) {
+            pickNext(moves, orderKeys[ply], i);
+            int move = moves.get(i);
+            board.makeMove(move);
+            int score = -negamax(nextDepth, -beta, -alpha, ply + 1);
+            board.unmakeMove();
+            if (stopped) break;
+
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = move;
+                if (score > alpha) {
+                    alpha = score;
+                    if (alpha >= beta) {
+                        if (!Move.isCapture(move)) {
+                            updateHistory(move, depth);
+                        }
+                        break;
+                    }
+                }
+            }
+        }
+        if (extended) extensions--;
+        if (stopped) return 0;
+
+        int bound = bestScore >= beta ? TranspositionTable.BOUND_LOWER
+            : bestScore > originalAlpha ? TranspositionTable.BOUND_EXACT
+            : TranspositionTable.BOUND_UPPER;
+        table.store(key, TranspositionTable.pack(bestMove, toTable(bestScore, ply), Math.max(depth, 0), bound));
+        return bestScore;
+    }
+
+    /**
+     * Give each move an ordering key: hash move first, then moves that
+     * leave the moved piece where the opponent must take it, then the rest
+     * by history.
+     */
+    private void scoreMoves(MoveList moves, int[] keys, int ttMove, Piece.Color us) {
+        long theirAttacks = board.getAttacks(Evaluator.opponent(us));
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            int key;
+            if (Move.sameSquares(move, ttMove)) {
+                key = Integer.MAX_VALUE;
+            } else {
+                key = history[Move.piece(move) * 64 + Move.to(move)];
+                if ((theirAttacks & Bitboards.bit(Move.to(move))) != 0) {
+                    key += 1 << 24;
+                }
+            }
+            keys[i] = key;
+        }
+    }
+
+    private void updateHistory(int move, int depth) {
+        int i = Move.piece(move) * 64 + Move.to(move);
+        history[i] += depth * depth;
+        if (history[i] > 1 << 20) {
+            // Keep history below the forcing-move bonus used in scoreMoves
+            for (int j = 0; j < history.length; j++) {
+                history[j] >>= 1;
+            }
+        }
+    }
+
+    private static void pickNext(MoveList moves, int[] keys, int start) {
+        int best = start;
+        for (int i = start + 1; i < moves.size(); i++) {
+            if (keys[i] > keys[best]) best = i;
+        }
+        if (best != start) {
+            moves.swap(start, best);
+            int tmp = keys[start];
+            keys[start] = keys[best];
+            keys[best] = tmp;
+        }
+    }
+
+    private static void sortRootMoves(MoveList moves, int[] scores) {
+        // Stable insertion sort, best score first; the root list is short
+        for (int i = 1; i < moves.size(); i++) {
+            int move = moves.get(i);
+            int score = scores[i];
+            int j = i - 1;
+            while (j >= 0 && scores[j] < score) {
+                moves.set(j + 1, moves.get(j));
+                scores[j + 1] = scores[j];
+                j--;
+            }
+            moves.set(j + 1, move);
+            scores[j + 1] = score;
+        }
+    }
+
+    private int[] principalVariation(int bestMove) {
+        int[] line = new int[MAX_PLY];
+        int length = 0;
+        int move = bestMove;
+        while (move != Move.NONE && length < MAX_PLY) {
+            MoveList legal = moveLists[MAX_PLY];
+            legal.clear();
+            board.generateLegalMoves(board.getSideToMove(), legal);
+            int found = legal.find(Move.from(move), Move.to(move));
+            if (found == Move.NONE) break;
+            line[length++] = found;
+            board.makeMove(found);
+            long entry = table.probe(board.getHash());
+            move = entry == TranspositionTable.MISS ? Move.NONE : TranspositionTable.move(entry);
+            // Stop at repeated positions so a cycle in the table cannot loop
+            for (int i = board.getHistorySize() - length; i < board.getHistorySize(); i++) {
+                if (board.getHistoryHash(i) == board.getHash()) move = Move.NONE;
+            }
+        }
+        for (int i = 0; i < length; i++) {
+            board.unmakeMove();
+        }
+        return Arrays.copyOf(line, length);
+    }
+
+    private void checkLimits() {
+        if (nodes >= nodeLimit || System.currentTimeMillis() >= deadline) {
+            stopped = true;
+        }
+    }
+
+    private static int tablebaseScore(int value, int ply) {
+        if (value == Tablebase.DRAW) return 0;
+        int score = WIN - ply - Tablebase.distance(value);
+        return Tablebase.isWin(value) ? score : -score;
+    }
+
+    // Win scores are stored relative to the node so they stay valid at any ply
+    private static int toTable(int score, int ply) {
+        if (score >= WIN_THRESHOLD) return score + ply;
+        if (score <= -WIN_THRESHOLD) return score - ply;
+        return score;
+    }
+
+    private static int fromTable(int score, int ply) {
+        if (score >= WIN_THRESHOLD) return score - ply;
+        if (score <= -WIN_THRESHOLD) return score + ply;
+        return score;
+    }
+}
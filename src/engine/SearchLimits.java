@@ -0,0 +1,50 @@
+// src/engine/SearchLimits.java
+package engine;
+
+/**
+ * Budget for one search: a depth cap, a wall-clock budget and a node
+ * budget. The search stops at whichever limit is reached first; a value of
+ * 0 means "no limit" for time and nodes.
+ */
+public class SearchLimits {
+    public static final int MAX_DEPTH = 64;
+
+    private final int maxDepth;
+    private final long moveTimeMillis;
+    private final long maxNodes;
+
+    public SearchLimits(int maxDepth, long moveTimeMillis, long maxNodes) {
+        this.maxDepth = Math.max(1, Math.min(maxDepth, MAX_DEPTH));
+        this.moveTimeMillis = moveTimeMillis;
+        this.maxNodes = maxNodes;
+    }
+
+    public static SearchLimits depth(int depth) {
+        return new SearchLimits(depth, 0, 0);
+    }
+
+    public static SearchLimits moveTime(long millis) {
+        return new SearchLimits(MAX_DEPTH, millis, 0);
+    }
+
+    public static SearchLimits nodes(long nodes) {
+        return new SearchLimits(MAX_DEPTH, 0, nodes);
+    }
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    public long getMoveTimeMillis() {
+        return moveTimeMillis;
+    }
+
+    public long getMaxNodes() {
+        return maxNodes;
+    }
+
+    @Override
+    public String toString() {
+        return "depth " + maxDepth + ", movetime " + moveTimeMillis + " ms, nodes " + maxNodes;
+    }
+}
@@ -0,0 +1,208 @@
+// src/engine/SearchMoveSource.java
+package engine;
+
+import book.OpeningBook;
+import model.Board;
+import model.Move;
+import model.MoveSource;
+import model.Player;
+import tablebase.Tablebase;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Moves chosen by a (possibly parallel) alpha-beta search. The
+ * transposition table is kept between moves, so later searches benefit
+ * from earlier ones. Positions found in an {@link OpeningBook} are played
+ * from the book without searching.
+ *
+ * With pondering on, the source keeps thinking while the opponent does:
+ * after each move it searches the position after the reply its principal
+ * variation expects, on a background thread. If the opponent plays that
+ * reply (a ponder hit), the search just continues until the move's budget
+ * is used up, counting the time already spent, and often answers at once.
+ * Otherwise it is stopped, and the new search still starts from the table
+ * the ponder search filled.
+ */
+public class SearchMoveSource implements MoveSource {
+    private final SearchLimits limits;
+    private final ParallelSearch search;
+    private volatile OpeningBook book;
+    private volatile boolean verbose = true;
+    private volatile SearchResult lastResult;
+
+    private volatile boolean pondering;
+    // Ponder search state, used from the thread that calls nextMove
+    private ExecutorService ponderThread;
+    private Future<SearchResult> ponderTask;
+    private long ponderHash;
+    private long ponderStart;
+
+    /**
+     * @param limits Budget per move
+     * @param table Transposition table, kept across moves
+     * @param evaluator Evaluation function
+     * @param threads Number of search threads (Lazy SMP when more than one)
+     */
+    public SearchMoveSource(SearchLimits limits, TranspositionTable table, Evaluator evaluator, int threads) {
+        this.limits = limits;
+        this.search = new ParallelSearch(table, evaluator, threads);
+    }
+
+    /**
+     * Print the chosen move and search statistics after every move.
+     * @param verbose true to print, false to stay silent
+     */
+    public void setVerbose(boolean verbose) {
+        this.verbose = verbose;
+    }
+
+    /**
+     * Score endgames from a tablebase instead of searching them.
+     * @param tablebase Tablebase, or null for none
+     */
+    public void setTablebase(Tablebase tablebase) {
+        search.setTablebase(tablebase);
+    }
+
+    /**
+     * Play book moves instead of searching while the game is in the book.
+     * @param book Opening book, or null for none
+     */
+    public void setBook(OpeningBook book) {
+        this.book = book;
+    }
+
+    /**
+     * Search on during the opponent's turn (see the class comment). Call it
+     * between moves; turning it off stops a running ponder search.
+     * @param pondering true to ponder, false not to
+     */
+    public void setPondering(boolean pondering) {
+        this.pondering = pondering;
+        if (!pondering) finishPonder(null);
+    }
+
+    public SearchLimits getLimits() {
+        return limits;
+    }
+
+    /**
+     * Result of the most recent search.
+     * @return Search result, or null before the first move
+     */
+    public SearchResult getLastResult() {
+        return lastResult;
+    }
+
+    /**
+     * Search the position and return the best move.
+     * @param board Current game board (left unchanged)
+     * @param player Player to move
+     * @return The chosen move, or QUIT if there is no legal move
+     */
+    @Override
+    public int nextMove(Board board, Player player) {
+        SearchResult pondered = finishPonder(board);
+        OpeningBook book = this.book;
+        if (book != null && board.getHistorySize() < book.getPlies()) {
+            int move = book.lookup(board);
+            if (move != Move.NONE) {
+                if (verbose) {
+                    System.out.println(player.getName() + " (" + player.getColor().toString().toLowerCase() + ") plays "
+                        + Move.toString(move) + " [book]");
+                }
+                return MoveSource.encode(Move.from(move), Move.to(move));
+            }
+        }
+
+        SearchResult result = pondered != null ? pondered : search.search(board, limits);
+        lastResult = result;
+        int move = result.getBestMove();
+        if (move == Move.NONE) {
+            return QUIT;
+        }
+        if (verbose) {
+            System.out.println(player.getName() + " (" + player.getColor().toString().toLowerCase() + ") plays "
+                + Move.toString(move) + " [" + result + "]" + (pondered != null ? " [ponder hit]" : ""));
+        }
+        if (pondering) startPonder(board, move, result.getPrincipalVariation());
+        return MoveSource.encode(Move.from(move), Move.to(move));
+    }
+
+    // Searches the position after our move and the expected reply in the background
+    private void startPonder(Board board, int move, int[] pv) {
+        if (pv.length < 2) return;
+        Board position = new Board(board);
+        position.makeMove(move);
+        int reply = position.getLegalMoves().find(Move.from(pv[1]), Move.to(pv[1]));
+        if (reply == Move.NONE) return;
+        position.makeMove(reply);
+        if (position.isGameOver()) return;
+
+        if (ponderThread == null) {
+            ponderThread = Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "ponder");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        // No clock while pondering: it runs until the opponent moves
+        SearchLimits ponderLimits = new SearchLimits(limits.getMaxDepth(), 0, limits.getMaxNodes());
+        ponderHash = position.getHash();
+        ponderStart = System.currentTimeMillis();
+        search.resetStop();
+        ponderTask = ponderThread.submit(() -> search.run(position, ponderLimits));
+    }
+
+    /*
+     * Ends the ponder search, if one is running. On a ponder hit it gets
+     * what is left of the move time first, and its result is returned.
+     * Returns null on a miss, or with no board (pondering turned off).
+     */
+    private SearchResult finishPonder(Board board) {
+        Future<SearchResult> task = ponderTask;
+        if (task == null) return null;
+        ponderTask = null;
+        boolean hit = board != null && board.getHash() == ponderHash;
+        try {
+            if (hit && limits.getMoveTimeMillis() > 0) {
+                long remaining = limits.getMoveTimeMillis() - (System.currentTimeMillis() - ponderStart);
+                if (remaining > 0) {
+                    try {
+                        task.get(remaining, TimeUnit.MILLISECONDS);
+                    } catch (TimeoutException e) {
+                        // Out of time: stop below and take the best move so far
+                    }
+                }
+            }
+            // A hit without a clock is bounded by depth or nodes, so it is left to finish
+            if (!hit || limits.getMoveTimeMillis() > 0) search.stop();
+            SearchResult result = task.get();
+            return hit ? result : null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            search.stop();
+            return null;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Ponder search failed.", e.getCause());
+        }
+    }
+
+    /**
+     * Stop pondering and release the ponder thread and the helper threads
+     * of a multi-threaded search.
+     */
+    public void shutdown() {
+        finishPonder(null);
+        if (ponderThread != null) {
+            ponderThread.shutdownNow();
+        }
+        search.shutdown();
+    }
+}
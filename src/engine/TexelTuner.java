@@ -0,0 +1,473 @@
+// src/engine/TexelTuner.java
+package engine;
+
+import archive.GameRecord;
+import archive.GameRecordReader;
+import model.Board;
+import model.GameResult;
+import model.Move;
+import model.MoveSource;
+import model.Piece;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Texel tuning of the {@link Evaluator} weights from recorded games.
+ *
+ * Every quiet position of a game (one where the side to move has no
+ * capture, which is where the search calls the evaluator) is a sample:
+ * its features and the game's result for the side to move. The loss is
+ * the mean squared difference between that result and
+ * {@code 1 / (1 + exp(-K * evaluation))}. K is fitted to the current
+ * weights first; then each weight in turn is moved up and down while that
+ * lowers the loss, with the step halved from {@value #INITIAL_STEP} to 1.
+ *
+ * The archives are read once, as a stream: the reading thread hands
+ * batches of games to one worker per core, which replays them on a
+ * {@link Board} and counts the samples by feature vector and result. The
+ * evaluation is linear in a few small integer features, so these counts
+ * hold everything the loss needs, in memory that does not grow with the
+ * number of games, and every loss evaluation is a parallel pass over the
+ * distinct feature vectors rather than over every position.
+ *
+ * Usage: {@code java Main tune <archive>... [--threads n] [--min-ply n]}
+ */
+public class TexelTuner {
+    public static final int DEFAULT_MIN_PLY = 8;
+    private static final int INITIAL_STEP = 16;
+    private static final int BATCH_GAMES = 256;
+    // How often a reader blocked on a full queue checks its workers
+    private static final long HAND_WAIT_MILLIS = 100;
+    // Features are packed into a long key, 16 bits each
+    private static final int FEATURE_BITS = 16;
+    private static final int FEATURE_OFFSET = 1 << (FEATURE_BITS - 1);
+    // Result slots, from the side to move's point of view
+    private static final int LOSS = 0;
+    private static final int DRAW = 1;
+    private static final int WIN = 2;
+
+    /**
+     * Sample counts per distinct feature vector, in an open-addressing
+     * table (key 0 marks an empty slot; packed keys are never 0).
+     */
+    static final class Samples {
+        private long[] keys = new long[1 << 12];
+        // LOSS, DRAW and WIN counts for each slot
+        private long[] counts = new long[3 << 12];
+        private int size;
+        private long total;
+
+        void add(long key, int result, long count) {
+            int mask = keys.length - 1;
+            int slot = (int) (key * 0x9E3779B97F4A7C15L >>> 40) & mask;
+            while (keys[slot] != 0 && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            if (keys[slot] == 0) {
+                keys[slot] = key;
+                size++;
+            }
+            counts[3 * slot + result] += count;
+            total += count;
+            if (size * 2 > keys.length) grow();
+        }
+
+        void addAll(Samples other) {
+            for (int i = 0; i < other.keys.length; i++) {
+                if (other.keys[i] == 0) continue;
+                for (int r = LOSS; r <= WIN; r++) {
+                    if (other.counts[3 * i + r] > 0) add(other.keys[i], r, other.counts[3 * i + r]);
+                }
+            }
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            long[] oldCounts = counts;
+            keys = new long[oldKeys.length * 2];
+            counts = new long[oldCounts.length * 2];
+            size = 0;
+            total = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] == 0) continue;
+                for (int r = LOSS; r <= WIN; r++) {
+                    if (oldCounts[3 * i + r] > 0) add(oldKeys[i], r, oldCounts[3 * i + r]);
+                }
+            }
+        }
+
+        /**
+         * Number of distinct feature vectors.
+         * @return Entries
+         */
+        int size() {
+            return size;
+        }
+
+        /**
+         * Number of positions counted.
+         * @return Samples
+         */
+        long total() {
+            return total;
+        }
+    }
+
+    /**
+     * The samples flattened into arrays for the loss passes.
+     */
+    private static final class Dataset {
+        final int[] features;
+        final long[] counts;
+        final int size;
+        final long total;
+
+        Dataset(Samples samples) {
+            size = samples.size();
+            total = samples.total();
+            features = new int[size * Evaluator.FEATURE_COUNT];
+            counts = new long[size * 3];
+            int n = 0;
+            for (int i = 0; i < samples.keys.length; i++) {
+                long key = samples.keys[i];
+                if (key == 0) continue;
+                for (int f = 0; f < Evaluator.FEATURE_COUNT; f++) {
+                    features[n * Evaluator.FEATURE_COUNT + f] = (int) (key >>> (f * FEATURE_BITS) & 0xFFFF) - FEATURE_OFFSET;
+                }
+                System.arraycopy(samples.counts, 3 * i, counts, 3 * n, 3);
+                n++;
+            }
+        }
+    }
+
+    private final int threads;
+    private final int minPly;
+    private long games;
+    private long skippedGames;
+
+    /**
+     * @param threads Number of workers for reading and for the loss passes
+     * @param minPly Positions before this ply are left out (opening moves
+     *               say little about the result)
+     */
+    public TexelTuner(int threads, int minPly) {
+        if (Evaluator.FEATURE_COUNT * FEATURE_BITS > 64) {
+            throw new IllegalStateException("Too many evaluation features to pack into a key.");
+        }
+        this.threads = Math.max(1, threads);
+        this.minPly = Math.max(0, minPly);
+    }
+
+    public long getGames() {
+        return games;
+    }
+
+    /**
+     * Games left out because their result does not come from the board
+     * (a player quit or made an illegal move) or a recorded move is not
+     * legal.
+     * @return Skipped games
+     */
+    public long getSkippedGames() {
+        return skippedGames;
+    }
+
+    /**
+     * Read the samples of some archives in one streaming pass.
+     * @param archives Game archives
+     * @return Sample counts
+     * @throws IOException If an archive cannot be read
+     */
+    Samples collect(List<Path> archives) throws IOException {
+        BlockingQueue<List<GameRecord>> queue = new ArrayBlockingQueue<>(threads * 4);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Samples>> workers = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                workers.add(pool.submit(() -> replayGames(queue)));
+            }
+            List<GameRecord> batch = new ArrayList<>(BATCH_GAMES);
+            for (Path archive : archives) {
+                try (GameRecordReader reader = GameRecordReader.open(archive)) {
+                    for (GameRecord record : reader) {
+                        batch.add(record);
+                        if (batch.size() == BATCH_GAMES) {
+                            hand(queue, batch, workers);
+                            batch = new ArrayList<>(BATCH_GAMES);
+                        }
+                    }
+                } catch (UncheckedIOException e) {
+                    throw e.getCause();
+                }
+            }
+            if (!batch.isEmpty()) hand(queue, batch, workers);
+            // An empty batch tells a worker to finish; on an error, shutdownNow below interrupts them instead
+            for (int i = 0; i < threads; i++) {
+                hand(queue, new ArrayList<>(), workers);
+            }
+
+            Samples samples = new Samples();
+            for (Future<Samples> worker : workers) {
+                samples.addAll(worker.get());
+            }
+            return samples;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Tuning interrupted.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Tuning worker failed.", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Put a batch on the queue, waiting while it is full. A worker that
+     * stops early has failed and will not drain the queue any more, so
+     * its exception is thrown instead of waiting forever.
+     */
+    private static void hand(BlockingQueue<List<GameRecord>> queue, List<GameRecord> batch, List<Future<Samples>> workers)
+            throws InterruptedException, ExecutionException {
+        while (!queue.offer(batch, HAND_WAIT_MILLIS, TimeUnit.MILLISECONDS)) {
+            for (Future<Samples> worker : workers) {
+                if (worker.isDone()) worker.get();
+            }
+        }
+    }
+
+    private Samples replayGames(BlockingQueue<List<GameRecord>> queue) throws InterruptedException {
+        Samples samples = new Samples();
+        Board board = new Board();
+        int[] features = new int[Evaluator.FEATURE_COUNT];
+        long[] keys = new long[256];
+        int[] outcomes = new int[256];
+        long played = 0;
+        long skipped = 0;
+        while (true) {
+            List<GameRecord> batch = queue.take();
+            if (batch.isEmpty()) break;
+            for (GameRecord record : batch) {
+                if (record.getPlyCount() > keys.length) {
+                    keys = new long[record.getPlyCount()];
+                    outcomes = new int[record.getPlyCount()];
+                }
+                int count = replay(record, board, features, keys, outcomes);
+                if (count < 0) {
+                    skipped++;
+                    continue;
+                }
+                // Only games that replay to the end are counted
+                for (int i = 0; i < count; i++) {
+                    samples.add(keys[i], outcomes[i], 1);
+                }
+                played++;
+            }
+        }
+        synchronized (this) {
+            games += played;
+            skippedGames += skipped;
+        }
+        return samples;
+    }
+
+    // Collects the quiet positions of one game; returns their number, or -1 if the game is not usable
+    private int replay(GameRecord record, Board board, int[] features, long[] keys, int[] outcomes) {
+        GameResult result = record.getResult();
+        if (result.getTermination() == GameResult.Termination.QUIT
+            || result.getTermination() == GameResult.Termination.ILLEGAL_MOVE) {
+            return -1;
+        }
+        int count = 0;
+        board.initializeBoard();
+        for (int ply = 0; ply < record.getPlyCount(); ply++) {
+            Piece.Color us = board.getSideToMove();
+            if (ply >= minPly && !board.isCapturePossible(us)) {
+                Evaluator.features(board, features);
+                keys[count] = pack(features);
+                outcomes[count++] = result.isDraw() ? DRAW : result.getWinner() == us ? WIN : LOSS;
+            }
+            int squares = record.getMove(ply);
+            int move = board.getLegalMoves().find(MoveSource.from(squares), MoveSource.to(squares));
+            if (move == Move.NONE) return -1;
+            board.makeMove(move);
+        }
+        return count;
+    }
+
+    private static long pack(int[] features) {
+        long key = 0;
+        for (int f = 0; f < Evaluator.FEATURE_COUNT; f++) {
+            int value = Math.max(-FEATURE_OFFSET, Math.min(FEATURE_OFFSET - 1, features[f]));
+            key |= (long) (value + FEATURE_OFFSET) << (f * FEATURE_BITS);
+        }
+        return key;
+    }
+
+    /**
+     * Mean squared error of the predicted results, computed in parallel.
+     */
+    private static double loss(Dataset data, int[] weights, double k, ExecutorService pool, int chunks) {
+        int chunk = (data.size + chunks - 1) / chunks;
+        List<Future<Double>> parts = new ArrayList<>();
+        for (int start = 0; start < data.size; start += chunk) {
+            int from = start;
+            int to = Math.min(data.size, start + chunk);
+            parts.add(pool.submit(() -> squaredError(data, weights, k, from, to)));
+        }
+        double sum = 0;
+        try {
+            for (Future<Double> part : parts) {
+                sum += part.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Tuning interrupted.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Tuning worker failed.", e.getCause());
+        }
+        return sum / Math.max(1, data.total);
+    }
+
+    private static double squaredError(Dataset data, int[] weights, double k, int from, int to) {
+        double sum = 0;
+        for (int i = from; i < to; i++) {
+            long score = 0;
+            for (int f = 0; f < Evaluator.FEATURE_COUNT; f++) {
+                score += (long) weights[f] * data.features[i * Evaluator.FEATURE_COUNT + f];
+            }
+            double predicted = 1 / (1 + Math.exp(-k * score));
+            double draw = 0.5 - predicted;
+            double win = 1 - predicted;
+            sum += data.counts[3 * i + LOSS] * predicted * predicted
+                + data.counts[3 * i + DRAW] * draw * draw
+                + data.counts[3 * i + WIN] * win * win;
+        }
+        return sum;
+    }
+
+    /**
+     * The scaling constant K that fits some weights best, found by a
+     * golden-section search over log K.
+     */
+    private static double fitK(Dataset data, int[] weights, ExecutorService pool, int chunks) {
+        double lo = Math.log(1e-6);
+        double hi = Math.log(1.0);
+        double ratio = (Math.sqrt(5) - 1) / 2;
+        double a = hi - ratio * (hi - lo);
+        double b = lo + ratio * (hi - lo);
+        double lossA = loss(data, weights, Math.exp(a), pool, chunks);
+        double lossB = loss(data, weights, Math.exp(b), pool, chunks);
+        for (int i = 0; i < 60; i++) {
+            if (lossA < lossB) {
+                hi = b;
+                b = a;
+                lossB = lossA;
+                a = hi - ratio * (hi - lo);
+                lossA = loss(data, weights, Math.exp(a), pool, chunks);
+            } else {
+                lo = a;
+                a = b;
+                lossA = lossB;
+                b = lo + ratio * (hi - lo);
+                lossB = loss(data, weights, Math.exp(b), pool, chunks);
+            }
+        }
+        return Math.exp((lo + hi) / 2);
+    }
+
+    /**
+     * Tune the evaluation weights on some archives.
+     * @param archives Game archives
+     * @param start Weights to start from
+     * @return Tuned weights
+     * @throws IOException If an archive cannot be read
+     */
+    public int[] tune(List<Path> archives, int[] start) throws IOException {
+        long begin = System.currentTimeMillis();
+        Samples samples = collect(archives);
+        Dataset data = new Dataset(samples);
+        long read = System.currentTimeMillis() - begin;
+        System.out.println("Games: " + games + " (" + skippedGames + " skipped)  Positions: " + data.total
+            + "  Distinct feature vectors: " + data.size + "  Read time: " + read + " ms  Positions/sec: "
+            + data.total * 1000 / Math.max(1, read));
+        if (data.total == 0) {
+            return start.clone();
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            int chunks = threads * 4;
+            int[] weights = start.clone();
+            double k = fitK(data, weights, pool, chunks);
+            double best = loss(data, weights, k, pool, chunks);
+            System.out.println(String.format("K: %.6f  Loss: %.6f  Weights: %s", k, best, Arrays.toString(weights)));
+            for (int step = INITIAL_STEP; step >= 1; step /= 2) {
+                boolean improved = true;
+                while (improved) {
+                    improved = false;
+                    for (int f = 0; f < weights.length; f++) {
+                        for (int direction : new int[] {1, -1}) {
+                            weights[f] += direction * step;
+                            double candidate = loss(data, weights, k, pool, chunks);
+                            if (candidate < best) {
+                                best = candidate;
+                                improved = true;
+                                break;
+                            }
+                            weights[f] -= direction * step;
+                        }
+                    }
+                }
+                System.out.println(String.format("Step %d  Loss: %.6f  Weights: %s", step, best, Arrays.toString(weights)));
+            }
+            System.out.println("Time: " + (System.currentTimeMillis() - begin) + " ms");
+            return weights;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    public static void main(String[] args) {
+        int threads = Runtime.getRuntime().availableProcessors();
+        int minPly = DEFAULT_MIN_PLY;
+        List<Path> archives = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--threads") && i + 1 < args.length) {
+                threads = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("--min-ply") && i + 1 < args.length) {
+                minPly = Integer.parseInt(args[++i]);
+            } else if (args[i].startsWith("--")) {
+                archives.clear();
+                break;
+            } else {
+                archives.add(Path.of(args[i]));
+            }
+        }
+        if (archives.isEmpty()) {
+            System.out.println("Usage: java Main tune <archive>... [--threads n] [--min-ply n]");
+            return;
+        }
+
+        try {
+            int[] weights = new TexelTuner(threads, minPly).tune(archives, Evaluator.DEFAULT_WEIGHTS);
+            System.out.println("Tuned weights (material, mobility, captures): " + Arrays.toString(weights));
+            System.out.println("Play with them: --weights "
+                + Arrays.stream(weights).mapToObj(String::valueOf).collect(Collectors.joining(",")));
+        } catch (IOException e) {
+            System.out.println("Cannot read game archive: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,40 @@
+// src/engine/Threads.java
+package engine;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Executor helpers shared by the tools that run many independent tasks.
+ */
+public final class Threads {
+    private Threads() {
+    }
+
+    /**
+     * An executor that starts one virtual thread per task when the JVM
+     * supports them (Java 21+), and otherwise falls back to a pool with one
+     * platform thread per core.
+     * @return New executor; the caller shuts it down
+     */
+    public static ExecutorService newPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        }
+    }
+
+    /**
+     * Check whether {@link #newPerTaskExecutor} uses virtual threads.
+     * @return true on Java 21 and later
+     */
+    public static boolean hasVirtualThreads() {
+        try {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,293 @@
+// src/engine/Tournament.java
+package engine;
+
+import archive.GameRecordWriter;
+import book.OpeningBook;
+import model.Game;
+import model.GameResult;
+import model.Piece;
+import model.Player;
+import tablebase.Tablebase;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Headless self-play between two kinds of player.
+ *
+ * Every game runs on its own (virtual, when available) thread through
+ * {@link Game#play}, without console output. The two sides swap colors
+ * from game to game.
+ *
+ * Usage: {@code java Main tournament [--games n] [--a spec] [--b spec] [--max-plies n] [--halfmove-limit n] [--hash MB]
+ * [--record file] [--tablebase file] [--book file]}, where a player spec is {@code random}, {@code depth:N}, {@code movetime:MS}, {@code nodes:N} or {@code mcts:MS}.
+ */
+public class Tournament {
+    /**
+     * Creates a fresh player for one game.
+     */
+    public interface PlayerFactory {
+        Player create(Piece.Color color, long seed);
+    }
+
+    /**
+     * Aggregate results of a tournament, from player A's point of view.
+     */
+    public static class Standings {
+        private final long winsA;
+        private final long winsB;
+        private final long draws;
+        private final long plies;
+        private final long elapsedMillis;
+
+        Standings(long winsA, long winsB, long draws, long plies, long elapsedMillis) {
+            this.winsA = winsA;
+            this.winsB = winsB;
+            this.draws = draws;
+            this.plies = plies;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public long getWinsA() {
+            return winsA;
+        }
+
+        public long getWinsB() {
+            return winsB;
+        }
+
+        public long getDraws() {
+            return draws;
+        }
+
+        public long getGames() {
+            return winsA + winsB + draws;
+        }
+
+        public double getGamesPerSecond() {
+            return getGames() * 1000.0 / Math.max(1, elapsedMillis);
+        }
+
+        public double getAveragePlies() {
+            return getGames() == 0 ? 0 : (double) plies / getGames();
+        }
+
+        /**
+         * Player A's score: 1 per win and 0.5 per draw, divided by the games played.
+         * @return Score between 0 and 1
+         */
+        public double getScoreA() {
+            return getGames() == 0 ? 0 : (winsA + draws / 2.0) / getGames();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Games: %d  A wins: %d  B wins: %d  Draws: %d  A score: %.3f%n"
+                    + "Time: %d ms  Games/sec: %.1f  Avg plies/game: %.1f",
+                getGames(), winsA, winsB, draws, getScoreA(), elapsedMillis, getGamesPerSecond(), getAveragePlies());
+        }
+    }
+
+    private final PlayerFactory playerA;
+    private final PlayerFactory playerB;
+    private GameRecordWriter recorder;
+    private int halfmoveLimit = Game.DEFAULT_HALFMOVE_LIMIT;
+
+    public Tournament(PlayerFactory playerA, PlayerFactory playerB) {
+        this.playerA = playerA;
+        this.playerB = playerB;
+    }
+
+    /**
+     * Store every game of the tournament in an archive.
+     * @param recorder Archive writer, or null to keep no records
+     */
+    public void setRecorder(GameRecordWriter recorder) {
+        this.recorder = recorder;
+    }
+
+    /**
+     * Draw games after this many plies without a capture or pawn move.
+     * @param plies Ply limit (0 for none)
+     */
+    public void setHalfmoveLimit(int plies) {
+        this.halfmoveLimit = plies;
+    }
+
+    /**
+     * Play a number of games concurrently.
+     * @param games Number of games
+     * @param maxPlies Ply limit after which a game is a draw (0 for none)
+     * @return Aggregate results
+     */
+    public Standings run(int games, int maxPlies) {
+        LongAdder winsA = new LongAdder();
+        LongAdder winsB = new LongAdder();
+        LongAdder draws = new LongAdder();
+        AtomicLong plies = new AtomicLong();
+        long start = System.currentTimeMillis();
+
+        ExecutorService executor = Threads.newPerTaskExecutor();
+        try {
+            List<Future<?>> running = new ArrayList<>(games);
+            for (int i = 0; i < games; i++) {
+                final int gameIndex = i;
+                running.add(executor.submit(() -> {
+                    boolean aIsWhite = gameIndex % 2 == 0;
+                    long seed = gameIndex * 0x9E3779B97F4A7C15L;
+                    Player white = (aIsWhite ? playerA : playerB).create(Piece.Color.WHITE, seed);
+                    Player black = (aIsWhite ? playerB : playerA).create(Piece.Color.BLACK, seed + 1);
+                    Game game = new Game(white, black);
+                    game.setHalfmoveLimit(halfmoveLimit);
+                    if (recorder != null) game.setObserver(recorder.newGameBuffer());
+                    GameResult result = game.play(maxPlies);
+                    plies.addAndGet(result.getPlies());
+                    if (result.isDraw()) {
+                        draws.increment();
+                    } else if ((result.getWinner() == Piece.Color.WHITE) == aIsWhite) {
+                        winsA.increment();
+                    } else {
+                        winsB.increment();
+                    }
+                    release(white);
+                    release(black);
+                }));
+            }
+            for (Future<?> game : running) {
+                game.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Tournament interrupted.", e);
+        } catch (Exception e) {
+            throw new IllegalStateException("Tournament game failed.", e);
+        } finally {
+            executor.shutdown();
+        }
+
+        return new Standings(winsA.sum(), winsB.sum(), draws.sum(), plies.get(), System.currentTimeMillis() - start);
+    }
+
+    private static void release(Player player) {
+        if (player instanceof ComputerPlayer) {
+            ((ComputerPlayer) player).shutdown();
+        }
+    }
+
+    /**
+     * Build a player factory from a command-line spec.
+     * @param spec "random", "depth:N", "movetime:MS", "nodes:N" or "mcts:MS"
+     * @param hashMb Transposition table size for searching players
+     * @return Factory
+     */
+    public static PlayerFactory parsePlayer(String spec, int hashMb) {
+        return parsePlayer(spec, hashMb, null, null, new Evaluator());
+    }
+
+    /**
+     * Build a player factory from a command-line spec, with searching
+     * players using an opening book and scoring endgames from a tablebase.
+     * @param spec "random", "depth:N", "movetime:MS", "nodes:N" or "mcts:MS"
+     * @param hashMb Transposition table size for searching players
+     * @param tablebase Tablebase shared by all searching players, or null
+     * @param book Opening book shared by all searching players, or null
+     * @param evaluator Evaluation shared by all searching players
+     * @return Factory
+     */
+    public static PlayerFactory parsePlayer(String spec, int hashMb, Tablebase tablebase, OpeningBook book, Evaluator evaluator) {
+        if (spec.equals("random")) {
+            return (color, seed) -> new Player("Random", color, new RandomMoveSource(seed));
+        }
+        String[] parts = spec.split(":");
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Unknown player: " + spec);
+        }
+        long value = Long.parseLong(parts[1]);
+        if (parts[0].equals("mcts")) {
+            return (color, seed) -> {
+                MctsMoveSource source = new MctsMoveSource(SearchLimits.moveTime(value), 1, seed);
+                source.setVerbose(false);
+                return new Player(spec, color, source);
+            };
+        }
+        SearchLimits limits;
+        switch (parts[0]) {
+            case "depth": limits = SearchLimits.depth((int) value); break;
+            case "movetime": limits = SearchLimits.moveTime(value); break;
+            case "nodes": limits = SearchLimits.nodes(value); break;
+            default: throw new IllegalArgumentException("Unknown player: " + spec);
+        }
+        return (color, seed) -> {
+            ComputerPlayer player = new ComputerPlayer(spec, color, limits, new TranspositionTable(hashMb), evaluator, 1);
+            player.setVerbose(false);
+            player.setTablebase(tablebase);
+            player.setBook(book);
+            return player;
+        };
+    }
+
+    public static void main(String[] args) {
+        int games = 1000;
+        int maxPlies = 400;
+        int halfmoveLimit = Game.DEFAULT_HALFMOVE_LIMIT;
+        int hashMb = 1;
+        String specA = "depth:2";
+        String specB = "random";
+        String record = null;
+        String tablebaseFile = null;
+        String bookFile = null;
+        String weightsA = null;
+        String weightsB = null;
+        for (int i = 0; i < args.length; i++) {
+            if (i + 1 >= args.length) {
+                System.out.println("Missing value for " + args[i]);
+                return;
+            }
+            switch (args[i]) {
+                case "--games": games = Integer.parseInt(args[++i]); break;
+                case "--max-plies": maxPlies = Integer.parseInt(args[++i]); break;
+                case "--halfmove-limit": halfmoveLimit = Integer.parseInt(args[++i]); break;
+                case "--hash": hashMb = Integer.parseInt(args[++i]); break;
+                case "--a": specA = args[++i]; break;
+                case "--b": specB = args[++i]; break;
+                case "--record": record = args[++i]; break;
+                case "--tablebase": tablebaseFile = args[++i]; break;
+                case "--book": bookFile = args[++i]; break;
+                case "--weights-a": weightsA = args[++i]; break;
+                case "--weights-b": weightsB = args[++i]; break;
+                default:
+                    System.out.println("Usage: java Main tournament [--games n] [--a spec] [--b spec] [--max-plies n] [--halfmove-limit n] [--hash MB] [--record file] [--tablebase file] [--book file]");
+                    System.out.println("                           [--weights-a w] [--weights-b w]");
+                    return;
+            }
+        }
+        Evaluator evaluatorA;
+        Evaluator evaluatorB;
+        try {
+            evaluatorA = weightsA == null ? new Evaluator() : Evaluator.parse(weightsA);
+            evaluatorB = weightsB == null ? new Evaluator() : Evaluator.parse(weightsB);
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage());
+            return;
+        }
+
+        System.out.println("A: " + specA + "  B: " + specB + "  games: " + games
+            + (Threads.hasVirtualThreads() ? "  (virtual threads)" : "  (platform thread pool)"));
+        try (Tablebase tablebase = tablebaseFile == null ? null : Tablebase.open(Path.of(tablebaseFile));
+             OpeningBook book = bookFile == null ? null : OpeningBook.open(Path.of(bookFile));
+             GameRecordWriter writer = record == null ? null : GameRecordWriter.open(Path.of(record))) {
+            Tournament tournament = new Tournament(parsePlayer(specA, hashMb, tablebase, book, evaluatorA), parsePlayer(specB, hashMb, tablebase, book, evaluatorB));
+            tournament.setHalfmoveLimit(halfmoveLimit);
+            tournament.setRecorder(writer);
+            System.out.println(tournament.run(games, maxPlies));
+        } catch (IOException e) {
+            System.out.println("Cannot open file: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,202 @@
+// src/engine/TranspositionTable.java
+package engine;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size hash table of search results keyed by Zobrist position keys.
+ *
+ * Entries live in two parallel {@code long[]} arrays, so the table is a
+ * couple of primitive allocations no matter how many entries it holds.
+ * Any number of threads may probe and store concurrently without locks:
+ * each slot stores {@code key ^ data} next to {@code data}, and a probe
+ * only accepts a slot whose two words XOR back to the probed key. A slot
+ * torn by a concurrent write therefore reads as a miss, never as a wrong
+ * hit.
+ *
+ * Data words are packed with {@link #pack} (search results) or
+ * {@link #packCount} (perft node counts). The low bits always hold the
+ * depth and the generation, which the replacement policy looks at.
+ */
+public final class TranspositionTable {
+    /**
+     * How a store picks which slot of a two-entry bucket to overwrite when
+     * the key is not already present.
+     */
+    public enum ReplacementPolicy {
+        /** Always overwrite the first slot. */
+        ALWAYS,
+        /** Keep the deeper entry in the first slot; the second slot is always overwritten. */
+        DEPTH_PREFERRED,
+        /** Like DEPTH_PREFERRED, but entries from earlier searches are replaced first. */
+        AGED_DEPTH_PREFERRED
+    }
+
+    /** Value returned by {@link #probe} when the key is not in the table. */
+    public static final long MISS = 0L;
+
+    public static final int BOUND_UPPER = 1;
+    public static final int BOUND_LOWER = 2;
+    public static final int BOUND_EXACT = 3;
+
+    private static final int ENTRY_BYTES = 16;
+    private static final long GENERATION_MASK = 0x3FL << 10;
+
+    private final long[] keys;
+    private final long[] data;
+    private final int mask;
+    private final ReplacementPolicy policy;
+    private volatile int generation;
+
+    /**
+     * Create a table that uses at most the given amount of memory.
+     * @param megabytes Memory budget in MB (at least 1)
+     * @param policy Replacement policy
+     */
+    public TranspositionTable(int megabytes, ReplacementPolicy policy) {
+        if (megabytes < 1) {
+            throw new IllegalArgumentException("Hash size must be at least 1 MB.");
+        }
+        long entries = Long.highestOneBit(((long) megabytes << 20) / ENTRY_BYTES);
+        entries = Math.min(entries, 1L << 30);
+        keys = new long[(int) entries];
+        data = new long[(int) entries];
+        mask = (int) entries - 2; // index of the first slot of a bucket
+        this.policy = policy;
+    }
+
+    public TranspositionTable(int megabytes) {
+        this(megabytes, ReplacementPolicy.AGED_DEPTH_PREFERRED);
+    }
+
+    /**
+     * Look up a position.
+     * @param key Zobrist key
+     * @return The stored data word, or {@link #MISS}
+     */
+    public long probe(long key) {
+        int i = (int) key & mask;
+        long d = data[i];
+        if ((keys[i] ^ d) == key && d != MISS) return d;
+        d = data[i + 1];
+        if ((keys[i + 1] ^ d) == key && d != MISS) return d;
+        return MISS;
+    }
+
+    /**
+     * Store a data word for a position, subject to the replacement policy.
+     * The current generation is written into the word.
+     * @param key Zobrist key
+     * @param value Data word from {@link #pack} or {@link #packCount}
+     */
+    public void store(long key, long value) {
+        value = (value & ~GENERATION_MASK) | ((long) generation << 10);
+        int i = (int) key & mask;
+        int slot;
+        if ((keys[i] ^ data[i]) == key) {
+            slot = i;
+        } else if ((keys[i + 1] ^ data[i + 1]) == key) {
+            slot = i + 1;
+        } else {
+            slot = chooseVictim(i, depth(value));
+        }
+        data[slot] = value;
+        keys[slot] = key ^ value;
+    }
+
+    private int chooseVictim(int i, int newDepth) {
+        switch (policy) {
+            case ALWAYS:
+                return i;
+            case DEPTH_PREFERRED:
+                return newDepth >= depth(data[i]) ? i : i + 1;
+            case AGED_DEPTH_PREFERRED:
+            default:
+                long first = data[i];
+                if (first == MISS || generation(first) != generation || newDepth >= depth(first)) {
+                    return i;
+                }
+                return i + 1;
+        }
+    }
+
+    /**
+     * Start a new search. Entries stored before this call count as stale for
+     * {@link ReplacementPolicy#AGED_DEPTH_PREFERRED}.
+     */
+    public void newSearch() {
+        generation = (generation + 1) & 0x3F;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0L);
+        Arrays.fill(data, 0L);
+    }
+
+    /**
+     * Number of entries the table can hold.
+     * @return Capacity in entries
+     */
+    public int capacity() {
+        return keys.length;
+    }
+
+    /**
+     * Estimate how full the table is from a sample of its first slots.
+     * @return Occupied slots per thousand
+     */
+    public int hashfull() {
+        int sample = Math.min(1000, data.length);
+        int used = 0;
+        for (int i = 0; i < sample; i++) {
+            if (data[i] != MISS) used++;
+        }
+        return used * 1000 / sample;
+    }
+
+    /**
+     * Pack a search result.
+     * @param move Best move, or Move.NONE
+     * @param score Score, within the range of a short
+     * @param depth Remaining depth searched (0-255)
+     * @param bound One of BOUND_UPPER, BOUND_LOWER, BOUND_EXACT
+     * @return Data word
+     */
+    public static long pack(int move, int score, int depth, int bound) {
+        return ((long) move << 32) | (((long) score & 0xFFFF) << 16) | ((long) bound << 8) | depth;
+    }
+
+    /**
+     * Pack a perft node count.
+     * @param count Leaf count, below 2^48
+     * @param depth Depth the count was taken at (0-255)
+     * @return Data word
+     */
+    public static long packCount(long count, int depth) {
+        return (count << 16) | ((long) BOUND_EXACT << 8) | depth;
+    }
+
+    public static int move(long value) {
+        return (int) (value >> 32);
+    }
+
+    public static int score(long value) {
+        return (short) (value >>> 16);
+    }
+
+    public static long count(long value) {
+        return value >>> 16;
+    }
+
+    public static int depth(long value) {
+        return (int) value & 0xFF;
+    }
+
+    public static int bound(long value) {
+        return (int) (value >>> 8) & 0x3;
+    }
+
+    private static int generation(long value) {
+        return (int) (value >>> 10) & 0x3F;
+    }
+}
@@ -0,0 +1,200 @@
+// src/metrics/Metrics.java
+package metrics;
+
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Counters and latency histograms for the rules code, the search and the
+ * game loop, exported over JMX and as a periodic text report.
+ *
+ * Everything is off unless the JVM is started with
+ * {@code -Dantichess.metrics=true}. Instrumented code checks {@link #ENABLED}
+ * first; since it is a static final field, the JIT removes the disabled
+ * branches entirely. {@code -Dantichess.metrics.interval=ms} sets how often
+ * the report is printed (0 for never).
+ */
+public final class Metrics {
+    public static final boolean ENABLED = Boolean.getBoolean("antichess.metrics");
+    public static final long DEFAULT_REPORT_MILLIS = 10_000;
+    static final String OBJECT_NAME = "antichess:type=Metrics";
+
+    /** Piece.getValidMoves calls. */
+    public static final LatencyHistogram MOVE_GENERATION = new LatencyHistogram("movegen");
+    /** Board.isValidMove calls. */
+    public static final LatencyHistogram VALIDATION = new LatencyHistogram("validate");
+    /** Turns of the console game loop, from showing the board to playing the move. */
+    public static final LatencyHistogram TURN = new LatencyHistogram("turn");
+
+    public static final LongAdder CAPTURE_CHECKS = new LongAdder();
+    public static final LongAdder MOVES_MADE = new LongAdder();
+    public static final LongAdder SEARCH_NODES = new LongAdder();
+    public static final LongAdder GAMES_FINISHED = new LongAdder();
+
+    private static final long START_NANOS = System.nanoTime();
+    private static boolean started;
+
+    private Metrics() {
+    }
+
+    /**
+     * Register the JMX bean and start the periodic report, if metrics are
+     * enabled. Later calls do nothing.
+     * @param out Stream for the report
+     * @param reportMillis Time between reports, or 0 for no report
+     */
+    public static synchronized void start(PrintStream out, long reportMillis) {
+        if (!ENABLED || started) return;
+        started = true;
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(new Bean(), new ObjectName(OBJECT_NAME));
+        } catch (JMException e) {
+            out.println("Cannot register metrics with JMX: " + e.getMessage());
+        }
+        if (reportMillis > 0) {
+            Thread reporter = new Thread(() -> report(out, reportMillis), "metrics-reporter");
+            reporter.setDaemon(true);
+            reporter.start();
+        }
+    }
+
+    private static void report(PrintStream out, long reportMillis) {
+        long lastTime = System.nanoTime();
+        long lastNodes = 0;
+        long lastMoves = 0;
+        long lastGames = 0;
+        while (true) {
+            try {
+                Thread.sleep(reportMillis);
+            } catch (InterruptedException e) {
+                return;
+            }
+            long now = System.nanoTime();
+            long nodes = SEARCH_NODES.sum();
+            long moves = MOVES_MADE.sum();
+            long games = GAMES_FINISHED.sum();
+            double seconds = Math.max(1, now - lastTime) / 1e9;
+            out.println(String.format("[metrics] nodes/s %.0f  moves/s %.0f  games/s %.1f  capture checks %d",
+                (nodes - lastNodes) / seconds, (moves - lastMoves) / seconds, (games - lastGames) / seconds,
+                CAPTURE_CHECKS.sum()));
+            for (LatencyHistogram histogram : new LatencyHistogram[] {VALIDATION, MOVE_GENERATION, TURN}) {
+                if (histogram.getCount() > 0) out.println("[metrics] " + histogram);
+            }
+            lastTime = now;
+            lastNodes = nodes;
+            lastMoves = moves;
+            lastGames = games;
+        }
+    }
+
+    /**
+     * Format a latency with a readable unit, e.g. "850ns" or "2.1ms".
+     * @param nanos Latency in nanoseconds
+     * @return Text
+     */
+    public static String formatNanos(long nanos) {
+        if (nanos < 1_000) return nanos + "ns";
+        if (nanos < 1_000_000) return String.format("%.1fus", nanos / 1e3);
+        if (nanos < 1_000_000_000) return String.format("%.1fms", nanos / 1e6);
+        return String.format("%.1fs", nanos / 1e9);
+    }
+
+    private static double perSecond(long count) {
+        return count / (Math.max(1, System.nanoTime() - START_NANOS) / 1e9);
+    }
+
+    private static class Bean implements MetricsMXBean {
+        @Override
+        public long getMoveGenerations() {
+            return MOVE_GENERATION.getCount();
+        }
+
+        @Override
+        public long getCaptureChecks() {
+            return CAPTURE_CHECKS.sum();
+        }
+
+        @Override
+        public long getMoveValidations() {
+            return VALIDATION.getCount();
+        }
+
+        @Override
+        public long getMovesMade() {
+            return MOVES_MADE.sum();
+        }
+
+        @Override
+        public long getSearchNodes() {
+            return SEARCH_NODES.sum();
+        }
+
+        @Override
+        public long getTurns() {
+            return TURN.getCount();
+        }
+
+        @Override
+        public long getGamesFinished() {
+            return GAMES_FINISHED.sum();
+        }
+
+        @Override
+        public double getNodesPerSecond() {
+            return perSecond(SEARCH_NODES.sum());
+        }
+
+        @Override
+        public double getGamesPerSecond() {
+            return perSecond(GAMES_FINISHED.sum());
+        }
+
+        @Override
+        public long getMoveGenerationP50() {
+            return MOVE_GENERATION.getPercentile(50);
+        }
+
+        @Override
+        public long getMoveGenerationP99() {
+            return MOVE_GENERATION.getPercentile(99);
+        }
+
+        @Override
+        public long getValidationP50() {
+            return VALIDATION.getPercentile(50);
+        }
+
+        @Override
+        public long getValidationP99() {
+            return VALIDATION.getPercentile(99);
+        }
+
+        @Override
+        public long getValidationP999() {
+            return VALIDATION.getPercentile(99.9);
+        }
+
+        @Override
+        public long getValidationMax() {
+            return VALIDATION.getMax();
+        }
+
+        @Override
+        public long getTurnP50() {
+            return TURN.getPercentile(50);
+        }
+
+        @Override
+        public long getTurnP99() {
+            return TURN.getPercentile(99);
+        }
+
+        @Override
+        public long getTurnMax() {
+            return TURN.getMax();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+// src/metrics/MetricsMXBean.java
+package metrics;
+
+/**
+ * The {@link Metrics} as seen over JMX, e.g. in JConsole under
+ * {@value Metrics#OBJECT_NAME}. Counts are totals since the JVM started;
+ * latencies are in nanoseconds.
+ */
+public interface MetricsMXBean {
+    long getMoveGenerations();
+
+    long getCaptureChecks();
+
+    long getMoveValidations();
+
+    long getMovesMade();
+
+    long getSearchNodes();
+
+    long getTurns();
+
+    long getGamesFinished();
+
+    /** Search nodes per second, averaged since metrics started. */
+    double getNodesPerSecond();
+
+    /** Finished games per second, averaged since metrics started. */
+    double getGamesPerSecond();
+
+    long getMoveGenerationP50();
+
+    long getMoveGenerationP99();
+
+    long getValidationP50();
+
+    long getValidationP99();
+
+    long getValidationP999();
+
+    long getValidationMax();
+
+    long getTurnP50();
+
+    long getTurnP99();
+
+    long getTurnMax();
+}
@@ -0,0 +1,187 @@
+// src/model/Bitboards.java
+package model;
+
+/**
+ * Bitboard helpers and precomputed attack tables.
+ *
+ * Squares are numbered {@code row * 8 + col}, using the same [row, col]
+ * orientation as {@link Board}: row 0 is Black's back rank (rank 8) and
+ * column 0 is the a-file. Bit {@code n} of a bitboard is set when square
+ * {@code n} is part of the set.
+ */
+public final class Bitboards {
+    public static final long FILE_A = 0x0101010101010101L;
+    public static final long FILE_H = FILE_A << 7;
+    public static final long ROW_0 = 0xFFL;
+    public static final long ROW_7 = ROW_0 << 56;
+
+    private static final long[] KNIGHT_ATTACKS = new long[64];
+    private static final long[] KING_ATTACKS = new long[64];
+    private static final long[][] PAWN_ATTACKS = new long[2][64];
+
+    // Ray directions as {rowDelta, colDelta}. The first four point towards
+    // higher square numbers, the last four towards lower ones.
+    private static final int[][] DIRECTIONS = {
+        {0, 1}, {1, 0}, {1, 1}, {1, -1},
+        {0, -1}, {-1, 0}, {-1, -1}, {-1, 1}
+    };
+    private static final long[][] RAYS = new long[8][64];
+
+    static {
+        int[][] knightOffsets = {
+            {-2, -1}, {-2, 1}, {-1, -2}, {-1, 2},
+            {1, -2}, {1, 2}, {2, -1}, {2, 1}
+        };
+        int[][] kingOffsets = {
+            {-1, -1}, {-1, 0}, {-1, 1},
+            {0, -1},           {0, 1},
+            {1, -1},  {1, 0},  {1, 1}
+        };
+
+        for (int sq = 0; sq < 64; sq++) {
+            int row = row(sq);
+            int col = col(sq);
+            KNIGHT_ATTACKS[sq] = offsetMask(row, col, knightOffsets);
+            KING_ATTACKS[sq] = offsetMask(row, col, kingOffsets);
+            PAWN_ATTACKS[Piece.Color.WHITE.ordinal()][sq] = offsetMask(row, col, new int[][]{{-1, -1}, {-1, 1}});
+            PAWN_ATTACKS[Piece.Color.BLACK.ordinal()][sq] = offsetMask(row, col, new int[][]{{1, -1}, {1, 1}});
+
+            for (int d = 0; d < DIRECTIONS.length; d++) {
+                long ray = 0L;
+                int r = row + DIRECTIONS[d][0];
+                int c = col + DIRECTIONS[d][1];
+                while (isWithinBounds(r, c)) {
+                    ray |= bit(square(r, c));
+                    r += DIRECTIONS[d][0];
+                    c += DIRECTIONS[d][1];
+                }
+                RAYS[d][sq] = ray;
+            }
+        }
+    }
+
+    private Bitboards() {
+    }
+
+    public static int square(int row, int col) {
+        return (row << 3) | col;
+    }
+
+    public static int row(int square) {
+        return square >>> 3;
+    }
+
+    public static int col(int square) {
+        return square & 7;
+    }
+
+    public static long bit(int square) {
+        return 1L << square;
+    }
+
+    public static boolean isWithinBounds(int row, int col) {
+        return row >= 0 && row < 8 && col >= 0 && col < 8;
+    }
+
+    public static long knightAttacks(int square) {
+        return KNIGHT_ATTACKS[square];
+    }
+
+    public static long kingAttacks(int square) {
+        return KING_ATTACKS[square];
+    }
+
+    /**
+     * Diagonal capture targets of a pawn of the given color.
+     * @param color Pawn color
+     * @param square Pawn square
+     * @return Bitboard of the squares the pawn attacks
+     */
+    public static long pawnAttacks(Piece.Color color, int square) {
+        return PAWN_ATTACKS[color.ordinal()][square];
+    }
+
+    /**
+     * Capture targets of every pawn in a set at once.
+     * @param color Pawn color
+     * @param pawns Bitboard of pawns
+     * @return Union of the squares attacked by the pawns
+     */
+    public static long pawnAttacksAll(Piece.Color color, long pawns) {
+        if (color == Piece.Color.WHITE) {
+            return ((pawns & ~FILE_A) >>> 9) | ((pawns & ~FILE_H) >>> 7);
+        }
+        return ((pawns & ~FILE_H) << 9) | ((pawns & ~FILE_A) << 7);
+    }
+
+    /**
+     * Squares a pawn of the given color advances to (one step, no captures).
+     * @param color Pawn color
+     * @param pawns Bitboard of pawns
+     * @return Bitboard of the squares directly in front of the pawns
+     */
+    public static long pawnPushesAll(Piece.Color color, long pawns) {
+        return color == Piece.Color.WHITE ? pawns >>> 8 : pawns << 8;
+    }
+
+    public static long rookAttacks(int square, long occupied) {
+        return rayAttacks(0, square, occupied) | rayAttacks(1, square, occupied)
+            | rayAttacks(4, square, occupied) | rayAttacks(5, square, occupied);
+    }
+
+    public static long bishopAttacks(int square, long occupied) {
+        return rayAttacks(2, square, occupied) | rayAttacks(3, square, occupied)
+            | rayAttacks(6, square, occupied) | rayAttacks(7, square, occupied);
+    }
+
+    public static long queenAttacks(int square, long occupied) {
+        return rookAttacks(square, occupied) | bishopAttacks(square, occupied);
+    }
+
+    /**
+     * Attack set of a piece standing on a square.
+     * @param type Piece type
+     * @param color Piece color (only relevant for pawns)
+     * @param square Square of the piece
+     * @param occupied Bitboard of all occupied squares
+     * @return Bitboard of attacked squares, own pieces included
+     */
+    public static long attacks(Piece.PieceType type, Piece.Color color, int square, long occupied) {
+        switch (type) {
+            case PAWN: return pawnAttacks(color, square);
+            case ROOK: return rookAttacks(square, occupied);
+            case KNIGHT: return knightAttacks(square);
+            case BISHOP: return bishopAttacks(square, occupied);
+            case QUEEN: return queenAttacks(square, occupied);
+            case KING: return kingAttacks(square);
+            default: return 0L;
+        }
+    }
+
+    /**
+     * Sliding attacks along one ray, stopping at (and including) the first blocker.
+     */
+    private static long rayAttacks(int direction, int square, long occupied) {
+        long ray = RAYS[direction][square];
+        long blockers = ray & occupied;
+        if (blockers != 0) {
+            int first = direction < 4
+                ? Long.numberOfTrailingZeros(blockers)
+                : 63 - Long.numberOfLeadingZeros(blockers);
+            ray ^= RAYS[direction][first];
+        }
+        return ray;
+    }
+
+    private static long offsetMask(int row, int col, int[][] offsets) {
+        long mask = 0L;
+        for (int[] offset : offsets) {
+            int r = row + offset[0];
+            int c = col + offset[1];
+            if (isWithinBounds(r, c)) {
+                mask |= bit(square(r, c));
+            }
+        }
+        return mask;
+    }
+}
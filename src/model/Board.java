@@ -1,69 +1,338 @@
 // src/model/Board.java
 package model;
 
+import metrics.Metrics;
+
+import java.util.Arrays;
+
 public class Board {
-    private Piece[][] board;
+    /** Most pieces a side can have without promotion; move lists are sized for this. */
+    public static final int MAX_PIECES_PER_SIDE = 16;
+
+    private static final int EMPTY = -1;
+    private static final Piece.PieceType[] PIECE_TYPES = Piece.PieceType.values();
+    private static final Piece.Color[] COLORS = Piece.Color.values();
+
+    // One bitboard per piece index (see Piece.getIndex()), one per color,
+    // plus a square-indexed mailbox for O(1) "what stands here" lookups.
+    private final long[] pieces = new long[Piece.COUNT];
+    private final long[] occupancy = new long[2];
+    private final byte[] squares = new byte[64];
+    private final int[] pieceCounts = new int[2];
+    // Squares each color attacks (own pieces included), kept up to date on
+    // every change to the position so capture checks are a single mask test.
+    // squareAttacks holds the attacks of the piece on each square, so a move
+    // only recomputes the pieces it moves, captures or unblocks (pawns are
+    // left out of it: all of a side's pawns are one shift away).
+    private final long[] attacks = new long[2];
+    private final long[] squareAttacks = new long[64];
+    private final MoveList legalMoves = new MoveList();
+    private boolean legalMovesValid;
+    private Piece.Color sideToMove = Piece.Color.WHITE;
+    private long hash;
+    // Plies since the last capture or pawn move
+    private int halfmoveClock;
+
+    // Undo stack: one entry per move made and not yet taken back.
+    private int[] historyMoves = new int[64];
+    private Piece.Color[] historySides = new Piece.Color[64];
+    private long[] historyAttacks = new long[128];
+    private long[] historyHashes = new long[64];
+    // Start of each move's entries in the squareAttacks undo log
+    private int[] historyLogSizes = new int[64];
+    private int[] historyClocks = new int[64];
+    // squareAttacks entries overwritten by the moves on the stack: square and old value
+    private int[] logSquares = new int[256];
+    private long[] logValues = new long[256];
+    private int logSize;
+    private int historySize;
 
     public Board() {
-        board = new Piece[8][8];
         initializeBoard();
     }
 
+    /**
+     * Create an independent copy of another board, undo stack included.
+     * @param other Board to copy
+     */
+    public Board(Board other) {
+        copyFrom(other);
+    }
+
+    /**
+     * Replace this board's position and undo stack with another board's.
+     * @param other Board to copy
+     */
+    public void copyFrom(Board other) {
+        System.arraycopy(other.pieces, 0, pieces, 0, pieces.length);
+        System.arraycopy(other.occupancy, 0, occupancy, 0, occupancy.length);
+        System.arraycopy(other.squares, 0, squares, 0, squares.length);
+        System.arraycopy(other.pieceCounts, 0, pieceCounts, 0, pieceCounts.length);
+        System.arraycopy(other.attacks, 0, attacks, 0, attacks.length);
+        System.arraycopy(other.squareAttacks, 0, squareAttacks, 0, squareAttacks.length);
+        sideToMove = other.sideToMove;
+        hash = other.hash;
+        historyMoves = other.historyMoves.clone();
+        historySides = other.historySides.clone();
+        historyAttacks = other.historyAttacks.clone();
+        historyHashes = other.historyHashes.clone();
+        historyLogSizes = other.historyLogSizes.clone();
+        historyClocks = other.historyClocks.clone();
+        historySize = other.historySize;
+        halfmoveClock = other.halfmoveClock;
+        logSquares = other.logSquares.clone();
+        logValues = other.logValues.clone();
+        logSize = other.logSize;
+        legalMovesValid = false;
+    }
+
     /**
      * Initialize the board with pieces in their starting positions.
      */
     public void initializeBoard() {
-        // Initialize Black Pieces
-        board[0][0] = new Piece(Piece.PieceType.ROOK, Piece.Color.BLACK);
-        board[0][1] = new Piece(Piece.PieceType.KNIGHT, Piece.Color.BLACK);
-        board[0][2] = new Piece(Piece.PieceType.BISHOP, Piece.Color.BLACK);
-        board[0][3] = new Piece(Piece.PieceType.QUEEN, Piece.Color.BLACK);
-        board[0][4] = new Piece(Piece.PieceType.KING, Piece.Color.BLACK);
-        board[0][5] = new Piece(Piece.PieceType.BISHOP, Piece.Color.BLACK);
-        board[0][6] = new Piece(Piece.PieceType.KNIGHT, Piece.Color.BLACK);
-        board[0][7] = new Piece(Piece.PieceType.ROOK, Piece.Color.BLACK);
-        for (int i = 0; i < 8; i++) {
-            board[1][i] = new Piece(Piece.PieceType.PAWN, Piece.Color.BLACK);
-        }
-
-        // Initialize White Pieces
-        board[7][0] = new Piece(Piece.PieceType.ROOK, Piece.Color.WHITE);
-        board[7][1] = new Piece(Piece.PieceType.KNIGHT, Piece.Color.WHITE);
-        board[7][2] = new Piece(Piece.PieceType.BISHOP, Piece.Color.WHITE);
-        board[7][3] = new Piece(Piece.PieceType.QUEEN, Piece.Color.WHITE);
-        board[7][4] = new Piece(Piece.PieceType.KING, Piece.Color.WHITE);
-        board[7][5] = new Piece(Piece.PieceType.BISHOP, Piece.Color.WHITE);
-        board[7][6] = new Piece(Piece.PieceType.KNIGHT, Piece.Color.WHITE);
-        board[7][7] = new Piece(Piece.PieceType.ROOK, Piece.Color.WHITE);
+        clear();
+        Piece.PieceType[] backRank = {
+            Piece.PieceType.ROOK, Piece.PieceType.KNIGHT, Piece.PieceType.BISHOP, Piece.PieceType.QUEEN,
+            Piece.PieceType.KING, Piece.PieceType.BISHOP, Piece.PieceType.KNIGHT, Piece.PieceType.ROOK
+        };
+
         for (int i = 0; i < 8; i++) {
-            board[6][i] = new Piece(Piece.PieceType.PAWN, Piece.Color.WHITE);
+            // Initialize Black Pieces
+            addPiece(Bitboards.square(0, i), Piece.of(backRank[i], Piece.Color.BLACK).getIndex());
+            addPiece(Bitboards.square(1, i), Piece.of(Piece.PieceType.PAWN, Piece.Color.BLACK).getIndex());
+
+            // Initialize White Pieces
+            addPiece(Bitboards.square(7, i), Piece.of(backRank[i], Piece.Color.WHITE).getIndex());
+            addPiece(Bitboards.square(6, i), Piece.of(Piece.PieceType.PAWN, Piece.Color.WHITE).getIndex());
         }
+        updateAttacks();
+    }
 
-        // Initialize Empty Squares
-        for (int i = 2; i <= 5; i++) {
-            for (int j = 0; j < 8; j++) {
-                board[i][j] = null;
+    /**
+     * Replace the position with a piece placement, e.g. one read from FEN
+     * or a packed position. The move history is cleared.
+     * @param placement Piece index (see {@link Piece#getIndex()}) for each of
+     *                  the 64 squares, or -1 for an empty square
+     * @param sideToMove Side to move
+     */
+    public void setup(int[] placement, Piece.Color sideToMove) {
+        clear();
+        for (int sq = 0; sq < 64; sq++) {
+            if (placement[sq] != EMPTY) {
+                addPiece(sq, placement[sq]);
             }
         }
+        updateAttacks();
+        setSideToMove(sideToMove);
+    }
+
+    /**
+     * Remove every piece from the board.
+     */
+    public void clear() {
+        Arrays.fill(pieces, 0L);
+        Arrays.fill(occupancy, 0L);
+        Arrays.fill(squares, (byte) EMPTY);
+        Arrays.fill(pieceCounts, 0);
+        Arrays.fill(attacks, 0L);
+        Arrays.fill(squareAttacks, 0L);
+        sideToMove = Piece.Color.WHITE;
+        hash = 0L;
+        halfmoveClock = 0;
+        historySize = 0;
+        logSize = 0;
+        legalMovesValid = false;
+    }
+
+    /**
+     * Get the piece on a square.
+     * @param row Row index
+     * @param col Column index
+     * @return The piece, or null if the square is empty
+     */
+    public Piece getPiece(int row, int col) {
+        int index = squares[Bitboards.square(row, col)];
+        return index == EMPTY ? null : Piece.fromIndex(index);
+    }
+
+    /**
+     * Get the piece on a square as a dense index.
+     * @param square Square number (see {@link Bitboards#square})
+     * @return Piece index (see {@link Piece#getIndex()}), or -1 if the square is empty
+     */
+    public int getPieceIndex(int square) {
+        return squares[square];
+    }
+
+    /**
+     * Place a piece on a square, replacing whatever stood there.
+     * @param row Row index
+     * @param col Column index
+     * @param piece Piece to place
+     */
+    public void putPiece(int row, int col, Piece piece) {
+        int sq = Bitboards.square(row, col);
+        removePiece(sq);
+        addPiece(sq, piece.getIndex());
+        updateAttacks();
+        legalMovesValid = false;
+    }
+
+    /**
+     * Bitboard of one piece type and color.
+     * @param type Piece type
+     * @param color Piece color
+     * @return Bitboard of the squares holding that piece
+     */
+    public long getPieces(Piece.PieceType type, Piece.Color color) {
+        return pieces[Piece.of(type, color).getIndex()];
+    }
+
+    /**
+     * Bitboard of all pieces of one color.
+     * @param color Piece color
+     * @return Bitboard of occupied squares for that color
+     */
+    public long getOccupancy(Piece.Color color) {
+        return occupancy[color.ordinal()];
+    }
+
+    /**
+     * Bitboard of all occupied squares.
+     * @return Bitboard of occupied squares
+     */
+    public long getOccupancy() {
+        return occupancy[0] | occupancy[1];
+    }
+
+    /**
+     * Squares attacked by one side, including squares held by its own pieces.
+     * Pawns attack only their diagonal capture squares.
+     * @param color Piece color
+     * @return Bitboard of attacked squares
+     */
+    public long getAttacks(Piece.Color color) {
+        return attacks[color.ordinal()];
+    }
+
+    /**
+     * Number of pieces one side has left.
+     * @param color Piece color
+     * @return Piece count
+     */
+    public int getPieceCount(Piece.Color color) {
+        return pieceCounts[color.ordinal()];
+    }
+
+    /**
+     * The side whose turn it is. White moves first; after every move the
+     * turn passes to the opponent of the piece that moved.
+     * @return Side to move
+     */
+    public Piece.Color getSideToMove() {
+        return sideToMove;
+    }
+
+    public void setSideToMove(Piece.Color sideToMove) {
+        if (this.sideToMove != sideToMove) {
+            hash ^= Zobrist.SIDE_TO_MOVE;
+            this.sideToMove = sideToMove;
+        }
+        legalMovesValid = false;
+    }
+
+    /**
+     * Zobrist key of the position (pieces and side to move), maintained
+     * incrementally by every change to the board.
+     * @return 64-bit position key
+     */
+    public long getHash() {
+        return hash;
+    }
+
+    /**
+     * Zobrist key the position had before a move on the undo stack was made.
+     * @param i Index from 0 (oldest) to getHistorySize() - 1 (latest)
+     * @return 64-bit position key
+     */
+    public long getHistoryHash(int i) {
+        return historyHashes[i];
+    }
+
+    /**
+     * Number of moves on the undo stack.
+     * @return Moves made and not yet taken back
+     */
+    public int getHistorySize() {
+        return historySize;
+    }
+
+    /**
+     * Plies played since the last capture or pawn move.
+     * @return Halfmove clock
+     */
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
+
+    /**
+     * Set the halfmove clock, e.g. from the FEN of a game in progress.
+     * @param plies Plies since the last capture or pawn move
+     */
+    public void setHalfmoveClock(int plies) {
+        halfmoveClock = Math.max(0, plies);
+    }
+
+    /**
+     * Count how often the current position (pieces and side to move)
+     * occurred earlier in the game. Only the moves since the last capture
+     * or pawn move are looked at, since no position before one can come
+     * back.
+     * @return Earlier occurrences; 2 or more is a threefold repetition
+     */
+    public int getRepetitions() {
+        int count = 0;
+        int oldest = Math.max(0, historySize - halfmoveClock);
+        for (int i = historySize - 2; i >= oldest; i -= 2) {
+            if (historyHashes[i] == hash) count++;
+        }
+        return count;
+    }
+
+    /**
+     * Move on the undo stack.
+     * @param i Index from 0 (oldest) to getHistorySize() - 1 (latest)
+     * @return Packed move
+     */
+    public int getHistoryMove(int i) {
+        return historyMoves[i];
+    }
+
+    private void addPiece(int sq, int index) {
+        long mask = Bitboards.bit(sq);
+        pieces[index] |= mask;
+        occupancy[index / 6] |= mask;
+        squares[sq] = (byte) index;
+        pieceCounts[index / 6]++;
+        hash ^= Zobrist.pieceSquare(index, sq);
+    }
+
+    private void removePiece(int sq) {
+        int index = squares[sq];
+        if (index == EMPTY) return;
+        long mask = ~Bitboards.bit(sq);
+        pieces[index] &= mask;
+        occupancy[index / 6] &= mask;
+        squares[sq] = (byte) EMPTY;
+        pieceCounts[index / 6]--;
+        hash ^= Zobrist.pieceSquare(index, sq);
     }
 
     /**
      * Display the current state of the board in the CLI.
      */
     public void displayBoard() {
-        System.out.println("  a b c d e f g h");
-        for (int i = 0; i < 8; i++) {
-            System.out.print(8 - i + " ");
-            for (int j = 0; j < 8; j++) {
-                if (board[i][j] == null) {
-                    System.out.print(". ");
-                } else {
-                    System.out.print(board[i][j] + " ");
-                }
-            }
-            System.out.println(8 - i);
-        }
-        System.out.println("  a b c d e f g h");
+        new BoardRenderer(System.out, BoardRenderer.Mode.PLAIN).render(this);
     }
 
     /**
@@ -73,7 +342,7 @@ public class Board {
      * @return true if empty, false otherwise
      */
     public boolean isEmpty(int row, int col) {
-        return board[row][col] == null;
+        return squares[Bitboards.square(row, col)] == EMPTY;
     }
 
     /**
@@ -84,8 +353,7 @@ public class Board {
      * @return true if enemy, false otherwise
      */
     public boolean isEnemy(int row, int col, Piece.Color currentPlayerColor) {
-        if (board[row][col] == null) return false;
-        return board[row][col].getColor() != currentPlayerColor;
+        return (occupancy[1 - currentPlayerColor.ordinal()] & Bitboards.bit(Bitboards.square(row, col))) != 0;
     }
 
     /**
@@ -96,12 +364,20 @@ public class Board {
      * @return true if valid, false otherwise
      */
     public boolean isValidMove(int[] start, int[] end, Piece.Color currentPlayerColor) {
+        if (!Metrics.ENABLED) return checkMove(start, end, currentPlayerColor);
+        long begin = System.nanoTime();
+        boolean valid = checkMove(start, end, currentPlayerColor);
+        Metrics.VALIDATION.record(System.nanoTime() - begin);
+        return valid;
+    }
+
+    private boolean checkMove(int[] start, int[] end, Piece.Color currentPlayerColor) {
         int startRow = start[0];
         int startCol = start[1];
         int endRow = end[0];
         int endCol = end[1];
 
-        Piece movingPiece = board[startRow][startCol];
+        Piece movingPiece = getPiece(startRow, startCol);
         if (movingPiece == null) {
             System.out.println("No piece at the starting position.");
             return false;
@@ -112,16 +388,17 @@ public class Board {
             return false;
         }
 
-        // Get all valid moves for the piece
-        var validMoves = movingPiece.getValidMoves(start, this);
-        boolean isMoveValid = false;
-        for (int[] move : validMoves) {
-            if (move[0] == endRow && move[1] == endCol) {
-                isMoveValid = true;
-                break;
-            }
+        int from = Bitboards.square(startRow, startCol);
+        int to = Bitboards.square(endRow, endCol);
+
+        // Fast path: the side to move's legal moves are cached per position
+        if (currentPlayerColor == sideToMove && getLegalMoves().find(from, to) != Move.NONE) {
+            return true;
         }
 
+        // Get all valid moves for the piece
+        boolean isMoveValid = (targets(from, false) & Bitboards.bit(to)) != 0;
+
         if (!isMoveValid) {
             System.out.println("Invalid move for the selected piece.");
             return false;
@@ -129,7 +406,7 @@ public class Board {
 
         // Anti-Chess Rule: If capture is possible, it must be taken
         if (isCapturePossible(currentPlayerColor)) {
-            if (board[endRow][endCol] == null || board[endRow][endCol].getColor() == currentPlayerColor) {
+            if (!isEnemy(endRow, endCol, currentPlayerColor)) {
                 System.out.println("A capture move is available and must be taken.");
                 return false;
             }
@@ -144,9 +421,145 @@ public class Board {
      * @param end Ending position as [row, col]
      */
     public void makeMove(int[] start, int[] end) {
-        Piece movingPiece = board[start[0]][start[1]];
-        board[end[0]][end[1]] = movingPiece;
-        board[start[0]][start[1]] = null;
+        int from = Bitboards.square(start[0], start[1]);
+        int to = Bitboards.square(end[0], end[1]);
+        if (squares[from] == EMPTY) return;
+        makeMove(Move.encode(from, to, squares[from], squares[to]));
+    }
+
+    /**
+     * Make a packed move and push it onto the undo stack.
+     * The move must have been generated for the current position.
+     * @param move Packed move
+     */
+    public void makeMove(int move) {
+        if (Metrics.ENABLED) Metrics.MOVES_MADE.increment();
+        if (historySize == historyMoves.length) {
+            historyMoves = Arrays.copyOf(historyMoves, historySize * 2);
+            historySides = Arrays.copyOf(historySides, historySize * 2);
+            historyAttacks = Arrays.copyOf(historyAttacks, historySize * 4);
+            historyHashes = Arrays.copyOf(historyHashes, historySize * 2);
+            historyLogSizes = Arrays.copyOf(historyLogSizes, historySize * 2);
+            historyClocks = Arrays.copyOf(historyClocks, historySize * 2);
+        }
+        historyMoves[historySize] = move;
+        historySides[historySize] = sideToMove;
+        historyAttacks[2 * historySize] = attacks[0];
+        historyAttacks[2 * historySize + 1] = attacks[1];
+        historyHashes[historySize] = hash;
+        historyLogSizes[historySize] = logSize;
+        historyClocks[historySize] = halfmoveClock;
+        historySize++;
+
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int piece = Move.piece(move);
+        boolean reset = Move.captured(move) >= 0 || piece % 6 == Piece.PieceType.PAWN.ordinal();
+        halfmoveClock = reset ? 0 : halfmoveClock + 1;
+        removePiece(from);
+        removePiece(to);
+        addPiece(to, piece);
+        Piece.Color next = piece < 6 ? Piece.Color.BLACK : Piece.Color.WHITE;
+        if (next != sideToMove) {
+            hash ^= Zobrist.SIDE_TO_MOVE;
+            sideToMove = next;
+        }
+        updateAttacks(from, to);
+        legalMovesValid = false;
+    }
+
+    /**
+     * Take back the last move made with makeMove, restoring the position exactly.
+     * @throws IllegalStateException if there is no move to take back
+     */
+    public void unmakeMove() {
+        if (historySize == 0) {
+            throw new IllegalStateException("No move to take back.");
+        }
+        historySize--;
+        int move = historyMoves[historySize];
+
+        int from = Move.from(move);
+        int to = Move.to(move);
+        removePiece(to);
+        addPiece(from, Move.piece(move));
+        int captured = Move.captured(move);
+        if (captured >= 0) {
+            addPiece(to, captured);
+        }
+        sideToMove = historySides[historySize];
+        hash = historyHashes[historySize];
+        halfmoveClock = historyClocks[historySize];
+        attacks[0] = historyAttacks[2 * historySize];
+        attacks[1] = historyAttacks[2 * historySize + 1];
+        for (int start = historyLogSizes[historySize]; logSize > start; ) {
+            logSize--;
+            squareAttacks[logSquares[logSize]] = logValues[logSize];
+        }
+        legalMovesValid = false;
+    }
+
+    private void updateAttacks() {
+        long occupied = occupancy[0] | occupancy[1];
+        for (int sq = 0; sq < 64; sq++) {
+            squareAttacks[sq] = squares[sq] == EMPTY ? 0 : pieceAttacks(sq, occupied);
+        }
+        sumAttacks();
+    }
+
+    /**
+     * Update the attack maps after a move between two squares. Besides the
+     * pieces now on those squares, only sliders that attacked one of them
+     * can change: their rays were cut or extended there. The entries
+     * replaced go to the undo log.
+     */
+    private void updateAttacks(int from, int to) {
+        long changed = Bitboards.bit(from) | Bitboards.bit(to);
+        long occupied = occupancy[0] | occupancy[1];
+        long sliders = 0;
+        for (int base = 0; base <= 6; base += 6) {
+            sliders |= pieces[base + Piece.PieceType.ROOK.ordinal()]
+                | pieces[base + Piece.PieceType.BISHOP.ordinal()]
+                | pieces[base + Piece.PieceType.QUEEN.ordinal()];
+        }
+        for (long bb = sliders & ~changed; bb != 0; bb &= bb - 1) {
+            int sq = Long.numberOfTrailingZeros(bb);
+            if ((squareAttacks[sq] & changed) != 0) {
+                setSquareAttacks(sq, pieceAttacks(sq, occupied));
+            }
+        }
+        setSquareAttacks(from, 0);
+        setSquareAttacks(to, pieceAttacks(to, occupied));
+        sumAttacks();
+    }
+
+    private void setSquareAttacks(int sq, long value) {
+        if (logSize == logSquares.length) {
+            logSquares = Arrays.copyOf(logSquares, logSize * 2);
+            logValues = Arrays.copyOf(logValues, logSize * 2);
+        }
+        logSquares[logSize] = sq;
+        logValues[logSize++] = squareAttacks[sq];
+        squareAttacks[sq] = value;
+    }
+
+    private void sumAttacks() {
+        for (int color = 0; color < 2; color++) {
+            int base = color * 6;
+            long pawns = pieces[base + Piece.PieceType.PAWN.ordinal()];
+            long result = Bitboards.pawnAttacksAll(COLORS[color], pawns);
+            for (long bb = occupancy[color] & ~pawns; bb != 0; bb &= bb - 1) {
+                result |= squareAttacks[Long.numberOfTrailingZeros(bb)];
+            }
+            attacks[color] = result;
+        }
+    }
+
+    // Attacks of the piece on a square; 0 for pawns, which sumAttacks handles
+    private long pieceAttacks(int sq, long occupied) {
+        int index = squares[sq];
+        if (index % 6 == Piece.PieceType.PAWN.ordinal()) return 0;
+        return Bitboards.attacks(PIECE_TYPES[index % 6], Piece.Color.WHITE, sq, occupied);
     }
 
     /**
@@ -155,73 +568,160 @@ public class Board {
      * @return true if at least one capture is possible, false otherwise
      */
     public boolean isCapturePossible(Piece.Color currentPlayerColor) {
-        for (int i = 0; i < 8; i++) {
-            for (int j = 0; j < 8; j++) {
-                Piece piece = board[i][j];
-                if (piece != null && piece.getColor() == currentPlayerColor) {
-                    var moves = piece.getValidMoves(new int[]{i, j}, this);
-                    for (int[] move : moves) {
-                        if (board[move[0]][move[1]] != null && board[move[0]][move[1]].getColor() != currentPlayerColor) {
-                            return true;
-                        }
-                    }
-                }
-            }
+        if (Metrics.ENABLED) Metrics.CAPTURE_CHECKS.increment();
+        return (attacks[currentPlayerColor.ordinal()] & occupancy[1 - currentPlayerColor.ordinal()]) != 0;
+    }
+
+    /**
+     * Legal moves for the side to move, with the mandatory-capture rule
+     * applied. The list is computed once per position and cached until the
+     * position changes; callers must not modify it or hold on to it across
+     * moves.
+     * @return Cached legal moves
+     */
+    public MoveList getLegalMoves() {
+        if (!legalMovesValid) {
+            legalMoves.clear();
+            generateLegalMoves(sideToMove, legalMoves);
+            legalMovesValid = true;
         }
-        return false;
+        return legalMoves;
     }
 
     /**
-     * Check if the game is over (i.e., one player has no pieces left).
-     * @return true if game over, false otherwise
+     * Append the legal moves for one side: its captures if it has any,
+     * otherwise all of its moves. Unlike getLegalMoves this writes into a
+     * caller-owned buffer, so it is safe to use at every ply of a search.
+     * @param color Side to generate moves for
+     * @param moves Buffer to append to
+     * @return Number of moves appended
      */
-    public boolean isGameOver() {
-        boolean whiteExists = false;
-        boolean blackExists = false;
+    public int generateLegalMoves(Piece.Color color, MoveList moves) {
+        if (isCapturePossible(color)) {
+            return generateCaptures(color, moves);
+        }
+        return generateMoves(color, moves);
+    }
 
-        for (int i = 0; i < 8; i++) {
-            for (int j = 0; j < 8; j++) {
-                Piece piece = board[i][j];
-                if (piece != null) {
-                    if (piece.getColor() == Piece.Color.WHITE) {
-                        whiteExists = true;
-                    } else {
-                        blackExists = true;
-                    }
-                }
-            }
+    /**
+     * Append every pseudo-legal move for one side to a move buffer.
+     * Mandatory captures are not applied; see {@link #generateCaptures}.
+     * @param color Side to generate moves for
+     * @param moves Buffer to append to
+     * @return Number of moves appended
+     */
+    public int generateMoves(Piece.Color color, MoveList moves) {
+        int before = moves.size();
+        for (long bb = occupancy[color.ordinal()]; bb != 0; bb &= bb - 1) {
+            int sq = Long.numberOfTrailingZeros(bb);
+            addMoves(sq, targets(sq, false), moves);
         }
+        return moves.size() - before;
+    }
 
-        return !whiteExists || !blackExists;
+    /**
+     * Append every capture for one side to a move buffer.
+     * @param color Side to generate captures for
+     * @param moves Buffer to append to
+     * @return Number of captures appended
+     */
+    public int generateCaptures(Piece.Color color, MoveList moves) {
+        int before = moves.size();
+        for (long bb = occupancy[color.ordinal()]; bb != 0; bb &= bb - 1) {
+            int sq = Long.numberOfTrailingZeros(bb);
+            addMoves(sq, targets(sq, true), moves);
+        }
+        return moves.size() - before;
     }
 
     /**
-     * Determine the winner based on remaining pieces.
-     * @return The color of the winner
+     * Append the pseudo-legal moves of the piece on one square.
+     * @param row Row index
+     * @param col Column index
+     * @param moves Buffer to append to
+     * @return Number of moves appended (0 for an empty square)
      */
-    public Piece.Color determineWinner() {
-        boolean whiteExists = false;
-        boolean blackExists = false;
+    public int generatePieceMoves(int row, int col, MoveList moves) {
+        int sq = Bitboards.square(row, col);
+        if (squares[sq] == EMPTY) return 0;
+        int before = moves.size();
+        addMoves(sq, targets(sq, false), moves);
+        return moves.size() - before;
+    }
 
-        for (int i = 0; i < 8; i++) {
-            for (int j = 0; j < 8; j++) {
-                Piece piece = board[i][j];
-                if (piece != null) {
-                    if (piece.getColor() == Piece.Color.WHITE) {
-                        whiteExists = true;
-                    } else {
-                        blackExists = true;
-                    }
-                }
+    /**
+     * Destination squares for the piece on a square.
+     */
+    private long targets(int sq, boolean capturesOnly) {
+        int index = squares[sq];
+        Piece.Color color = index < 6 ? Piece.Color.WHITE : Piece.Color.BLACK;
+        long own = occupancy[color.ordinal()];
+        long enemy = occupancy[1 - color.ordinal()];
+        long occupied = own | enemy;
+
+        if (index % 6 == Piece.PieceType.PAWN.ordinal()) {
+            long targets = Bitboards.pawnAttacks(color, sq) & enemy;
+            if (!capturesOnly) {
+                targets |= Bitboards.pawnPushesAll(color, Bitboards.bit(sq)) & ~occupied;
             }
+            return targets;
+        }
+
+        long attacks = Bitboards.attacks(PIECE_TYPES[index % 6], color, sq, occupied);
+        return capturesOnly ? attacks & enemy : attacks & ~own;
+    }
+
+    private void addMoves(int from, long targets, MoveList moves) {
+        int piece = squares[from];
+        for (; targets != 0; targets &= targets - 1) {
+            int to = Long.numberOfTrailingZeros(targets);
+            moves.add(Move.encode(from, to, piece, squares[to]));
         }
+    }
+
+    /**
+     * Check if the game is over (i.e., one player has no pieces left, or the
+     * side to move has no legal move).
+     * @return true if game over, false otherwise
+     */
+    public boolean isGameOver() {
+        return occupancy[0] == 0 || occupancy[1] == 0 || getLegalMoves().isEmpty();
+    }
+
+    /**
+     * Determine the winner. In Anti-Chess the player who loses all of their
+     * pieces wins, and so does a player who has no legal move on their turn.
+     * @return The color of the winner
+     */
+    public Piece.Color determineWinner() {
+        boolean whiteExists = occupancy[Piece.Color.WHITE.ordinal()] != 0;
+        boolean blackExists = occupancy[Piece.Color.BLACK.ordinal()] != 0;
 
-        if (whiteExists && !blackExists) {
+        if (!whiteExists && blackExists) {
             return Piece.Color.WHITE;
-        } else if (blackExists && !whiteExists) {
+        } else if (!blackExists && whiteExists) {
             return Piece.Color.BLACK;
+        } else if (whiteExists && getLegalMoves().isEmpty()) {
+            return sideToMove;
         } else {
             return null; // No winner yet or draw (not typical in Anti-Chess)
         }
     }
+
+    /**
+     * Two boards are equal when they hold the same pieces on the same
+     * squares with the same side to move. Move history is not compared.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Board)) return false;
+        Board other = (Board) o;
+        return hash == other.hash && sideToMove == other.sideToMove && Arrays.equals(pieces, other.pieces);
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) (hash ^ (hash >>> 32));
+    }
 }
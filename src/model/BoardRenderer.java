@@ -0,0 +1,178 @@
+// src/model/BoardRenderer.java
+package model;
+
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Draws boards as text. Each drawing is built in a reusable byte buffer and
+ * handed to the stream in a single write, so rendering does not allocate
+ * and takes the stream's lock only once.
+ *
+ * In {@link Mode#ANSI} mode the board is drawn once at the top of the
+ * terminal, the lines below it become a scrolling region for the rest of
+ * the output, and later drawings only rewrite the squares that changed.
+ * Call {@link #close()} afterwards to give the terminal its full scrolling
+ * region back. A renderer is not thread-safe: use one per game.
+ */
+public class BoardRenderer implements AutoCloseable {
+    /**
+     * How boards are written.
+     */
+    public enum Mode {
+        /** The whole board as plain text on every call. */
+        PLAIN,
+        /** Drawn in place with ANSI escape codes, redrawing only changed squares. */
+        ANSI,
+        /** Nothing is written. */
+        QUIET
+    }
+
+    private static final byte[] LETTERS = {'P', 'R', 'N', 'B', 'Q', 'K', 'p', 'r', 'n', 'b', 'q', 'k'};
+    private static final byte[] FILES = "  a b c d e f g h\n".getBytes(StandardCharsets.US_ASCII);
+    private static final byte ESC = 27;
+    // Terminal line of rank 8 and the first line below the board, 1-based
+    private static final int FIRST_RANK_LINE = 2;
+    private static final int BELOW_BOARD_LINE = 11;
+    private static final int UNKNOWN = -2;
+
+    private final PrintStream out;
+    private final Mode mode;
+    private final byte[] buffer = new byte[1024];
+    private int length;
+    // Piece index shown on each square in ANSI mode (-1 empty, UNKNOWN before the first drawing)
+    private final int[] shown = new int[64];
+
+    public BoardRenderer(PrintStream out, Mode mode) {
+        this.out = out;
+        this.mode = mode;
+        Arrays.fill(shown, UNKNOWN);
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * Write a board.
+     * @param board Board to draw
+     */
+    public void render(Board board) {
+        if (mode == Mode.QUIET) return;
+        length = 0;
+        if (mode == Mode.PLAIN) {
+            appendBoard(board);
+        } else if (shown[0] == UNKNOWN) {
+            appendEscape("2J");
+            appendEscape("H");
+            appendBoard(board);
+            appendEscape("");
+            appendNumber(BELOW_BOARD_LINE);
+            append((byte) 'r');
+            appendCursor(BELOW_BOARD_LINE, 1);
+            for (int sq = 0; sq < 64; sq++) {
+                shown[sq] = board.getPieceIndex(sq);
+            }
+        } else {
+            appendChanges(board);
+        }
+        if (length > 0) {
+            out.write(buffer, 0, length);
+            out.flush();
+        }
+    }
+
+    /**
+     * Draw the whole board again at the next {@link #render}, e.g. after the
+     * screen was cleared.
+     */
+    public void reset() {
+        Arrays.fill(shown, UNKNOWN);
+    }
+
+    /**
+     * Restore the terminal's scrolling region after drawing in ANSI mode.
+     */
+    @Override
+    public void close() {
+        if (mode != Mode.ANSI || shown[0] == UNKNOWN) return;
+        length = 0;
+        appendEscape("r");
+        appendCursor(999, 1);
+        out.write(buffer, 0, length);
+        out.flush();
+        reset();
+    }
+
+    private void appendBoard(Board board) {
+        append(FILES);
+        for (int row = 0; row < 8; row++) {
+            byte rank = (byte) ('8' - row);
+            append(rank);
+            append((byte) ' ');
+            for (int col = 0; col < 8; col++) {
+                append(symbol(board.getPieceIndex(Bitboards.square(row, col))));
+                append((byte) ' ');
+            }
+            append(rank);
+            append((byte) '\n');
+        }
+        append(FILES);
+    }
+
+    // Saves the cursor, rewrites each changed square in place, and puts the cursor back
+    private void appendChanges(Board board) {
+        boolean changed = false;
+        for (int sq = 0; sq < 64; sq++) {
+            int index = board.getPieceIndex(sq);
+            if (index == shown[sq]) continue;
+            if (!changed) {
+                append(ESC);
+                append((byte) '7');
+                changed = true;
+            }
+            shown[sq] = index;
+            appendCursor(FIRST_RANK_LINE + Bitboards.row(sq), 3 + 2 * Bitboards.col(sq));
+            append(symbol(index));
+        }
+        if (changed) {
+            append(ESC);
+            append((byte) '8');
+        }
+    }
+
+    private static byte symbol(int index) {
+        return index < 0 ? (byte) '.' : LETTERS[index];
+    }
+
+    private void appendEscape(String sequence) {
+        append(ESC);
+        append((byte) '[');
+        for (int i = 0; i < sequence.length(); i++) {
+            append((byte) sequence.charAt(i));
+        }
+    }
+
+    private void appendCursor(int line, int column) {
+        appendEscape("");
+        appendNumber(line);
+        append((byte) ';');
+        appendNumber(column);
+        append((byte) 'H');
+    }
+
+    private void appendNumber(int n) {
+        if (n >= 10) appendNumber(n / 10);
+        append((byte) ('0' + n % 10));
+    }
+
+    private void append(byte[] bytes) {
+        System.arraycopy(bytes, 0, buffer, length, bytes.length);
+        length += bytes.length;
+    }
+
+    private void append(byte b) {
+        buffer[length++] = b;
+    }
+}
@@ -0,0 +1,85 @@
+// src/model/ConsoleMoveSource.java
+package model;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+
+/**
+ * Interactive moves typed on standard input, e.g. "A2 B3" or "quit".
+ *
+ * Standard input is read through one shared reader, so prompts for names
+ * and moves never compete for buffered input.
+ */
+public class ConsoleMoveSource implements MoveSource {
+    private static final ConsoleMoveSource SHARED = new ConsoleMoveSource(new BufferedReader(new InputStreamReader(System.in)));
+
+    private final BufferedReader reader;
+
+    public ConsoleMoveSource(BufferedReader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * The source reading from System.in.
+     * @return Shared instance
+     */
+    public static ConsoleMoveSource shared() {
+        return SHARED;
+    }
+
+    /**
+     * Read one line of input.
+     * @return The line, or null at end of input
+     */
+    public String readLine() {
+        try {
+            return reader.readLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Prompt the player to make a move.
+     * @param board Current game board
+     * @param player Player to move
+     * @return Square pair, or QUIT on 'quit' or end of input
+     */
+    @Override
+    public int nextMove(Board board, Player player) {
+        while (true) {
+            System.out.print(player.getName() + " (" + player.getColor().toString().toLowerCase() + "), enter your move (e.g., A2 B3) or type 'quit' to exit: ");
+            String line = readLine();
+            if (line == null) {
+                return QUIT;
+            }
+            String input = line.trim();
+
+            if (input.equalsIgnoreCase("quit")) {
+                return QUIT;
+            }
+
+            String[] parts = input.split(" ");
+            if (parts.length != 2) {
+                System.out.println("Invalid input format. Please enter moves like 'A2 B3'.");
+                continue;
+            }
+
+            int from = parseSquare(parts[0]);
+            int to = parseSquare(parts[1]);
+            if (from < 0 || to < 0) {
+                System.out.println("Invalid board positions. Please use positions like 'A2' to 'H8'.");
+                continue;
+            }
+
+            return MoveSource.encode(from, to);
+        }
+    }
+
+    private static int parseSquare(String pos) {
+        if (pos.length() != 2) return -1;
+        return Move.parseSquare(pos.charAt(0), pos.charAt(1));
+    }
+}
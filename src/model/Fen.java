@@ -0,0 +1,128 @@
+// src/model/Fen.java
+package model;
+
+import java.util.Arrays;
+
+/**
+ * FEN-style text for positions: the piece placement from rank 8 down to
+ * rank 1, then the side to move, e.g. the start position is
+ * <pre>
+ *   rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w
+ * </pre>
+ * Standard FEN fields after the side to move are accepted. Castling, en
+ * passant and the move number are ignored, since Antichess here has neither
+ * castling nor en passant; the halfmove clock is read, for the halfmove
+ * draw rule, and {@link #toFen} writes it when it is not zero. A side may
+ * have at most {@value Board#MAX_PIECES_PER_SIDE} pieces, as in a real game.
+ */
+public final class Fen {
+    public static final String START = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w";
+
+    // Letters in Piece.PieceType order
+    private static final String LETTERS = "PRNBQK";
+
+    private Fen() {
+    }
+
+    /**
+     * Build a board from FEN text.
+     * @param fen Position text
+     * @return New board
+     * @throws IllegalArgumentException If the text is not a valid position
+     */
+    public static Board parse(String fen) {
+        Board board = new Board();
+        load(board, fen);
+        return board;
+    }
+
+    /**
+     * Set a board to the position in FEN text. The move history is cleared.
+     * @param board Board to set up
+     * @param fen Position text
+     * @throws IllegalArgumentException If the text is not a valid position
+     */
+    public static void load(Board board, String fen) {
+        String[] fields = fen.trim().split("\\s+");
+        int[] placement = new int[64];
+        Arrays.fill(placement, -1);
+
+        int[] counts = new int[2];
+        int row = 0;
+        int col = 0;
+        for (int i = 0; i < fields[0].length(); i++) {
+            char c = fields[0].charAt(i);
+            if (c == '/') {
+                if (col != 8) throw invalid(fen, "rank " + (8 - row) + " does not have 8 squares");
+                if (++row > 7) throw invalid(fen, "more than 8 ranks");
+                col = 0;
+            } else if (c >= '1' && c <= '8') {
+                col += c - '0';
+            } else {
+                int type = LETTERS.indexOf(Character.toUpperCase(c));
+                if (type < 0) throw invalid(fen, "unknown piece '" + c + "'");
+                if (col > 7) throw invalid(fen, "rank " + (8 - row) + " has more than 8 squares");
+                Piece.Color color = Character.isUpperCase(c) ? Piece.Color.WHITE : Piece.Color.BLACK;
+                if (++counts[color.ordinal()] > Board.MAX_PIECES_PER_SIDE) {
+                    throw invalid(fen, color.toString().toLowerCase() + " has more than " + Board.MAX_PIECES_PER_SIDE + " pieces");
+                }
+                placement[Bitboards.square(row, col)] = color.ordinal() * 6 + type;
+                col++;
+            }
+            if (col > 8) throw invalid(fen, "rank " + (8 - row) + " has more than 8 squares");
+        }
+        if (row != 7 || col != 8) throw invalid(fen, "expected 8 ranks of 8 squares");
+
+        Piece.Color sideToMove = Piece.Color.WHITE;
+        if (fields.length > 1) {
+            switch (fields[1]) {
+                case "w": sideToMove = Piece.Color.WHITE; break;
+                case "b": sideToMove = Piece.Color.BLACK; break;
+                default: throw invalid(fen, "side to move must be 'w' or 'b'");
+            }
+        }
+        board.setup(placement, sideToMove);
+        if (fields.length > 4) {
+            try {
+                board.setHalfmoveClock(Integer.parseInt(fields[4]));
+            } catch (NumberFormatException e) {
+                throw invalid(fen, "halfmove clock must be a number");
+            }
+        }
+    }
+
+    /**
+     * Write a board's position as FEN text.
+     * @param board Board to describe
+     * @return Piece placement and side to move, then the halfmove clock if it is not zero
+     */
+    public static String toFen(Board board) {
+        StringBuilder fen = new StringBuilder(72);
+        for (int row = 0; row < 8; row++) {
+            int empty = 0;
+            for (int col = 0; col < 8; col++) {
+                int index = board.getPieceIndex(Bitboards.square(row, col));
+                if (index < 0) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    fen.append(empty);
+                    empty = 0;
+                }
+                char letter = LETTERS.charAt(index % 6);
+                fen.append(index < 6 ? letter : Character.toLowerCase(letter));
+            }
+            if (empty > 0) fen.append(empty);
+            if (row < 7) fen.append('/');
+        }
+        fen.append(board.getSideToMove() == Piece.Color.WHITE ? " w" : " b");
+        // Castling and en passant are always "-" and the move number is not tracked
+        if (board.getHalfmoveClock() > 0) fen.append(" - - ").append(board.getHalfmoveClock()).append(" 1");
+        return fen.toString();
+    }
+
+    private static IllegalArgumentException invalid(String fen, String reason) {
+        return new IllegalArgumentException("Invalid FEN \"" + fen + "\": " + reason + ".");
+    }
+}
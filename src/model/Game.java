@@ -1,11 +1,20 @@
 // src/model/Game.java
 package model;
 
+import metrics.Metrics;
+
 public class Game {
+    /** Plies without a capture or pawn move after which a game is drawn by default. */
+    public static final int DEFAULT_HALFMOVE_LIMIT = 100;
+
     private Board board;
     private Player player1;
     private Player player2;
     private Player currentPlayer;
+    private GameObserver observer;
+    private GameResult result;
+    private BoardRenderer renderer;
+    private int halfmoveLimit = DEFAULT_HALFMOVE_LIMIT;
 
     public Game(String player1Name, String player2Name) {
         board = new Board();
@@ -14,14 +23,75 @@ public class Game {
         currentPlayer = player1; // White starts first
     }
 
+    /**
+     * Create a game between two existing players, e.g. a computer player.
+     * @param white Player with the white pieces
+     * @param black Player with the black pieces
+     */
+    public Game(Player white, Player black) {
+        board = new Board();
+        player1 = white;
+        player2 = black;
+        currentPlayer = player1; // White starts first
+    }
+
+    /**
+     * Continue an interrupted game, e.g. one recovered from a journal.
+     * @param white Player with the white pieces
+     * @param black Player with the black pieces
+     * @param board Position reached from the initial position, with its move history
+     */
+    public Game(Player white, Player black, Board board) {
+        this.board = board;
+        player1 = white;
+        player2 = black;
+        currentPlayer = board.getSideToMove() == Piece.Color.WHITE ? player1 : player2;
+    }
+
+    /**
+     * Report the game's moves and result to an observer, e.g. a game recorder.
+     * @param observer Observer, or null for none
+     */
+    public void setObserver(GameObserver observer) {
+        this.observer = observer;
+    }
+
+    /**
+     * Choose how {@link #start} shows the board.
+     * @param renderer Renderer (plain text on the console by default)
+     */
+    public void setRenderer(BoardRenderer renderer) {
+        this.renderer = renderer;
+    }
+
+    /**
+     * Set how many plies may pass without a capture or pawn move before the
+     * game is drawn. A threefold repetition is always a draw.
+     * @param plies Ply limit (0 for no limit)
+     */
+    public void setHalfmoveLimit(int plies) {
+        this.halfmoveLimit = plies;
+    }
+
     /**
      * Start the game loop.
      */
     public void start() {
+        if (renderer == null) renderer = new BoardRenderer(System.out, BoardRenderer.Mode.PLAIN);
+        notifyStart();
+        int plies = board.getHistorySize();
         while (true) {
-            board.displayBoard();
+            long turnStart = Metrics.ENABLED ? System.nanoTime() : 0;
+            renderer.render(board);
             if (board.isGameOver()) {
                 declareWinner();
+                notifyEnd(gameOverResult(plies));
+                break;
+            }
+            GameResult draw = drawResult(plies);
+            if (draw != null) {
+                declareDraw(draw);
+                notifyEnd(draw);
                 break;
             }
 
@@ -33,6 +103,7 @@ public class Game {
 
             if (moveInput.isQuit()) {
                 declareQuit();
+                notifyEnd(quitResult(plies));
                 break;
             }
 
@@ -41,13 +112,168 @@ public class Game {
 
             if (board.isValidMove(start, end, currentPlayer.getColor())) {
                 board.makeMove(start, end);
+                plies++;
+                if (observer != null) observer.movePlayed(board.getHistoryMove(board.getHistorySize() - 1));
                 switchPlayer();
+                if (Metrics.ENABLED) Metrics.TURN.record(System.nanoTime() - turnStart);
             } else {
                 System.out.println("Invalid move. Please try again.");
             }
         }
     }
 
+    /**
+     * Play the game to the end without any console output, e.g. between two
+     * computer players. An illegal move loses the game instead of being
+     * retried, so a faulty player cannot stall the loop.
+     * @param maxPlies Number of moves after which the game is a draw (0 for no limit)
+     * @return The result
+     */
+    public GameResult play(int maxPlies) {
+        notifyStart();
+        GameResult result = playMoves(maxPlies);
+        notifyEnd(result);
+        return result;
+    }
+
+    private GameResult playMoves(int maxPlies) {
+        int plies = board.getHistorySize();
+        while (true) {
+            if (board.isGameOver()) {
+                return gameOverResult(plies);
+            }
+            GameResult draw = drawResult(plies);
+            if (draw != null) {
+                return draw;
+            }
+            if (maxPlies > 0 && plies >= maxPlies) {
+                return new GameResult(null, GameResult.Termination.MOVE_LIMIT, plies);
+            }
+
+            Player.MoveInput moveInput = currentPlayer.makeMove(board);
+            Player opponent = (currentPlayer == player1) ? player2 : player1;
+            if (moveInput.isQuit()) {
+                return quitResult(plies);
+            }
+
+            int[] start = moveInput.getStart();
+            int[] end = moveInput.getEnd();
+            int move = board.getLegalMoves().find(Bitboards.square(start[0], start[1]), Bitboards.square(end[0], end[1]));
+            if (move == Move.NONE || board.getSideToMove() != currentPlayer.getColor()) {
+                return new GameResult(opponent.getColor(), GameResult.Termination.ILLEGAL_MOVE, plies);
+            }
+            board.makeMove(move);
+            plies++;
+            if (observer != null) observer.movePlayed(move);
+            switchPlayer();
+        }
+    }
+
+    /**
+     * Start a game that is driven from outside, one move at a time through
+     * {@link #submitMove}, instead of asking the players' move sources, e.g.
+     * by a server that receives the moves over the network. Nothing blocks
+     * and nothing is printed.
+     */
+    public void begin() {
+        notifyStart();
+        checkFinished();
+    }
+
+    /**
+     * Play a move for the player to move in a game started with {@link #begin}.
+     * @param squares Square pair (see {@link MoveSource#encode})
+     * @return true if the move was played, false if it is not legal (the
+     *         game is left unchanged) or the game is over
+     */
+    public boolean submitMove(int squares) {
+        if (result != null) return false;
+        int move = board.getLegalMoves().find(MoveSource.from(squares), MoveSource.to(squares));
+        if (move == Move.NONE) return false;
+        board.makeMove(move);
+        if (observer != null) observer.movePlayed(move);
+        switchPlayer();
+        checkFinished();
+        return true;
+    }
+
+    /**
+     * End a game started with {@link #begin} because one side quit or left.
+     * @param color Color of the player who quits
+     */
+    public void resign(Piece.Color color) {
+        if (result != null) return;
+        Player winner = color == player1.getColor() ? player2 : player1;
+        finish(new GameResult(winner.getColor(), GameResult.Termination.QUIT, board.getHistorySize()));
+    }
+
+    /**
+     * Result of a game started with {@link #begin}.
+     * @return Result, or null while the game is in progress
+     */
+    public GameResult getResult() {
+        return result;
+    }
+
+    public Board getBoard() {
+        return board;
+    }
+
+    public Player getCurrentPlayer() {
+        return currentPlayer;
+    }
+
+    // Ends a game driven through submitMove once the position decides it
+    private void checkFinished() {
+        int plies = board.getHistorySize();
+        GameResult ended = board.isGameOver() ? gameOverResult(plies) : drawResult(plies);
+        if (ended != null) finish(ended);
+    }
+
+    private void finish(GameResult result) {
+        this.result = result;
+        notifyEnd(result);
+    }
+
+    private void notifyStart() {
+        if (observer == null) return;
+        if (board.getHistorySize() > 0) {
+            observer.gameResumed(player1, player2, board);
+        } else {
+            observer.gameStarted(player1, player2);
+        }
+    }
+
+    private void notifyEnd(GameResult result) {
+        if (Metrics.ENABLED) Metrics.GAMES_FINISHED.increment();
+        if (observer != null) observer.gameEnded(result);
+    }
+
+    private GameResult gameOverResult(int plies) {
+        Piece.Color winner = board.determineWinner();
+        boolean noPieces = board.getPieceCount(Piece.Color.WHITE) == 0 || board.getPieceCount(Piece.Color.BLACK) == 0;
+        return new GameResult(winner, noPieces ? GameResult.Termination.NO_PIECES : GameResult.Termination.NO_MOVES, plies);
+    }
+
+    /*
+     * The draw the position calls for, if any: a threefold repetition, or
+     * the halfmove limit.
+     */
+    private GameResult drawResult(int plies) {
+        if (board.getRepetitions() >= 2) {
+            return new GameResult(null, GameResult.Termination.REPETITION, plies);
+        }
+        if (halfmoveLimit > 0 && board.getHalfmoveClock() >= halfmoveLimit) {
+            return new GameResult(null, GameResult.Termination.HALFMOVE_LIMIT, plies);
+        }
+        return null;
+    }
+
+    private GameResult quitResult(int plies) {
+        Player opponent = (currentPlayer == player1) ? player2 : player1;
+        return new GameResult(opponent.getColor(), GameResult.Termination.QUIT, plies);
+    }
+
     /**
      * Switch the turn to the other player.
      */
@@ -68,6 +294,17 @@ public class Game {
         }
     }
 
+    /**
+     * Announce a draw by repetition or by the halfmove limit.
+     */
+    private void declareDraw(GameResult draw) {
+        if (draw.getTermination() == GameResult.Termination.REPETITION) {
+            System.out.println("Game ended in a draw by threefold repetition.");
+        } else {
+            System.out.println("Game ended in a draw: " + halfmoveLimit + " plies without a capture or pawn move.");
+        }
+    }
+
     /**
      * Handle player quitting the game.
      */
@@ -0,0 +1,81 @@
+// src/model/GameObserver.java
+package model;
+
+/**
+ * Receives the moves of a game as it is played, e.g. to record it.
+ * Called on the thread that runs the game.
+ */
+public interface GameObserver {
+    /**
+     * A new game is about to start from the initial position.
+     * @param white Player with the white pieces
+     * @param black Player with the black pieces
+     */
+    default void gameStarted(Player white, Player black) {
+    }
+
+    /**
+     * A game that was interrupted earlier continues. By default this is
+     * reported as a new game followed by the moves already played, so an
+     * observer sees the whole game either way.
+     * @param white Player with the white pieces
+     * @param black Player with the black pieces
+     * @param board Position reached, with the moves played so far in its history
+     */
+    default void gameResumed(Player white, Player black, Board board) {
+        gameStarted(white, black);
+        for (int i = 0; i < board.getHistorySize(); i++) {
+            movePlayed(board.getHistoryMove(i));
+        }
+    }
+
+    /**
+     * A legal move has been played on the game board.
+     * @param move Packed move (see {@link Move})
+     */
+    default void movePlayed(int move) {
+    }
+
+    /**
+     * The game is over.
+     * @param result How it ended
+     */
+    default void gameEnded(GameResult result) {
+    }
+
+    /**
+     * Report to two observers.
+     * @param first First observer, or null
+     * @param second Second observer, or null
+     * @return Observer that forwards every call to both
+     */
+    static GameObserver combine(GameObserver first, GameObserver second) {
+        if (first == null) return second;
+        if (second == null) return first;
+        return new GameObserver() {
+            @Override
+            public void gameStarted(Player white, Player black) {
+                first.gameStarted(white, black);
+                second.gameStarted(white, black);
+            }
+
+            @Override
+            public void gameResumed(Player white, Player black, Board board) {
+                first.gameResumed(white, black, board);
+                second.gameResumed(white, black, board);
+            }
+
+            @Override
+            public void movePlayed(int move) {
+                first.movePlayed(move);
+                second.movePlayed(move);
+            }
+
+            @Override
+            public void gameEnded(GameResult result) {
+                first.gameEnded(result);
+                second.gameEnded(result);
+            }
+        };
+    }
+}
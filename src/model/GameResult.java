@@ -0,0 +1,67 @@
+// src/model/GameResult.java
+package model;
+
+/**
+ * Outcome of a finished game.
+ */
+public class GameResult {
+    /**
+     * Why the game ended.
+     */
+    public enum Termination {
+        /** A player lost all of their pieces (and won). */
+        NO_PIECES,
+        /** The side to move had no legal move (and won). */
+        NO_MOVES,
+        /** A player quit. */
+        QUIT,
+        /** A player submitted an illegal move in a headless game. */
+        ILLEGAL_MOVE,
+        /** The game reached its ply limit and was called a draw. */
+        MOVE_LIMIT,
+        /** The same position occurred for the third time (a draw). */
+        REPETITION,
+        /** Too many plies passed without a capture or pawn move (a draw). */
+        HALFMOVE_LIMIT
+    }
+
+    private final Piece.Color winner;
+    private final Termination termination;
+    private final int plies;
+
+    public GameResult(Piece.Color winner, Termination termination, int plies) {
+        this.winner = winner;
+        this.termination = termination;
+        this.plies = plies;
+    }
+
+    /**
+     * The winning side.
+     * @return Winner color, or null for a draw
+     */
+    public Piece.Color getWinner() {
+        return winner;
+    }
+
+    public boolean isDraw() {
+        return winner == null;
+    }
+
+    public Termination getTermination() {
+        return termination;
+    }
+
+    /**
+     * Number of moves played.
+     * @return Plies
+     */
+    public int getPlies() {
+        return plies;
+    }
+
+    @Override
+    public String toString() {
+        String outcome = winner == null ? "draw" : winner.toString().toLowerCase() + " wins";
+        return outcome + " (" + termination.toString().toLowerCase() + ", " + plies + " plies)";
+    }
+}
@@ -0,0 +1,110 @@
+// src/model/Move.java
+package model;
+
+/**
+ * Helpers for moves packed into a single int.
+ *
+ * Layout (low to high bits):
+ * <pre>
+ *  0-5   from square (row * 8 + col)
+ *  6-11  to square
+ *  12-15 moving piece index (see Piece.getIndex())
+ *  16-19 captured piece index + 1, or 0 for a quiet move
+ *  20-23 flags
+ * </pre>
+ * A packed move is always non-negative, so negative values are free to be
+ * used as sentinels such as {@link #NONE}.
+ */
+public final class Move {
+    public static final int NONE = -1;
+
+    /** Set on every move that removes an enemy piece. */
+    public static final int FLAG_CAPTURE = 1;
+
+    private Move() {
+    }
+
+    /**
+     * Pack a move.
+     * @param from Starting square
+     * @param to Ending square
+     * @param piece Index of the moving piece
+     * @param captured Index of the captured piece, or -1 if none
+     * @return Packed move
+     */
+    public static int encode(int from, int to, int piece, int captured) {
+        int flags = captured >= 0 ? FLAG_CAPTURE : 0;
+        return from | (to << 6) | (piece << 12) | ((captured + 1) << 16) | (flags << 20);
+    }
+
+    public static int from(int move) {
+        return move & 0x3F;
+    }
+
+    public static int to(int move) {
+        return (move >>> 6) & 0x3F;
+    }
+
+    public static int piece(int move) {
+        return (move >>> 12) & 0xF;
+    }
+
+    /**
+     * Index of the captured piece.
+     * @param move Packed move
+     * @return Piece index, or -1 for a quiet move
+     */
+    public static int captured(int move) {
+        return ((move >>> 16) & 0xF) - 1;
+    }
+
+    public static int flags(int move) {
+        return (move >>> 20) & 0xF;
+    }
+
+    public static boolean isCapture(int move) {
+        return (flags(move) & FLAG_CAPTURE) != 0;
+    }
+
+    /**
+     * Check whether two moves go between the same squares.
+     * @param a Packed move
+     * @param b Packed move
+     * @return true if from and to squares match
+     */
+    public static boolean sameSquares(int a, int b) {
+        return (a & 0xFFF) == (b & 0xFFF);
+    }
+
+    /**
+     * Name of a square in input notation (e.g. "A2").
+     * @param square Square index
+     * @return Square name
+     */
+    public static String squareName(int square) {
+        return "" + (char) ('A' + Bitboards.col(square)) + (char) ('8' - Bitboards.row(square));
+    }
+
+    /**
+     * Parse a square name such as "A2" (case-insensitive).
+     * @param file File letter, 'A' to 'H'
+     * @param rank Rank digit, '1' to '8'
+     * @return Square index, or -1 if the name is not on the board
+     */
+    public static int parseSquare(char file, char rank) {
+        int col = (file | 0x20) - 'a';
+        int row = '8' - rank;
+        if (col < 0 || col > 7 || row < 0 || row > 7) return -1;
+        return Bitboards.square(row, col);
+    }
+
+    /**
+     * Format a move the way players enter it (e.g. "A2 B3").
+     * @param move Packed move
+     * @return Move text
+     */
+    public static String toString(int move) {
+        if (move == NONE) return "none";
+        return squareName(from(move)) + " " + squareName(to(move));
+    }
+}
@@ -0,0 +1,88 @@
+// src/model/MoveList.java
+package model;
+
+/**
+ * Reusable buffer of packed moves (see {@link Move}).
+ *
+ * The caller owns the buffer and clears it between uses, so move
+ * generation does not allocate once the buffer exists.
+ */
+public final class MoveList {
+    /** Enough for any position reachable without promotion. */
+    public static final int DEFAULT_CAPACITY = 256;
+
+    private final int[] moves;
+    private int size;
+
+    public MoveList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public MoveList(int capacity) {
+        moves = new int[capacity];
+    }
+
+    public void add(int move) {
+        moves[size++] = move;
+    }
+
+    public int get(int i) {
+        return moves[i];
+    }
+
+    public void set(int i, int move) {
+        moves[i] = move;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Drop every move from position {@code newSize} onwards.
+     * @param newSize New size, not larger than the current one
+     */
+    public void truncate(int newSize) {
+        size = newSize;
+    }
+
+    /**
+     * Swap two entries, used by move ordering.
+     * @param i First index
+     * @param j Second index
+     */
+    public void swap(int i, int j) {
+        int tmp = moves[i];
+        moves[i] = moves[j];
+        moves[j] = tmp;
+    }
+
+    /**
+     * Find a move between two squares.
+     * @param from Starting square
+     * @param to Ending square
+     * @return The packed move, or {@link Move#NONE} if not in the list
+     */
+    public int find(int from, int to) {
+        for (int i = 0; i < size; i++) {
+            int move = moves[i];
+            if (Move.from(move) == from && Move.to(move) == to) {
+                return move;
+            }
+        }
+        return Move.NONE;
+    }
+
+    public void copyFrom(MoveList other) {
+        System.arraycopy(other.moves, 0, moves, 0, other.size);
+        size = other.size;
+    }
+}
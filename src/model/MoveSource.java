@@ -0,0 +1,36 @@
+// src/model/MoveSource.java
+package model;
+
+/**
+ * Where a player's moves come from: the keyboard, a script, a network
+ * connection or code.
+ *
+ * A source returns moves as a square pair {@code from | (to << 6)} (see
+ * {@link #encode}), which carries no piece information: the game checks
+ * the move against the position before playing it.
+ */
+@FunctionalInterface
+public interface MoveSource {
+    /** Returned when the player quits or the source is exhausted. */
+    int QUIT = -1;
+
+    /**
+     * Get the player's next move.
+     * @param board Current game board (must not be modified)
+     * @param player Player to move
+     * @return Square pair from {@link #encode}, or {@link #QUIT}
+     */
+    int nextMove(Board board, Player player);
+
+    static int encode(int from, int to) {
+        return from | (to << 6);
+    }
+
+    static int from(int squares) {
+        return squares & 0x3F;
+    }
+
+    static int to(int squares) {
+        return (squares >>> 6) & 0x3F;
+    }
+}
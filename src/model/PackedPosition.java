@@ -0,0 +1,175 @@
+// src/model/PackedPosition.java
+package model;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * A position packed into {@value #SIZE} bytes, for cache keys and on-disk
+ * position sets:
+ * <pre>
+ *   bytes 0-7    occupancy bitboard (big-endian)
+ *   bytes 8-23   one nibble per occupied square, in square order, holding
+ *                the piece index (see {@link Piece#getIndex()}); high nibble first
+ *   byte  24     side to move (0 white, 1 black)
+ * </pre>
+ * Without promotions a side never has more than
+ * {@value Board#MAX_PIECES_PER_SIDE} pieces, so 32 nibbles are enough, and
+ * decoding rejects anything else. Equal positions always pack to equal bytes, and the packed
+ * form orders the same way as its bytes compared unsigned.
+ */
+public final class PackedPosition implements Comparable<PackedPosition> {
+    public static final int SIZE = 25;
+    public static final int MAX_PIECES = 32;
+
+    private final byte[] bytes;
+
+    private PackedPosition(byte[] bytes) {
+        this.bytes = bytes;
+    }
+
+    /**
+     * Pack a board's position.
+     * @param board Board to pack
+     * @return Packed position
+     * @throws IllegalArgumentException If the board holds more than {@value #MAX_PIECES} pieces
+     */
+    public static PackedPosition of(Board board) {
+        ByteBuffer buffer = ByteBuffer.allocate(SIZE);
+        write(board, buffer);
+        return new PackedPosition(buffer.array());
+    }
+
+    /**
+     * Wrap packed bytes, e.g. read from a file.
+     * @param data Array holding the packed bytes
+     * @param offset Offset of the first byte
+     * @return Packed position (a copy of the bytes)
+     * @throws IllegalArgumentException If the bytes are not a valid packed position
+     */
+    public static PackedPosition fromBytes(byte[] data, int offset) {
+        byte[] copy = Arrays.copyOfRange(data, offset, offset + SIZE);
+        validate(ByteBuffer.wrap(copy));
+        return new PackedPosition(copy);
+    }
+
+    /**
+     * Append a board's packed position to a buffer without allocating.
+     * @param board Board to pack
+     * @param out Buffer with at least {@value #SIZE} bytes remaining
+     * @throws IllegalArgumentException If the board holds more than {@value #MAX_PIECES} pieces
+     */
+    public static void write(Board board, ByteBuffer out) {
+        long occupied = board.getOccupancy();
+        if (Long.bitCount(occupied) > MAX_PIECES) {
+            throw new IllegalArgumentException("Cannot pack more than " + MAX_PIECES + " pieces.");
+        }
+        out.putLong(occupied);
+        int nibbles = 0;
+        int pending = 0;
+        for (long bb = occupied; bb != 0; bb &= bb - 1) {
+            int index = board.getPieceIndex(Long.numberOfTrailingZeros(bb));
+            if ((nibbles++ & 1) == 0) {
+                pending = index << 4;
+            } else {
+                out.put((byte) (pending | index));
+            }
+        }
+        if ((nibbles & 1) != 0) {
+            out.put((byte) pending);
+            nibbles++;
+        }
+        for (; nibbles < MAX_PIECES; nibbles += 2) {
+            out.put((byte) 0);
+        }
+        out.put((byte) board.getSideToMove().ordinal());
+    }
+
+    /**
+     * Read a packed position from a buffer onto a board. The board's move
+     * history is cleared.
+     * @param in Buffer with at least {@value #SIZE} bytes remaining
+     * @param board Board to set up
+     * @throws IllegalArgumentException If the bytes are not a valid packed position
+     */
+    public static void read(ByteBuffer in, Board board) {
+        int[] placement = new int[64];
+        Arrays.fill(placement, -1);
+        Piece.Color sideToMove = decode(in, placement);
+        board.setup(placement, sideToMove);
+    }
+
+    /**
+     * Unpack onto a new board.
+     * @return Board holding the position
+     */
+    public Board toBoard() {
+        Board board = new Board();
+        read(ByteBuffer.wrap(bytes), board);
+        return board;
+    }
+
+    /**
+     * The packed bytes.
+     * @return A copy of the {@value #SIZE} bytes
+     */
+    public byte[] toByteArray() {
+        return bytes.clone();
+    }
+
+    private static void validate(ByteBuffer in) {
+        decode(in, new int[64]);
+    }
+
+    private static Piece.Color decode(ByteBuffer in, int[] placement) {
+        long occupied = in.getLong();
+        if (Long.bitCount(occupied) > MAX_PIECES) {
+            throw new IllegalArgumentException("Packed position has more than " + MAX_PIECES + " pieces.");
+        }
+        int start = in.position();
+        int nibble = 0;
+        int white = 0;
+        for (long bb = occupied; bb != 0; bb &= bb - 1, nibble++) {
+            int b = in.get(start + (nibble >>> 1));
+            int index = (nibble & 1) == 0 ? (b >>> 4) & 0xF : b & 0xF;
+            if (index >= Piece.COUNT) {
+                throw new IllegalArgumentException("Invalid piece in packed position.");
+            }
+            if (index < 6) white++;
+            placement[Long.numberOfTrailingZeros(bb)] = index;
+        }
+        if (white > Board.MAX_PIECES_PER_SIDE || nibble - white > Board.MAX_PIECES_PER_SIDE) {
+            throw new IllegalArgumentException("Packed position has more than " + Board.MAX_PIECES_PER_SIDE + " pieces of one color.");
+        }
+        in.position(start + MAX_PIECES / 2);
+        int side = in.get();
+        if (side != 0 && side != 1) {
+            throw new IllegalArgumentException("Invalid side to move in packed position.");
+        }
+        return Piece.Color.values()[side];
+    }
+
+    @Override
+    public int compareTo(PackedPosition other) {
+        return Arrays.compareUnsigned(bytes, other.bytes);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof PackedPosition && Arrays.equals(bytes, ((PackedPosition) o).bytes);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(bytes);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder hex = new StringBuilder(SIZE * 2);
+        for (byte b : bytes) {
+            hex.append(Character.forDigit((b >>> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+}
@@ -1,6 +1,8 @@
 // src/model/Piece.java
 package model;
 
+import metrics.Metrics;
+
 import java.util.ArrayList;
 import java.util.List;
 
@@ -8,6 +10,20 @@ public class Piece {
     public enum PieceType { PAWN, ROOK, KNIGHT, BISHOP, QUEEN, KING }
     public enum Color { WHITE, BLACK }
 
+    /** Number of distinct (type, color) combinations, see {@link #getIndex()}. */
+    public static final int COUNT = 12;
+
+    private static final Piece[] CACHE = new Piece[COUNT];
+
+    static {
+        for (Color c : Color.values()) {
+            for (PieceType t : PieceType.values()) {
+                Piece piece = new Piece(t, c);
+                CACHE[piece.getIndex()] = piece;
+            }
+        }
+    }
+
     private PieceType type;
     private Color color;
 
@@ -16,6 +32,25 @@ public class Piece {
         this.color = color;
     }
 
+    /**
+     * Get the shared instance for a piece type and color.
+     * @param type Piece type
+     * @param color Piece color
+     * @return Cached piece
+     */
+    public static Piece of(PieceType type, Color color) {
+        return CACHE[color.ordinal() * 6 + type.ordinal()];
+    }
+
+    /**
+     * Get the shared instance for a piece index.
+     * @param index Value returned by {@link #getIndex()}
+     * @return Cached piece
+     */
+    public static Piece fromIndex(int index) {
+        return CACHE[index];
+    }
+
     public PieceType getType() {
         return type;
     }
@@ -24,6 +59,15 @@ public class Piece {
         return color;
     }
 
+    /**
+     * Dense index of this piece's (type, color) pair in the range [0, 12).
+     * White pieces come first, in {@link PieceType} order.
+     * @return Piece index
+     */
+    public int getIndex() {
+        return color.ordinal() * 6 + type.ordinal();
+    }
+
     @Override
     public String toString() {
         String symbol = "";
@@ -45,6 +89,14 @@ public class Piece {
      * @return List of valid end positions as [row, col]
      */
     public List<int[]> getValidMoves(int[] start, Board board) {
+        if (!Metrics.ENABLED) return validMoves(start, board);
+        long begin = System.nanoTime();
+        List<int[]> moves = validMoves(start, board);
+        Metrics.MOVE_GENERATION.record(System.nanoTime() - begin);
+        return moves;
+    }
+
+    private List<int[]> validMoves(int[] start, Board board) {
         List<int[]> moves = new ArrayList<>();
         int row = start[0];
         int col = start[1];
@@ -80,6 +132,11 @@ public class Piece {
         int direction = (color == Color.WHITE) ? -1 : 1; // White moves up, Black moves down
         int newRow = row + direction;
 
+        // A pawn on the last rank has nowhere to go (there is no promotion)
+        if (newRow < 0 || newRow >= 8) {
+            return moves;
+        }
+
         // Move forward
         if (board.isEmpty(newRow, col)) {
             moves.add(new int[]{newRow, col});
@@ -1,17 +1,30 @@
 // src/model/Player.java
 package model;
 
-import java.util.Scanner;
-
 public class Player {
     private String name;
     private Piece.Color color;
-    private Scanner scanner;
+    private MoveSource moveSource;
 
+    /**
+     * Create a player who types moves on the console.
+     * @param name Player name
+     * @param color Color played
+     */
     public Player(String name, Piece.Color color) {
+        this(name, color, ConsoleMoveSource.shared());
+    }
+
+    /**
+     * Create a player whose moves come from any source.
+     * @param name Player name
+     * @param color Color played
+     * @param moveSource Source of the player's moves
+     */
+    public Player(String name, Piece.Color color, MoveSource moveSource) {
         this.name = name;
         this.color = color;
-        this.scanner = new Scanner(System.in);
+        this.moveSource = moveSource;
     }
 
     public String getName() {
@@ -22,64 +35,24 @@ public class Player {
         return color;
     }
 
+    public MoveSource getMoveSource() {
+        return moveSource;
+    }
+
     /**
-     * Prompt the player to make a move.
+     * Ask the player's move source for a move.
      * @param board Current game board
      * @return An array containing start and end positions or 'quit' command
      */
     public MoveInput makeMove(Board board) {
-        while (true) {
-            System.out.print(name + " (" + color.toString().toLowerCase() + "), enter your move (e.g., A2 B3) or type 'quit' to exit: ");
-            String input = scanner.nextLine().trim();
-
-            if (input.equalsIgnoreCase("quit")) {
-                return new MoveInput("quit", "quit");
-            }
-
-            String[] parts = input.split(" ");
-            if (parts.length != 2) {
-                System.out.println("Invalid input format. Please enter moves like 'A2 B3'.");
-                continue;
-            }
-
-            String start = parts[0];
-            String end = parts[1];
-
-            if (!isValidPosition(start) || !isValidPosition(end)) {
-                System.out.println("Invalid board positions. Please use positions like 'A2' to 'H8'.");
-                continue;
-            }
-
-            int[] startPos = convertPosition(start);
-            int[] endPos = convertPosition(end);
-
-            return new MoveInput(startPos, endPos);
+        int squares = moveSource.nextMove(board, this);
+        if (squares == MoveSource.QUIT) {
+            return new MoveInput("quit", "quit");
         }
-    }
-
-    /**
-     * Validate the format of a board position.
-     * @param pos Position string (e.g., "A2")
-     * @return true if valid, false otherwise
-     */
-    private boolean isValidPosition(String pos) {
-        if (pos.length() != 2) return false;
-        char file = pos.toUpperCase().charAt(0);
-        char rank = pos.charAt(1);
-        return (file >= 'A' && file <= 'H') && (rank >= '1' && rank <= '8');
-    }
-
-    /**
-     * Convert a board position string to array indices.
-     * @param pos Position string (e.g., "A2")
-     * @return Array with row and column indices
-     */
-    private int[] convertPosition(String pos) {
-        char file = pos.toUpperCase().charAt(0);
-        char rank = pos.charAt(1);
-        int col = file - 'A';
-        int row = 8 - (rank - '0');
-        return new int[]{row, col};
+        int from = MoveSource.from(squares);
+        int to = MoveSource.to(squares);
+        return new MoveInput(new int[]{Bitboards.row(from), Bitboards.col(from)},
+            new int[]{Bitboards.row(to), Bitboards.col(to)});
     }
 
     /**
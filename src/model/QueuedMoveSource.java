@@ -0,0 +1,69 @@
+// src/model/QueuedMoveSource.java
+package model;
+
+/**
+ * Moves handed in by code, e.g. from a network connection or a test.
+ *
+ * Producers call {@link #offer}; the game thread blocks in
+ * {@link #nextMove} until a move arrives. Moves are kept in a small ring
+ * of ints, so handing one over does not allocate.
+ */
+public class QueuedMoveSource implements MoveSource {
+    private final int[] queue;
+    private int head;
+    private int size;
+
+    public QueuedMoveSource() {
+        this(16);
+    }
+
+    public QueuedMoveSource(int capacity) {
+        queue = new int[capacity];
+    }
+
+    /**
+     * Queue a move, blocking while the queue is full.
+     * @param from Starting square
+     * @param to Ending square
+     */
+    public void offer(int from, int to) {
+        put(MoveSource.encode(from, to));
+    }
+
+    /**
+     * Queue a quit, so the player resigns at their next turn.
+     */
+    public void quit() {
+        put(QUIT);
+    }
+
+    private synchronized void put(int value) {
+        while (size == queue.length) {
+            awaitChange();
+        }
+        queue[(head + size) % queue.length] = value;
+        size++;
+        notifyAll();
+    }
+
+    @Override
+    public synchronized int nextMove(Board board, Player player) {
+        while (size == 0) {
+            awaitChange();
+        }
+        int value = queue[head];
+        head = (head + 1) % queue.length;
+        size--;
+        notifyAll();
+        return value;
+    }
+
+    private void awaitChange() {
+        try {
+            wait();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a move.", e);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+// src/model/ScriptedMoveSource.java
+package model;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Moves read from a file or stream, e.g. for replaying regression games.
+ *
+ * The script is a sequence of squares such as {@code E2 E3, E7 E6}; each
+ * pair of squares is one move, and spaces, commas and line breaks are all
+ * separators. {@code quit} ends the game and {@code #} starts a comment
+ * that runs to the end of the line. One source can feed both players, in
+ * which case the moves simply alternate.
+ *
+ * Input is decoded straight from a byte buffer, so reading a move does
+ * not allocate.
+ */
+public class ScriptedMoveSource implements MoveSource, Closeable {
+    private static final int END = -2;
+
+    private final InputStream in;
+    private final byte[] buffer = new byte[8192];
+    private int position;
+    private int limit;
+    private long offset;
+    private int movesRead;
+
+    public ScriptedMoveSource(InputStream in) {
+        this.in = in;
+    }
+
+    public static ScriptedMoveSource open(Path path) throws IOException {
+        return new ScriptedMoveSource(Files.newInputStream(path));
+    }
+
+    public static ScriptedMoveSource of(String script) {
+        return new ScriptedMoveSource(new ByteArrayInputStream(script.getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    /**
+     * Read the next move of the script.
+     * @param board Current game board (unused)
+     * @param player Player to move (unused)
+     * @return Square pair, or QUIT at 'quit' or the end of the script
+     * @throws IllegalArgumentException if the script contains something other than squares
+     */
+    @Override
+    public synchronized int nextMove(Board board, Player player) {
+        int from = nextSquare();
+        if (from < 0) return QUIT;
+        int to = nextSquare();
+        if (to < 0) return QUIT;
+        movesRead++;
+        return MoveSource.encode(from, to);
+    }
+
+    /**
+     * Number of moves handed out so far.
+     * @return Moves read
+     */
+    public synchronized int getMovesRead() {
+        return movesRead;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private int nextSquare() {
+        int c = read();
+        while (true) {
+            if (c == '#') {
+                while (c != '\n' && c != END) c = read();
+            } else if (c == ' ' || c == ',' || c == '\n' || c == '\r' || c == '\t') {
+                c = read();
+            } else {
+                break;
+            }
+        }
+        if (c == END) return END;
+
+        if ((c | 0x20) == 'q') {
+            // 'quit' (or any word starting with q) ends the script
+            while (c != END && c != ' ' && c != ',' && c != '\n' && c != '\r' && c != '\t') c = read();
+            return QUIT;
+        }
+
+        int rank = read();
+        int square = rank == END ? -1 : Move.parseSquare((char) c, (char) rank);
+        if (square < 0) {
+            throw new IllegalArgumentException("Invalid square in move script at byte " + (offset + position - 2) + ".");
+        }
+        return square;
+    }
+
+    private int read() {
+        if (position == limit) {
+            try {
+                offset += limit;
+                limit = in.read(buffer, 0, buffer.length);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return END;
+            }
+        }
+        return buffer[position++] & 0xFF;
+    }
+}
@@ -0,0 +1,46 @@
+// src/model/Zobrist.java
+package model;
+
+/**
+ * Random keys for Zobrist hashing of {@link Board} positions.
+ *
+ * A position's key is the XOR of one key per (piece, square) pair on the
+ * board, plus {@link #SIDE_TO_MOVE} when Black is to move, so it can be
+ * updated incrementally as pieces come and go. The keys are generated from
+ * a fixed seed and are therefore the same in every run, which lets hashes
+ * be stored in files.
+ */
+public final class Zobrist {
+    private static final long[] PIECE_SQUARE = new long[Piece.COUNT * 64];
+    public static final long SIDE_TO_MOVE;
+
+    static {
+        long state = 0x9E3779B97F4A7C15L;
+        for (int i = 0; i < PIECE_SQUARE.length; i++) {
+            state += 0x9E3779B97F4A7C15L;
+            PIECE_SQUARE[i] = mix(state);
+        }
+        state += 0x9E3779B97F4A7C15L;
+        SIDE_TO_MOVE = mix(state);
+    }
+
+    private Zobrist() {
+    }
+
+    /**
+     * Key for one piece on one square.
+     * @param piece Piece index (see Piece.getIndex())
+     * @param square Square index
+     * @return Zobrist key
+     */
+    public static long pieceSquare(int piece, int square) {
+        return PIECE_SQUARE[piece * 64 + square];
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,47 @@
+// src/server/Connection.java
+package server;
+
+import model.Game;
+import model.Piece;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+
+/**
+ * One client of a {@link GameServer}: its socket, its input and output
+ * buffers, and the game it is playing. Only touched by the selector thread.
+ */
+final class Connection {
+    static final int INPUT_SIZE = 256;
+    static final int OUTPUT_SIZE = 4096;
+
+    final SocketChannel channel;
+    final SelectionKey key;
+    final ByteBuffer input = ByteBuffer.allocate(INPUT_SIZE);
+    final ByteBuffer output = ByteBuffer.allocate(OUTPUT_SIZE);
+
+    String name;
+    Game game;
+    Piece.Color color;
+    Connection opponent;
+
+    /** Queued for a flush at the end of the selector round. */
+    boolean dirty;
+    /** The client does not read fast enough and is dropped at the next flush. */
+    boolean overflowed;
+    /** Close once the output is written. */
+    boolean closeAfterFlush;
+    boolean closed;
+
+    Connection(SocketChannel channel, SelectionKey key) {
+        this.channel = channel;
+        this.key = key;
+    }
+
+    void leaveGame() {
+        game = null;
+        color = null;
+        opponent = null;
+    }
+}
@@ -0,0 +1,375 @@
+// src/server/GameServer.java
+package server;
+
+import archive.GameRecordWriter;
+import model.Fen;
+import model.Game;
+import model.GameResult;
+import model.Move;
+import model.MoveSource;
+import model.Piece;
+import model.Player;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Hosts many games over TCP on a single thread: one NIO selector serves
+ * every connection, and each game advances through {@link Game#submitMove}
+ * as moves arrive, so no thread ever waits for a player.
+ *
+ * The protocol is line-based UTF-8 text, one command per line:
+ * <pre>
+ *   client                 server
+ *   PLAY name              WAITING, later START white|black opponent
+ *   MOVE E2 E3             MOVED E2 E3 (to both players), or ILLEGAL reason
+ *   FEN                    FEN position (see {@link Fen})
+ *   QUIT                   resigns the current game, or BYE and disconnects
+ *                          END white|black|draw termination (to both players)
+ *                          ERROR message
+ * </pre>
+ * Players are paired in the order they send PLAY and may play again after
+ * a game ends. Leaving in the middle of a game resigns it. A client that
+ * lets {@value Connection#OUTPUT_SIZE} bytes of replies pile up unread is
+ * dropped.
+ *
+ * Usage: {@code java Main server [--port n] [--record file]}
+ */
+public class GameServer implements Closeable {
+    public static final int DEFAULT_PORT = 7777;
+    static final int MAX_NAME_LENGTH = 32;
+
+    // Moves of network players arrive through Game.submitMove; this source is never asked
+    private static final MoveSource REMOTE = (board, player) -> MoveSource.QUIT;
+
+    private final Selector selector;
+    private final ServerSocketChannel server;
+    private final List<Connection> dirty = new ArrayList<>();
+    private Connection waiting;
+    private GameRecordWriter recorder;
+    private long gamesStarted;
+    private volatile boolean running = true;
+
+    private GameServer(Selector selector, ServerSocketChannel server) {
+        this.selector = selector;
+        this.server = server;
+    }
+
+    /**
+     * Listen for connections.
+     * @param port TCP port, or 0 for any free port
+     * @return Server; call {@link #serve} to run it
+     * @throws IOException If the port cannot be bound
+     */
+    public static GameServer open(int port) throws IOException {
+        Selector selector = Selector.open();
+        ServerSocketChannel server = ServerSocketChannel.open();
+        try {
+            server.bind(new InetSocketAddress(port), 1024);
+            server.configureBlocking(false);
+            server.register(selector, SelectionKey.OP_ACCEPT);
+            return new GameServer(selector, server);
+        } catch (IOException | RuntimeException e) {
+            server.close();
+            selector.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Append every finished game to an archive. Must be called before {@link #serve}.
+     * @param recorder Archive writer, or null to keep no records
+     */
+    public void setRecorder(GameRecordWriter recorder) {
+        this.recorder = recorder;
+    }
+
+    public int getPort() {
+        return server.socket().getLocalPort();
+    }
+
+    /**
+     * Run the selector loop on the calling thread until {@link #close} is called.
+     * @throws IOException If the selector fails
+     */
+    public void serve() throws IOException {
+        try {
+            while (running) {
+                selector.select();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) continue;
+                    if (key.isAcceptable()) {
+                        accept();
+                        continue;
+                    }
+                    Connection connection = (Connection) key.attachment();
+                    if (key.isReadable()) read(connection);
+                    if (key.isValid() && key.isWritable()) flush(connection);
+                }
+                flushDirty();
+            }
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                key.channel().close();
+            }
+            selector.close();
+        }
+    }
+
+    /**
+     * Stop the selector loop. Safe to call from any thread.
+     */
+    @Override
+    public void close() {
+        running = false;
+        selector.wakeup();
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = server.accept()) != null) {
+            channel.configureBlocking(false);
+            channel.socket().setTcpNoDelay(true);
+            SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+            key.attach(new Connection(channel, key));
+        }
+    }
+
+    private void read(Connection connection) {
+        int n;
+        try {
+            n = connection.channel.read(connection.input);
+        } catch (IOException e) {
+            n = -1;
+        }
+        if (n < 0) {
+            disconnect(connection);
+            return;
+        }
+
+        byte[] data = connection.input.array();
+        int end = connection.input.position();
+        int start = 0;
+        for (int i = 0; i < end && !connection.closed; i++) {
+            if (data[i] == '\n') {
+                handle(connection, new String(data, start, i - start, StandardCharsets.UTF_8).trim());
+                start = i + 1;
+            }
+        }
+        if (connection.closed) return;
+        connection.input.flip().position(start);
+        connection.input.compact();
+        if (!connection.input.hasRemaining()) {
+            send(connection, "ERROR line too long");
+            connection.closeAfterFlush = true;
+            connection.key.interestOps(0);
+        }
+    }
+
+    private void handle(Connection connection, String line) {
+        if (line.isEmpty() || connection.closeAfterFlush) return;
+        int space = line.indexOf(' ');
+        String command = (space < 0 ? line : line.substring(0, space)).toUpperCase();
+        String argument = space < 0 ? "" : line.substring(space + 1).trim();
+        switch (command) {
+            case "PLAY": play(connection, argument); break;
+            case "MOVE": move(connection, argument); break;
+            case "FEN":
+                if (connection.game == null) {
+                    send(connection, "ERROR not in a game");
+                } else {
+                    send(connection, "FEN " + Fen.toFen(connection.game.getBoard()));
+                }
+                break;
+            case "QUIT": quit(connection); break;
+            default: send(connection, "ERROR unknown command " + command);
+        }
+    }
+
+    private void play(Connection connection, String name) {
+        if (connection.game != null || connection == waiting) {
+            send(connection, "ERROR already playing");
+            return;
+        }
+        if (name.isEmpty() || name.length() > MAX_NAME_LENGTH) {
+            send(connection, "ERROR usage: PLAY name (at most " + MAX_NAME_LENGTH + " characters)");
+            return;
+        }
+        connection.name = name;
+        if (waiting == null) {
+            waiting = connection;
+            send(connection, "WAITING");
+            return;
+        }
+        Connection first = waiting;
+        waiting = null;
+        // Alternate which of the two gets White
+        boolean firstIsWhite = (gamesStarted++ & 1) == 0;
+        startGame(firstIsWhite ? first : connection, firstIsWhite ? connection : first);
+    }
+
+    private void startGame(Connection white, Connection black) {
+        Game game = new Game(new Player(white.name, Piece.Color.WHITE, REMOTE), new Player(black.name, Piece.Color.BLACK, REMOTE));
+        if (recorder != null) game.setObserver(recorder.newGameBuffer());
+        white.game = game;
+        white.color = Piece.Color.WHITE;
+        white.opponent = black;
+        black.game = game;
+        black.color = Piece.Color.BLACK;
+        black.opponent = white;
+        game.begin();
+        send(white, "START white " + black.name);
+        send(black, "START black " + white.name);
+    }
+
+    private void move(Connection connection, String argument) {
+        Game game = connection.game;
+        if (game == null) {
+            send(connection, "ERROR not in a game");
+            return;
+        }
+        String[] squares = argument.split("\\s+");
+        int from = squares.length == 2 ? parseSquare(squares[0]) : -1;
+        int to = squares.length == 2 ? parseSquare(squares[1]) : -1;
+        if (from < 0 || to < 0) {
+            send(connection, "ILLEGAL expected MOVE A2 B3");
+        } else if (game.getCurrentPlayer().getColor() != connection.color) {
+            send(connection, "ILLEGAL not your turn");
+        } else if (!game.submitMove(MoveSource.encode(from, to))) {
+            send(connection, "ILLEGAL " + Move.squareName(from) + " " + Move.squareName(to));
+        } else {
+            String moved = "MOVED " + Move.squareName(from) + " " + Move.squareName(to);
+            send(connection, moved);
+            send(connection.opponent, moved);
+            if (game.getResult() != null) endGame(connection);
+        }
+    }
+
+    private static int parseSquare(String name) {
+        if (name.length() != 2) return -1;
+        return Move.parseSquare(name.charAt(0), name.charAt(1));
+    }
+
+    private void quit(Connection connection) {
+        if (connection.game != null) {
+            connection.game.resign(connection.color);
+            endGame(connection);
+            return;
+        }
+        if (connection == waiting) waiting = null;
+        send(connection, "BYE");
+        connection.closeAfterFlush = true;
+    }
+
+    private void endGame(Connection connection) {
+        GameResult result = connection.game.getResult();
+        String winner = result.isDraw() ? "draw" : result.getWinner().toString().toLowerCase();
+        String end = "END " + winner + " " + result.getTermination().toString().toLowerCase();
+        Connection opponent = connection.opponent;
+        send(connection, end);
+        send(opponent, end);
+        connection.leaveGame();
+        opponent.leaveGame();
+    }
+
+    private void disconnect(Connection connection) {
+        if (connection.closed) return;
+        connection.closed = true;
+        if (connection == waiting) waiting = null;
+        if (connection.game != null) {
+            connection.game.resign(connection.color);
+            endGame(connection);
+        }
+        connection.key.cancel();
+        try {
+            connection.channel.close();
+        } catch (IOException e) {
+            // Nothing left to do with a socket that fails to close
+        }
+    }
+
+    // Replies are collected per connection and written once per selector round
+    private void send(Connection connection, String line) {
+        if (connection.closed || connection.overflowed) return;
+        byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+        if (connection.output.remaining() < bytes.length + 1) {
+            connection.overflowed = true;
+        } else {
+            connection.output.put(bytes).put((byte) '\n');
+        }
+        if (!connection.dirty) {
+            connection.dirty = true;
+            dirty.add(connection);
+        }
+    }
+
+    private void flushDirty() {
+        // Dropping a client can queue replies for its opponent, which this loop then picks up
+        for (int i = 0; i < dirty.size(); i++) {
+            Connection connection = dirty.get(i);
+            connection.dirty = false;
+            if (connection.overflowed) {
+                disconnect(connection);
+            } else {
+                flush(connection);
+            }
+        }
+        dirty.clear();
+    }
+
+    private void flush(Connection connection) {
+        if (connection.closed) return;
+        connection.output.flip();
+        try {
+            connection.channel.write(connection.output);
+        } catch (IOException e) {
+            connection.output.clear();
+            disconnect(connection);
+            return;
+        }
+        connection.output.compact();
+        if (connection.output.position() > 0) {
+            connection.key.interestOps(connection.key.interestOps() | SelectionKey.OP_WRITE);
+        } else if (connection.closeAfterFlush) {
+            disconnect(connection);
+        } else {
+            connection.key.interestOps(connection.key.interestOps() & ~SelectionKey.OP_WRITE);
+        }
+    }
+
+    public static void main(String[] args) {
+        int port = DEFAULT_PORT;
+        String record = null;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--port") && i + 1 < args.length) {
+                port = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("--record") && i + 1 < args.length) {
+                record = args[++i];
+            } else {
+                System.out.println("Usage: java Main server [--port n] [--record file]");
+                return;
+            }
+        }
+        try (GameServer server = open(port);
+             GameRecordWriter writer = record == null ? null : GameRecordWriter.open(Path.of(record))) {
+            server.setRecorder(writer);
+            System.out.println("Listening on port " + server.getPort());
+            server.serve();
+        } catch (IOException e) {
+            System.out.println("Server stopped: " + e.getMessage());
+        }
+    }
+}
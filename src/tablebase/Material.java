@@ -0,0 +1,262 @@
+// src/tablebase/Material.java
+package tablebase;
+
+import model.Board;
+import model.Piece;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A material signature (how many pieces of each kind are on the board) and
+ * the position index of its table.
+ *
+ * The pieces of a signature are laid out in slots by ascending piece index
+ * (see {@link Piece#getIndex()}): White's pieces by type, then Black's.
+ * A position's index is
+ * <pre>
+ *   ((square of slot 0) * 64 + square of slot 1) * 64 ... * 2 + side to move
+ * </pre>
+ * Identical pieces must occupy their slots in ascending square order, so
+ * each position has exactly one index; the other orderings, and indexes
+ * with two pieces on one square, are invalid.
+ *
+ * Colors are symmetric: a position and its mirror image with the colors
+ * swapped (and the other side to move) have the same value. Only the
+ * {@linkplain #isCanonical canonical} signature of each such pair gets a
+ * table.
+ */
+final class Material {
+    // Letters in Piece.PieceType order
+    private static final String LETTERS = "PRNBQK";
+
+    private final int[] counts;
+    private final int[] slots;
+    private final int[] firstSlot = new int[Piece.COUNT];
+    private final long key;
+
+    Material(int[] counts) {
+        this.counts = counts.clone();
+        int total = 0;
+        long packed = 0;
+        for (int i = 0; i < Piece.COUNT; i++) {
+            total += counts[i];
+            packed |= (long) counts[i] << (4 * i);
+        }
+        slots = new int[total];
+        int slot = 0;
+        for (int i = 0; i < Piece.COUNT; i++) {
+            firstSlot[i] = slot;
+            for (int n = 0; n < counts[i]; n++) {
+                slots[slot++] = i;
+            }
+        }
+        key = packed;
+    }
+
+    static Material fromKey(long key) {
+        int[] counts = new int[Piece.COUNT];
+        for (int i = 0; i < Piece.COUNT; i++) {
+            counts[i] = (int) (key >>> (4 * i)) & 0xF;
+        }
+        return new Material(counts);
+    }
+
+    /**
+     * Signature of the pieces on a board.
+     */
+    static long keyOf(Board board) {
+        long packed = 0;
+        for (int piece = 0; piece < Piece.COUNT; piece++) {
+            packed |= (long) Long.bitCount(pieces(board, piece)) << (4 * piece);
+        }
+        return packed;
+    }
+
+    /**
+     * Index of a board's position in the table of its signature, or of the
+     * color-swapped signature. Slots are filled straight from the bitboards,
+     * which already list identical pieces in ascending square order, so
+     * nothing is allocated.
+     * @param board Position
+     * @param flip Whether to index the mirrored position with the colors swapped
+     */
+    static long indexOf(Board board, boolean flip) {
+        long index = 0;
+        for (int slotPiece = 0; slotPiece < Piece.COUNT; slotPiece++) {
+            long bb = flip ? Long.reverseBytes(pieces(board, (slotPiece + 6) % Piece.COUNT)) : pieces(board, slotPiece);
+            for (; bb != 0; bb &= bb - 1) {
+                index = (index << 6) | Long.numberOfTrailingZeros(bb);
+            }
+        }
+        int sideToMove = board.getSideToMove().ordinal();
+        return (index << 1) | (flip ? 1 - sideToMove : sideToMove);
+    }
+
+    private static long pieces(Board board, int piece) {
+        Piece p = Piece.fromIndex(piece);
+        return board.getPieces(p.getType(), p.getColor());
+    }
+
+    /**
+     * Key of the signature with the colors swapped.
+     */
+    static long flipKey(long key) {
+        long whiteHalf = key & 0xFFFFFFL;
+        long blackHalf = (key >>> 24) & 0xFFFFFFL;
+        return blackHalf | whiteHalf << 24;
+    }
+
+    static boolean isCanonical(long key) {
+        return key <= flipKey(key);
+    }
+
+    long getKey() {
+        return key;
+    }
+
+    int getCount(int piece) {
+        return counts[piece];
+    }
+
+    int getPieces() {
+        return slots.length;
+    }
+
+    int getSlotPiece(int slot) {
+        return slots[slot];
+    }
+
+    int getSideCount(int color) {
+        int n = 0;
+        for (int i = color * 6; i < color * 6 + 6; i++) {
+            n += counts[i];
+        }
+        return n;
+    }
+
+    boolean isCanonical() {
+        return isCanonical(key);
+    }
+
+    /**
+     * Number of entries in the table: 64 per slot, times two sides to move.
+     */
+    long size() {
+        return 2L << (6 * slots.length);
+    }
+
+    /**
+     * The signature left after one piece is captured.
+     */
+    Material without(int piece) {
+        int[] fewer = counts.clone();
+        fewer[piece]--;
+        return new Material(fewer);
+    }
+
+    /**
+     * Index of a position given by the squares of the slots. Squares of
+     * identical pieces are sorted first.
+     * @param squares Square per slot (reordered in place)
+     * @param sideToMove Color ordinal of the side to move
+     */
+    long index(int[] squares, int sideToMove) {
+        sortIdentical(squares);
+        long index = 0;
+        for (int sq : squares) {
+            index = (index << 6) | sq;
+        }
+        return (index << 1) | sideToMove;
+    }
+
+    /**
+     * Index of a position given as a list of pieces in any order, possibly
+     * from the color-swapped signature.
+     * @param pieces Piece index of each piece
+     * @param squares Square of each piece
+     * @param count Number of pieces (must match this signature)
+     * @param sideToMove Color ordinal of the side to move
+     * @param flip Whether the pieces have to be mirrored and their colors swapped first
+     */
+    long indexOf(int[] pieces, int[] squares, int count, int sideToMove, boolean flip) {
+        int[] slotSquares = new int[slots.length];
+        int[] filled = new int[Piece.COUNT];
+        for (int i = 0; i < count; i++) {
+            int piece = flip ? (pieces[i] + 6) % Piece.COUNT : pieces[i];
+            slotSquares[firstSlot[piece] + filled[piece]++] = flip ? squares[i] ^ 56 : squares[i];
+        }
+        return index(slotSquares, flip ? 1 - sideToMove : sideToMove);
+    }
+
+    /**
+     * Squares of the slots for a position index.
+     * @return false if the index is not a valid position
+     */
+    boolean decode(long index, int[] squares) {
+        long rest = index >>> 1;
+        long seen = 0;
+        for (int slot = slots.length - 1; slot >= 0; slot--) {
+            int sq = (int) (rest & 63);
+            rest >>>= 6;
+            if ((seen & (1L << sq)) != 0) return false;
+            seen |= 1L << sq;
+            squares[slot] = sq;
+        }
+        for (int slot = 1; slot < slots.length; slot++) {
+            if (slots[slot] == slots[slot - 1] && squares[slot] < squares[slot - 1]) return false;
+        }
+        return true;
+    }
+
+    private void sortIdentical(int[] squares) {
+        for (int i = 1; i < squares.length; i++) {
+            int sq = squares[i];
+            int j = i - 1;
+            while (j >= 0 && slots[j] == slots[i] && squares[j] > sq) {
+                squares[j + 1] = squares[j];
+                j--;
+            }
+            squares[j + 1] = sq;
+        }
+    }
+
+    /**
+     * All canonical signatures with exactly the given number of pieces and
+     * at least one piece per side.
+     */
+    static List<Material> canonicalWithPieces(int pieces) {
+        List<Material> result = new ArrayList<>();
+        collect(new int[Piece.COUNT], 0, pieces, result);
+        return result;
+    }
+
+    private static void collect(int[] counts, int piece, int remaining, List<Material> result) {
+        if (piece == Piece.COUNT) {
+            Material material = new Material(counts);
+            if (remaining == 0 && material.getSideCount(0) > 0 && material.getSideCount(1) > 0 && material.isCanonical()) {
+                result.add(material);
+            }
+            return;
+        }
+        for (int n = 0; n <= remaining; n++) {
+            counts[piece] = n;
+            collect(counts, piece + 1, remaining - n, result);
+        }
+        counts[piece] = 0;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder name = new StringBuilder();
+        for (int color = 0; color < 2; color++) {
+            if (color == 1) name.append('v');
+            for (int type = 5; type >= 0; type--) {
+                for (int n = 0; n < counts[color * 6 + type]; n++) {
+                    name.append(LETTERS.charAt(type));
+                }
+            }
+        }
+        return name.toString();
+    }
+}
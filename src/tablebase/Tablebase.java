@@ -0,0 +1,223 @@
+// src/tablebase/Tablebase.java
+package tablebase;
+
+import model.Board;
+import model.Move;
+import model.MoveList;
+import model.Piece;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Endgame tablebase produced by {@link TablebaseGenerator}, probed through
+ * memory-mapped tables so only the pages that are touched get loaded.
+ *
+ * The file holds one table per canonical material signature (see
+ * {@link Material}), with one byte per position from the side to move's
+ * point of view: {@value #DRAW} for a draw, {@value #INVALID} for an
+ * impossible index, and otherwise {@code distance + 1}, where distance is the
+ * number of plies until the game ends with best play. Since the side to move
+ * wins when it runs out of moves or pieces, an even distance is a win and an
+ * odd one a loss. Distances beyond {@value #MAX_DISTANCE} plies are capped
+ * (keeping their parity).
+ * <pre>
+ *   header:    "ACTB", u8 version, u8 max pieces, u16 zero, u64 directory offset
+ *   tables:    one byte per index, at the offsets given in the directory
+ *   directory: u32 table count, then per table u64 material key, u64 offset
+ * </pre>
+ * Probing allocates nothing and may run on any number of threads at once.
+ * The file stays open until {@link #close}.
+ */
+public class Tablebase implements Closeable {
+    /** Returned by {@link #probe} for positions the tablebase does not cover. */
+    public static final int UNKNOWN = -1;
+    public static final int DRAW = 0;
+    public static final int INVALID = 0xFF;
+    public static final int MAX_DISTANCE = 253;
+
+    static final byte[] MAGIC = {'A', 'C', 'T', 'B'};
+    static final byte VERSION = 1;
+    static final int HEADER_SIZE = 16;
+
+    private final FileChannel channel;
+    private final int maxPieces;
+    private final long[] keys;
+    private final ByteBuffer[] tables;
+
+    private Tablebase(FileChannel channel, int maxPieces, long[] keys, ByteBuffer[] tables) {
+        this.channel = channel;
+        this.maxPieces = maxPieces;
+        this.keys = keys;
+        this.tables = tables;
+    }
+
+    /**
+     * Map a tablebase file.
+     * @param path File written by {@link TablebaseGenerator}
+     * @return Tablebase ready for probing
+     * @throws IOException If the file cannot be read or is not a tablebase
+     */
+    public static Tablebase open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            readFully(channel, header, 0);
+            for (byte b : MAGIC) {
+                if (header.get() != b) throw new IOException("Not a tablebase file.");
+            }
+            if (header.get() != VERSION) throw new IOException("Unsupported tablebase version.");
+            int maxPieces = header.get();
+            header.getShort();
+            long directory = header.getLong();
+
+            ByteBuffer count = ByteBuffer.allocate(4);
+            readFully(channel, count, directory);
+            int tableCount = count.getInt();
+            ByteBuffer entries = ByteBuffer.allocate(tableCount * 16);
+            readFully(channel, entries, directory + 4);
+
+            // Directory entries are sorted by key, for binary search while probing
+            long[] keys = new long[tableCount];
+            ByteBuffer[] tables = new ByteBuffer[tableCount];
+            for (int i = 0; i < tableCount; i++) {
+                keys[i] = entries.getLong();
+                long offset = entries.getLong();
+                tables[i] = channel.map(FileChannel.MapMode.READ_ONLY, offset, Material.fromKey(keys[i]).size());
+            }
+            return new Tablebase(channel, maxPieces, keys, tables);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Tablebase file is truncated.");
+            }
+        }
+        buffer.flip();
+    }
+
+    /**
+     * Largest number of pieces (both sides together) covered.
+     * @return Piece count
+     */
+    public int getMaxPieces() {
+        return maxPieces;
+    }
+
+    public int getTableCount() {
+        return keys.length;
+    }
+
+    /**
+     * Look up a position.
+     * @param board Position to look up
+     * @return Table value ({@link #DRAW} or distance + 1), or {@link #UNKNOWN}
+     *         if the position's material is not in the tablebase
+     */
+    public int probe(Board board) {
+        int white = board.getPieceCount(Piece.Color.WHITE);
+        int black = board.getPieceCount(Piece.Color.BLACK);
+        if (white == 0 || black == 0 || white + black > maxPieces) return UNKNOWN;
+
+        long key = Material.keyOf(board);
+        boolean flip = !Material.isCanonical(key);
+        int table = find(flip ? Material.flipKey(key) : key);
+        if (table < 0) return UNKNOWN;
+
+        long index = Material.indexOf(board, flip);
+        return tables[table].get((int) index) & 0xFF;
+    }
+
+    /**
+     * The move that reaches the best tablebase result: the quickest win,
+     * otherwise a draw, otherwise the slowest loss.
+     * @param board Position (left unchanged)
+     * @return Packed move, or {@link Move#NONE} if there is no legal move or
+     *         the tablebase does not cover every reply
+     */
+    public int bestMove(Board board) {
+        Board copy = new Board(board);
+        MoveList moves = new MoveList();
+        copy.generateLegalMoves(copy.getSideToMove(), moves);
+        int bestMove = Move.NONE;
+        int bestRank = Integer.MIN_VALUE;
+        for (int i = 0; i < moves.size(); i++) {
+            copy.makeMove(moves.get(i));
+            int value = copy.getPieceCount(copy.getSideToMove()) == 0 ? 1 : probe(copy);
+            copy.unmakeMove();
+            if (value == UNKNOWN) return Move.NONE;
+            int rank = rank(value);
+            if (rank > bestRank) {
+                bestRank = rank;
+                bestMove = moves.get(i);
+            }
+        }
+        return bestMove;
+    }
+
+    // Orders the opponent's value from our point of view: their quick loss is best for us
+    private static int rank(int opponentValue) {
+        if (opponentValue == DRAW) return 0;
+        int distance = distance(opponentValue);
+        return (distance & 1) == 1 ? 1000 - distance : -1000 + distance;
+    }
+
+    public static boolean isWin(int value) {
+        return value != UNKNOWN && value != DRAW && value != INVALID && (distance(value) & 1) == 0;
+    }
+
+    public static boolean isLoss(int value) {
+        return value != UNKNOWN && value != DRAW && value != INVALID && (distance(value) & 1) == 1;
+    }
+
+    /**
+     * Plies until the game ends with best play.
+     * @param value Win or loss value from {@link #probe}
+     * @return Distance in plies
+     */
+    public static int distance(int value) {
+        return value - 1;
+    }
+
+    /**
+     * Describe a table value, e.g. "win in 6".
+     * @param value Value from {@link #probe}
+     * @return Text
+     */
+    public static String describe(int value) {
+        if (value == UNKNOWN) return "unknown";
+        if (value == DRAW) return "draw";
+        if (value == INVALID) return "invalid";
+        return (isWin(value) ? "win in " : "loss in ") + distance(value);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private int find(long key) {
+        int low = 0;
+        int high = keys.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid] < key) {
+                low = mid + 1;
+            } else if (keys[mid] > key) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,376 @@
+// src/tablebase/TablebaseGenerator.java
+package tablebase;
+
+import model.Bitboards;
+import model.Board;
+import model.Fen;
+import model.Move;
+import model.Piece;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Builds a {@link Tablebase} by retrograde analysis.
+ *
+ * Tables are solved in order of piece count, since a capture leads into a
+ * table with one piece less; the tables of one piece count are independent
+ * and are solved in parallel, one per worker thread. Within a table:
+ * <ol>
+ *   <li>every position is classified once by generating its moves. A side
+ *       with no legal move has won. A position with captures (which are
+ *       forced) is decided from the smaller tables right away. Otherwise the
+ *       position's quiet moves are counted;</li>
+ *   <li>decided positions are then processed in order of distance, walking
+ *       quiet moves backwards: a predecessor of a loss is a win one ply
+ *       further away, and a predecessor whose every move has been shown to
+ *       reach a win for the opponent is a loss;</li>
+ *   <li>whatever is left undecided is a draw.</li>
+ * </ol>
+ *
+ * Usage: {@code java Main tablebase generate <pieces> <file> [--threads n]}
+ * or {@code java Main tablebase probe <file> <fen>}
+ */
+public class TablebaseGenerator {
+    /** Largest table size that fits one mapped buffer. */
+    public static final int MAX_PIECES = 4;
+
+    private static final byte FINAL = (byte) 0xFF;
+    private static final int DRAWN = Integer.MIN_VALUE;
+    private static final IntList EMPTY = new IntList();
+
+    private final int threads;
+    private final Map<Long, byte[]> solved = new ConcurrentHashMap<>();
+
+    /**
+     * @param threads Worker threads
+     */
+    public TablebaseGenerator(int threads) {
+        this.threads = Math.max(1, threads);
+    }
+
+    /**
+     * Solve every material signature with up to a number of pieces and write
+     * the tablebase file.
+     * @param maxPieces Largest piece count, both sides together (2 to {@value #MAX_PIECES})
+     * @param path Output file
+     * @throws IOException If the file cannot be written
+     */
+    public void generate(int maxPieces, Path path) throws IOException {
+        if (maxPieces < 2 || maxPieces > MAX_PIECES) {
+            throw new IllegalArgumentException("Piece count must be between 2 and " + MAX_PIECES + ".");
+        }
+        Map<Long, Long> offsets = new TreeMap<>();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try (FileChannel out = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            long position = Tablebase.HEADER_SIZE;
+            for (int pieces = 2; pieces <= maxPieces; pieces++) {
+                // Tables are written in key order, whatever order they finish in,
+                // so the same arguments always produce the same file
+                List<Material> level = Material.canonicalWithPieces(pieces);
+                level.sort(Comparator.comparingLong(Material::getKey));
+                List<Future<byte[]>> results = new ArrayList<>();
+                for (Material material : level) {
+                    results.add(pool.submit(() -> solve(material)));
+                }
+                for (int i = 0; i < level.size(); i++) {
+                    Material material = level.get(i);
+                    byte[] values = results.get(i).get();
+                    write(out, ByteBuffer.wrap(values), position);
+                    offsets.put(material.getKey(), position);
+                    position += values.length;
+                    if (pieces < maxPieces) {
+                        solved.put(material.getKey(), values);
+                    }
+                }
+                // Captures only ever lead one level down
+                final int current = pieces;
+                solved.keySet().removeIf(key -> Material.fromKey(key).getPieces() < current);
+            }
+
+            ByteBuffer directory = ByteBuffer.allocate(4 + 16 * offsets.size());
+            directory.putInt(offsets.size());
+            for (Map.Entry<Long, Long> entry : offsets.entrySet()) {
+                directory.putLong(entry.getKey()).putLong(entry.getValue());
+            }
+            directory.flip();
+            write(out, directory, position);
+
+            ByteBuffer header = ByteBuffer.allocate(Tablebase.HEADER_SIZE);
+            header.put(Tablebase.MAGIC).put(Tablebase.VERSION).put((byte) maxPieces).putShort((short) 0).putLong(position).flip();
+            write(out, header, 0);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Tablebase generation interrupted.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Tablebase worker failed.", e);
+        } finally {
+            pool.shutdown();
+            solved.clear();
+        }
+    }
+
+    /**
+     * Solve one table. The tables one piece smaller must be solved already.
+     * @param material Canonical signature
+     * @return One value byte per index (see {@link Tablebase})
+     */
+    byte[] solve(Material material) {
+        long start = System.currentTimeMillis();
+        int size = (int) material.size();
+        int n = material.getPieces();
+        byte[] values = new byte[size];
+        byte[] counters = new byte[size];
+        List<IntList> buckets = new ArrayList<>();
+        int[] squares = new int[n];
+
+        for (int index = 0; index < size; index++) {
+            if (!material.decode(index, squares)) {
+                values[index] = (byte) Tablebase.INVALID;
+                counters[index] = FINAL;
+                continue;
+            }
+            int stm = index & 1;
+            int quietMoves = classify(material, squares, stm);
+            if (quietMoves > 0) {
+                counters[index] = (byte) quietMoves;
+                continue;
+            }
+            counters[index] = FINAL;
+            int distance = quietMoves == 0 ? 0 : -quietMoves - 1;
+            if (quietMoves != DRAWN) {
+                values[index] = encode(distance);
+                bucket(buckets, distance).add(index);
+            }
+        }
+
+        // Walk back from decided positions, nearest first
+        int[] previous = new int[n];
+        for (int distance = 0; distance < buckets.size(); distance++) {
+            IntList bucket = buckets.get(distance);
+            boolean loss = (distance & 1) == 1;
+            for (int k = 0; k < bucket.size; k++) {
+                int index = bucket.data[k];
+                material.decode(index, squares);
+                int mover = 1 - (index & 1);
+                long occupied = 0;
+                for (int sq : squares) occupied |= Bitboards.bit(sq);
+
+                for (int slot = 0; slot < n; slot++) {
+                    int piece = material.getSlotPiece(slot);
+                    if (piece / 6 != mover) continue;
+                    for (long origins = origins(piece, squares[slot], occupied); origins != 0; origins &= origins - 1) {
+                        System.arraycopy(squares, 0, previous, 0, n);
+                        previous[slot] = Long.numberOfTrailingZeros(origins);
+                        int before = (int) material.index(previous, mover);
+                        if (values[before] != 0 || counters[before] == FINAL) continue;
+                        if (loss || --counters[before] == 0) {
+                            values[before] = encode(distance + 1);
+                            counters[before] = FINAL;
+                            bucket(buckets, distance + 1).add(before);
+                        }
+                    }
+                }
+            }
+            buckets.set(distance, EMPTY);
+        }
+
+        System.out.println(material + ": " + size + " indexes, longest result " + (buckets.size() - 1) + " plies, "
+            + (System.currentTimeMillis() - start) + " ms");
+        return values;
+    }
+
+    /**
+     * Generate the moves of a position.
+     * @return The number of quiet moves if there are no captures; otherwise
+     *         the decided result as {@code -(distance + 1)}, or {@link #DRAWN}
+     *         (0 when there is no legal move, a win for the side to move)
+     */
+    private int classify(Material material, int[] squares, int stm) {
+        int n = squares.length;
+        long own = 0;
+        long their = 0;
+        for (int slot = 0; slot < n; slot++) {
+            if (material.getSlotPiece(slot) / 6 == stm) {
+                own |= Bitboards.bit(squares[slot]);
+            } else {
+                their |= Bitboards.bit(squares[slot]);
+            }
+        }
+        long occupied = own | their;
+        Piece.Color color = Piece.Color.values()[stm];
+
+        int quiet = 0;
+        boolean capture = false;
+        int fastestWin = Integer.MAX_VALUE;
+        int slowestLoss = -1;
+        boolean draw = false;
+        int[] childPieces = new int[n - 1];
+        int[] childSquares = new int[n - 1];
+        for (int slot = 0; slot < n; slot++) {
+            int piece = material.getSlotPiece(slot);
+            if (piece / 6 != stm) continue;
+            Piece.PieceType type = Piece.PieceType.values()[piece % 6];
+            int from = squares[slot];
+            long targets;
+            long quietTargets;
+            if (type == Piece.PieceType.PAWN) {
+                targets = Bitboards.pawnAttacks(color, from);
+                quietTargets = Bitboards.pawnPushesAll(color, Bitboards.bit(from)) & ~occupied;
+            } else {
+                targets = Bitboards.attacks(type, color, from, occupied);
+                quietTargets = targets & ~occupied;
+            }
+            quiet += Long.bitCount(quietTargets);
+
+            for (long captures = targets & their; captures != 0; captures &= captures - 1) {
+                capture = true;
+                int to = Long.numberOfTrailingZeros(captures);
+                int child = captureResult(material, squares, slot, to, childPieces, childSquares);
+                // A child value is its distance + 1, which is our distance through it
+                if (child == Tablebase.DRAW) {
+                    draw = true;
+                } else if ((Tablebase.distance(child) & 1) == 1) {
+                    fastestWin = Math.min(fastestWin, child);
+                } else {
+                    slowestLoss = Math.max(slowestLoss, child);
+                }
+            }
+        }
+        if (!capture) return quiet;
+        if (fastestWin != Integer.MAX_VALUE) return -fastestWin - 1;
+        if (draw) return DRAWN;
+        return -slowestLoss - 1;
+    }
+
+    /**
+     * Value of the position after a capture, from the point of view of the
+     * side then to move (whose piece was taken).
+     */
+    private int captureResult(Material material, int[] squares, int slot, int to, int[] childPieces, int[] childSquares) {
+        int n = squares.length;
+        int captured = -1;
+        for (int s = 0; s < n; s++) {
+            if (squares[s] == to) captured = s;
+        }
+        int capturedPiece = material.getSlotPiece(captured);
+        int victim = capturedPiece / 6;
+        if (material.getSideCount(victim) == 1) {
+            return 1; // no pieces left: the side to move has won
+        }
+        int count = 0;
+        for (int s = 0; s < n; s++) {
+            if (s == captured) continue;
+            childPieces[count] = material.getSlotPiece(s);
+            childSquares[count++] = s == slot ? to : squares[s];
+        }
+        long key = material.getKey() - (1L << (4 * capturedPiece));
+        boolean flip = !Material.isCanonical(key);
+        long tableKey = flip ? Material.flipKey(key) : key;
+        byte[] table = solved.get(tableKey);
+        if (table == null) {
+            throw new IllegalStateException("Table " + Material.fromKey(tableKey) + " has not been solved.");
+        }
+        long index = Material.fromKey(tableKey).indexOf(childPieces, childSquares, count, victim, flip);
+        return table[(int) index] & 0xFF;
+    }
+
+    /**
+     * Squares a piece now on {@code square} could have come from with a quiet move.
+     */
+    private static long origins(int piece, int square, long occupied) {
+        Piece.Color color = Piece.Color.values()[piece / 6];
+        Piece.PieceType type = Piece.PieceType.values()[piece % 6];
+        if (type == Piece.PieceType.PAWN) {
+            // Pawns only move forward: back means towards their own side
+            long back = color == Piece.Color.WHITE ? Bitboards.bit(square) << 8 : Bitboards.bit(square) >>> 8;
+            return back & ~occupied;
+        }
+        return Bitboards.attacks(type, color, square, occupied) & ~occupied;
+    }
+
+    private static byte encode(int distance) {
+        if (distance > Tablebase.MAX_DISTANCE) {
+            distance = Tablebase.MAX_DISTANCE - ((distance - Tablebase.MAX_DISTANCE) & 1);
+        }
+        return (byte) (distance + 1);
+    }
+
+    private static IntList bucket(List<IntList> buckets, int distance) {
+        while (buckets.size() <= distance) {
+            buckets.add(new IntList());
+        }
+        return buckets.get(distance);
+    }
+
+    private static void write(FileChannel out, ByteBuffer data, long position) throws IOException {
+        while (data.hasRemaining()) {
+            position += out.write(data, position);
+        }
+    }
+
+    /**
+     * Growable list of position indexes.
+     */
+    private static class IntList {
+        int[] data = new int[1024];
+        int size;
+
+        void add(int value) {
+            if (size == data.length) data = Arrays.copyOf(data, size * 2);
+            data[size++] = value;
+        }
+    }
+
+    public static void main(String[] args) {
+        if (args.length >= 3 && args[0].equals("generate")) {
+            int pieces = Integer.parseInt(args[1]);
+            int threads = Runtime.getRuntime().availableProcessors();
+            for (int i = 3; i < args.length; i++) {
+                if (args[i].equals("--threads") && i + 1 < args.length) {
+                    threads = Integer.parseInt(args[++i]);
+                } else {
+                    System.out.println("Unknown option: " + args[i]);
+                    return;
+                }
+            }
+            long start = System.currentTimeMillis();
+            try {
+                new TablebaseGenerator(threads).generate(pieces, Path.of(args[2]));
+            } catch (IOException e) {
+                System.out.println("Cannot write tablebase: " + e.getMessage());
+                return;
+            }
+            System.out.println("Done in " + (System.currentTimeMillis() - start) + " ms");
+        } else if (args.length >= 3 && args[0].equals("probe")) {
+            try (Tablebase tablebase = Tablebase.open(Path.of(args[1]))) {
+                Board board = Fen.parse(String.join(" ", Arrays.copyOfRange(args, 2, args.length)));
+                board.displayBoard();
+                System.out.println("Result: " + Tablebase.describe(tablebase.probe(board)));
+                int move = tablebase.bestMove(board);
+                if (move != Move.NONE) {
+                    System.out.println("Best move: " + Move.toString(move));
+                }
+            } catch (IOException e) {
+                System.out.println("Cannot read tablebase: " + e.getMessage());
+            }
+        } else {
+            System.out.println("Usage: java Main tablebase generate <pieces> <file> [--threads n]");
+            System.out.println("       java Main tablebase probe <file> <fen>");
+        }
+    }
+}